@@ -0,0 +1,112 @@
+package com.unisinsight.sprite.common.cache;
+
+import lombok.Data;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * description 缓存指标：各级命中、未命中、加载与刷新
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class CacheMetrics {
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadErrors = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    void onLocalHit() {
+        localHits.increment();
+    }
+
+    void onRemoteHit() {
+        remoteHits.increment();
+    }
+
+    void onStaleHit() {
+        staleHits.increment();
+    }
+
+    void onMiss() {
+        misses.increment();
+    }
+
+    void onLoad(long nanos, boolean success) {
+        loads.increment();
+        loadNanos.add(nanos);
+        if (!success) {
+            loadErrors.increment();
+        }
+    }
+
+    void onRefresh() {
+        refreshes.increment();
+    }
+
+    /**
+     * 生成指标快照
+     *
+     * @param name 缓存名称
+     * @return Snapshot
+     */
+    public Snapshot snapshot(String name) {
+        Snapshot snapshot = new Snapshot();
+        snapshot.setName(name);
+        long local = localHits.sum();
+        long remote = remoteHits.sum();
+        long miss = misses.sum();
+        long loadCount = loads.sum();
+        snapshot.setLocalHits(local);
+        snapshot.setRemoteHits(remote);
+        snapshot.setStaleHits(staleHits.sum());
+        snapshot.setMisses(miss);
+        long total = local + remote + miss;
+        snapshot.setHitRate(total == 0 ? 0 : (local + remote) / (double) total);
+        snapshot.setLoads(loadCount);
+        snapshot.setLoadErrors(loadErrors.sum());
+        snapshot.setAvgLoadMillis(loadCount == 0 ? 0
+                : loadNanos.sum() / (double) TimeUnit.MILLISECONDS.toNanos(1) / loadCount);
+        snapshot.setRefreshes(refreshes.sum());
+        return snapshot;
+    }
+
+    /**
+     * 指标快照
+     */
+    @Data
+    public static class Snapshot {
+
+        private String name;
+
+        private long localHits;
+
+        private long remoteHits;
+
+        /**
+         * 返回陈旧值的次数，已计入localHits或remoteHits
+         */
+        private long staleHits;
+
+        private long misses;
+
+        private double hitRate;
+
+        private long loads;
+
+        private long loadErrors;
+
+        private double avgLoadMillis;
+
+        /**
+         * 陈旧值触发的异步刷新次数
+         */
+        private long refreshes;
+    }
+}
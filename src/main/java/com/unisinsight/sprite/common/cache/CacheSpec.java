@@ -0,0 +1,72 @@
+package com.unisinsight.sprite.common.cache;
+
+import lombok.Data;
+
+/**
+ * description 单个缓存的配置
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Data
+public class CacheSpec {
+
+    /**
+     * 有效期(秒)，过期后进入陈旧期
+     */
+    private long ttl = 600L;
+
+    /**
+     * 本地缓存有效期(秒)，0表示不使用本地缓存；
+     * 本地缓存不随其他节点的evict失效，应明显短于ttl
+     */
+    private long localTtl = 30L;
+
+    /**
+     * 陈旧期(秒)：过期后仍可返回旧值并异步刷新，0表示过期即失效
+     */
+    private long staleTtl = 0L;
+
+    /**
+     * 是否缓存null，防止不存在的key穿透到数据库
+     */
+    private boolean cacheNull = true;
+
+    /**
+     * null值的有效期(秒)
+     */
+    private long nullTtl = 60L;
+
+    /**
+     * 有效期随机上浮比例，如0.1表示在[ttl, 1.1*ttl)之间，避免同时写入的key同时过期
+     */
+    private double jitter = 0.1D;
+
+    /**
+     * 缓存值的类型，配置后按该类型解码，忽略redis中记录的类名
+     */
+    private Class<?> valueType;
+
+    /**
+     * valueType为List时的元素类型
+     */
+    private Class<?> elementType;
+
+    /**
+     * 复制一份配置
+     *
+     * @return CacheSpec
+     */
+    public CacheSpec copy() {
+        CacheSpec spec = new CacheSpec();
+        spec.setTtl(ttl);
+        spec.setLocalTtl(localTtl);
+        spec.setStaleTtl(staleTtl);
+        spec.setCacheNull(cacheNull);
+        spec.setNullTtl(nullTtl);
+        spec.setJitter(jitter);
+        spec.setValueType(valueType);
+        spec.setElementType(elementType);
+        return spec;
+    }
+}
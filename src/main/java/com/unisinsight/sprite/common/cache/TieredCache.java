@@ -0,0 +1,426 @@
+package com.unisinsight.sprite.common.cache;
+
+import com.unisinsight.sprite.common.codec.RedisCodec;
+import com.unisinsight.sprite.common.utils.CacheUtils;
+import com.unisinsight.sprite.common.utils.RedisUtil;
+import com.unisinsight.sprite.common.utils.TaskLane;
+import com.unisinsight.sprite.common.utils.ThreadPoolUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.NullValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description 二级缓存：本地(CacheUtils) + redis(RedisUtil)
+ * 读取依次查本地、redis，redis命中后回填本地；写入同时写两级；
+ * 有效期随机上浮避免雪崩，可缓存null防止穿透；
+ * 配置了陈旧期时，@Cacheable(sync = true)读到过期值会直接返回并异步刷新，调用方不等待加载；
+ * 同一进程内同一key只有一个线程执行加载；
+ * 解码时不按redis中记录的类名加载类，值类型取CacheSpec配置的类型，
+ * 未配置时只接受registerType注册过或本进程写入过的类型，其余按未命中处理
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Slf4j
+public class TieredCache extends AbstractValueAdaptingCache {
+
+    private static final byte VERSION = 1;
+
+    /**
+     * 可按redis中记录的类名解码的类型
+     */
+    private static final ConcurrentMap<String, Class<?>> KNOWN_TYPES = new ConcurrentHashMap<>();
+
+    private final String name;
+
+    private final String keyPrefix;
+
+    private final CacheSpec spec;
+
+    private final RedisCodec codec;
+
+    private final CacheMetrics metrics = new CacheMetrics();
+
+    /**
+     * 正在加载的key，用于合并并发加载
+     */
+    private final ConcurrentMap<String, CompletableFuture<Object>> inflight = new ConcurrentHashMap<>();
+
+    /**
+     * 构造方法
+     *
+     * @param name  缓存名称，redis key为cache:{name}:{key}
+     * @param spec  配置
+     * @param codec redis编解码器
+     */
+    public TieredCache(String name, CacheSpec spec, RedisCodec codec) {
+        super(spec.isCacheNull());
+        this.name = name;
+        this.keyPrefix = "cache:" + name + ":";
+        this.spec = spec;
+        this.codec = codec;
+    }
+
+    /**
+     * 注册可解码的值类型或列表元素类型，用于未配置valueType、且本进程尚未写入过该类型的缓存
+     *
+     * @param types 类型
+     */
+    public static void registerType(Class<?>... types) {
+        for (Class<?> type : types) {
+            KNOWN_TYPES.put(type.getName(), type);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    /**
+     * 不带加载器的读取无法异步刷新，过期值按未命中处理
+     */
+    @Override
+    protected Object lookup(Object key) {
+        Entry entry = getEntry(redisKey(key));
+        if (entry == null || entry.isExpired()) {
+            metrics.onMiss();
+            return null;
+        }
+        return entry.value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String redisKey = redisKey(key);
+        Entry entry = getEntry(redisKey);
+        if (entry != null) {
+            if (!entry.isExpired()) {
+                return (T) fromStoreValue(entry.value);
+            }
+            if (entry.isUsable(staleMillis())) {
+                metrics.onStaleHit();
+                refreshAsync(redisKey, key, valueLoader);
+                return (T) fromStoreValue(entry.value);
+            }
+        }
+        metrics.onMiss();
+        return (T) load(redisKey, key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null && !isAllowNullValues()) {
+            evict(key);
+            return;
+        }
+        write(redisKey(key), toStoreValue(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        String redisKey = redisKey(key);
+        Entry entry = getEntry(redisKey);
+        if (entry != null && !entry.isExpired()) {
+            return toValueWrapper(entry.value);
+        }
+        put(key, value);
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        String redisKey = redisKey(key);
+        CacheUtils.remove(redisKey);
+        RedisUtil.remove(redisKey);
+    }
+
+    @Override
+    public void clear() {
+        CacheUtils.removeByPrefix(keyPrefix);
+        RedisUtil.removePattern(keyPrefix + "*");
+    }
+
+    /**
+     * 运行指标
+     *
+     * @return CacheMetrics.Snapshot
+     */
+    public CacheMetrics.Snapshot getMetrics() {
+        return metrics.snapshot(name);
+    }
+
+    private String redisKey(Object key) {
+        return keyPrefix + key;
+    }
+
+    private long staleMillis() {
+        return TimeUnit.SECONDS.toMillis(spec.getStaleTtl());
+    }
+
+    /**
+     * 依次查本地、redis，不判断是否过期
+     */
+    private Entry getEntry(String redisKey) {
+        if (spec.getLocalTtl() > 0) {
+            Entry entry = CacheUtils.get(redisKey);
+            if (entry != null) {
+                metrics.onLocalHit();
+                return entry;
+            }
+        }
+        byte[] bytes = RedisUtil.getBytes(redisKey);
+        if (null == bytes || bytes.length == 0) {
+            return null;
+        }
+        Entry entry = decode(bytes);
+        if (entry == null) {
+            return null;
+        }
+        metrics.onRemoteHit();
+        putLocal(redisKey, entry);
+        return entry;
+    }
+
+    /**
+     * 加载并写入缓存，同一key的并发加载只执行一次，其余线程等待其结果
+     */
+    private Object load(String redisKey, Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inflight.putIfAbsent(redisKey, future);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RejectedExecutionException) {
+                    // 等到的是被跳过的刷新，自行加载
+                    return load(redisKey, key, valueLoader);
+                }
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+        try {
+            Object value = loadAndPut(redisKey, valueLoader);
+            future.complete(value);
+            return value;
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inflight.remove(redisKey, future);
+        }
+    }
+
+    /**
+     * 异步刷新，已有线程在加载该key时不重复提交；
+     * 线程池已满时放弃本次刷新，继续返回旧值，不占用请求线程
+     */
+    private void refreshAsync(String redisKey, Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        if (inflight.putIfAbsent(redisKey, future) != null) {
+            return;
+        }
+        boolean submitted = ThreadPoolUtils.tryExecute(TaskLane.DEFAULT, () -> {
+            try {
+                future.complete(loadAndPut(redisKey, valueLoader));
+            } catch (Exception e) {
+                log.warn("缓存[{}]刷新失败，key={}：", name, key, e);
+                future.completeExceptionally(e);
+            } finally {
+                inflight.remove(redisKey, future);
+            }
+        });
+        if (submitted) {
+            metrics.onRefresh();
+            return;
+        }
+        inflight.remove(redisKey, future);
+        future.completeExceptionally(new RejectedExecutionException("refresh skipped"));
+        log.debug("缓存[{}]刷新跳过，线程池已满，key={}", name, key);
+    }
+
+    private Object loadAndPut(String redisKey, Callable<?> valueLoader) throws Exception {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            metrics.onLoad(System.nanoTime() - start, false);
+            throw e;
+        }
+        metrics.onLoad(System.nanoTime() - start, true);
+        if (value != null || isAllowNullValues()) {
+            write(redisKey, toStoreValue(value));
+        }
+        return value;
+    }
+
+    private void write(String redisKey, Object storeValue) {
+        long ttlMillis;
+        long staleMillis;
+        if (storeValue == NullValue.INSTANCE) {
+            ttlMillis = TimeUnit.SECONDS.toMillis(spec.getNullTtl());
+            staleMillis = 0L;
+        } else {
+            ttlMillis = jittered(TimeUnit.SECONDS.toMillis(spec.getTtl()));
+            staleMillis = staleMillis();
+        }
+        Entry entry = new Entry(storeValue, System.currentTimeMillis() + ttlMillis);
+        byte[] bytes = encode(entry);
+        if (bytes != null) {
+            // redis中额外保留陈旧期，向上取整到秒
+            RedisUtil.setBytes(redisKey, (ttlMillis + staleMillis + 999) / 1000, bytes);
+        }
+        CacheUtils.remove(redisKey);
+        putLocal(redisKey, entry);
+    }
+
+    private long jittered(long millis) {
+        if (spec.getJitter() <= 0 || millis <= 0) {
+            return millis;
+        }
+        return millis + (long) (millis * spec.getJitter() * ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * 本地缓存时间不超过本地有效期，也不超过该值在redis中的剩余时间
+     */
+    private void putLocal(String redisKey, Entry entry) {
+        if (spec.getLocalTtl() <= 0) {
+            return;
+        }
+        long remaining = entry.expireAt + (entry.value == NullValue.INSTANCE ? 0L : staleMillis())
+                - System.currentTimeMillis();
+        long localMillis = Math.min(TimeUnit.SECONDS.toMillis(spec.getLocalTtl()), remaining);
+        if (localMillis > 0) {
+            CacheUtils.set(redisKey, entry, localMillis);
+        }
+    }
+
+    /**
+     * redis中的格式：版本、过期时间、值类名、列表元素类名、编解码器数据；值类名为空表示null
+     */
+    private byte[] encode(Entry entry) {
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bos);
+            out.writeByte(VERSION);
+            out.writeLong(entry.expireAt);
+            Object value = entry.value;
+            if (value == NullValue.INSTANCE) {
+                out.writeUTF("");
+                out.writeUTF("");
+            } else {
+                Class<?> elementType = value instanceof List ? elementType((List<?>) value) : null;
+                out.writeUTF(value.getClass().getName());
+                out.writeUTF(elementType == null ? "" : elementType.getName());
+                out.write(codec.encode(value));
+                KNOWN_TYPES.putIfAbsent(value.getClass().getName(), value.getClass());
+                if (elementType != null) {
+                    KNOWN_TYPES.putIfAbsent(elementType.getName(), elementType);
+                }
+            }
+            out.flush();
+            return bos.toByteArray();
+        } catch (Exception e) {
+            log.warn("缓存[{}]编码失败：", name, e);
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Entry decode(byte[] bytes) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (in.readByte() != VERSION) {
+                return null;
+            }
+            long expireAt = in.readLong();
+            String className = in.readUTF();
+            String elementClassName = in.readUTF();
+            if (className.isEmpty()) {
+                return new Entry(NullValue.INSTANCE, expireAt);
+            }
+            byte[] payload = new byte[in.available()];
+            in.readFully(payload);
+            Class<?> type = spec.getValueType();
+            Class<?> elementType = spec.getElementType();
+            if (type == null) {
+                type = KNOWN_TYPES.get(className);
+                elementType = elementClassName.isEmpty() ? null : KNOWN_TYPES.get(elementClassName);
+                if (type == null || (elementType == null && !elementClassName.isEmpty())) {
+                    // 未知类型按未命中处理，加载后写入即注册
+                    log.debug("缓存[{}]类型未注册：{}<{}>", name, className, elementClassName);
+                    return null;
+                }
+            }
+            Object value;
+            if (List.class.isAssignableFrom(type)) {
+                value = codec.decodeList(payload, elementType == null ? Object.class : (Class<Object>) elementType);
+            } else {
+                value = codec.decode(payload, type);
+            }
+            return new Entry(value, expireAt);
+        } catch (IOException | RuntimeException e) {
+            // 类结构变化或数据损坏，按未命中处理，加载后覆盖
+            log.warn("缓存[{}]解码失败：", name, e);
+            return null;
+        }
+    }
+
+    /**
+     * 列表元素类型取第一个非null元素的类型，列表元素需为同一类型
+     */
+    private static Class<?> elementType(List<?> list) {
+        for (Object element : list) {
+            if (element != null) {
+                return element.getClass();
+            }
+        }
+        return null;
+    }
+
+    private static final class Entry {
+
+        private final Object value;
+
+        /**
+         * 逻辑过期时间(毫秒)，之后进入陈旧期
+         */
+        private final long expireAt;
+
+        private Entry(Object value, long expireAt) {
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        private boolean isExpired() {
+            return System.currentTimeMillis() >= expireAt;
+        }
+
+        private boolean isUsable(long staleMillis) {
+            return staleMillis > 0 && System.currentTimeMillis() < expireAt + staleMillis;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.unisinsight.sprite.common.cache;
+
+import com.unisinsight.sprite.common.codec.RedisCodec;
+import com.unisinsight.sprite.common.codec.RedisCodecs;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * description 二级缓存管理器，缓存按名称首次使用时创建
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class TieredCacheManager implements CacheManager {
+
+    private final TieredCacheProperties properties;
+
+    private final RedisCodec codec;
+
+    private final ConcurrentMap<String, TieredCache> caches = new ConcurrentHashMap<>();
+
+    public TieredCacheManager(TieredCacheProperties properties) {
+        this.properties = properties;
+        this.codec = codecOf(properties.getCodec());
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, n -> new TieredCache(n, specOf(n), codec));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    /**
+     * 所有缓存的指标
+     *
+     * @return List
+     */
+    public List<CacheMetrics.Snapshot> getMetrics() {
+        List<CacheMetrics.Snapshot> list = new ArrayList<>(caches.size());
+        for (TieredCache cache : caches.values()) {
+            list.add(cache.getMetrics());
+        }
+        return list;
+    }
+
+    private CacheSpec specOf(String name) {
+        CacheSpec spec = properties.getCaches().get(name);
+        return (spec == null ? properties.getDefaults() : spec).copy();
+    }
+
+    private static RedisCodec codecOf(String name) {
+        if ("json".equalsIgnoreCase(name)) {
+            return RedisCodecs.JSON;
+        }
+        if ("binary".equalsIgnoreCase(name)) {
+            return RedisCodecs.BINARY;
+        }
+        if (null == name || "binary-compressed".equalsIgnoreCase(name)) {
+            return RedisCodecs.BINARY_COMPRESSED;
+        }
+        throw new IllegalArgumentException("不支持的缓存编解码器：" + name);
+    }
+}
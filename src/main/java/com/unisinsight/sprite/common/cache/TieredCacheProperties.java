@@ -0,0 +1,43 @@
+package com.unisinsight.sprite.common.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * description 二级缓存配置，前缀sprite.cache
+ * <pre>
+ * sprite:
+ *   cache:
+ *     defaults:
+ *       ttl: 600
+ *     caches:
+ *       place:
+ *         ttl: 3600
+ *         stale-ttl: 300
+ * </pre>
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Data
+@ConfigurationProperties(prefix = "sprite.cache")
+public class TieredCacheProperties {
+
+    /**
+     * 未单独配置的缓存使用的配置
+     */
+    private CacheSpec defaults = new CacheSpec();
+
+    /**
+     * 按缓存名称的配置，未配置的项不会继承defaults，需写全
+     */
+    private Map<String, CacheSpec> caches = new LinkedHashMap<>();
+
+    /**
+     * redis编解码器：json、binary、binary-compressed
+     */
+    private String codec = "binary-compressed";
+}
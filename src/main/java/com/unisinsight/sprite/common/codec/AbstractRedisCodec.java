@@ -0,0 +1,92 @@
+package com.unisinsight.sprite.common.codec;
+
+import java.util.List;
+
+/**
+ * description 编解码器基类，统一记录耗时与字节数
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public abstract class AbstractRedisCodec implements RedisCodec {
+
+    private final String name;
+
+    private final CodecMetrics metrics = new CodecMetrics();
+
+    protected AbstractRedisCodec(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        long start = System.nanoTime();
+        byte[] bytes = doEncode(value);
+        metrics.onEncode(bytes.length, System.nanoTime() - start);
+        return bytes;
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, Class<T> clazz) {
+        long start = System.nanoTime();
+        try {
+            T value = doDecode(bytes, clazz);
+            metrics.onDecode(bytes.length, System.nanoTime() - start);
+            return value;
+        } catch (RuntimeException e) {
+            metrics.onDecodeError();
+            throw e;
+        }
+    }
+
+    @Override
+    public <T> List<T> decodeList(byte[] bytes, Class<T> elementClass) {
+        long start = System.nanoTime();
+        try {
+            List<T> value = doDecodeList(bytes, elementClass);
+            metrics.onDecode(bytes.length, System.nanoTime() - start);
+            return value;
+        } catch (RuntimeException e) {
+            metrics.onDecodeError();
+            throw e;
+        }
+    }
+
+    @Override
+    public CodecMetrics.Snapshot getMetrics() {
+        return metrics.snapshot(name);
+    }
+
+    /**
+     * 编码实现
+     *
+     * @param value 对象
+     * @return byte[]
+     */
+    protected abstract byte[] doEncode(Object value);
+
+    /**
+     * 解码实现
+     *
+     * @param bytes 数据
+     * @param clazz 目标类型
+     * @param <T>   泛型
+     * @return T
+     */
+    protected abstract <T> T doDecode(byte[] bytes, Class<T> clazz);
+
+    /**
+     * 列表解码实现
+     *
+     * @param bytes        数据
+     * @param elementClass 元素类型
+     * @param <T>          泛型
+     * @return List
+     */
+    protected abstract <T> List<T> doDecodeList(byte[] bytes, Class<T> elementClass);
+}
@@ -0,0 +1,623 @@
+package com.unisinsight.sprite.common.codec;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.parser.ParserConfig;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * description 紧凑二进制编解码
+ * 格式：1字节类型标记 + 数据，整数使用zigzag varint；
+ * 实体类按字段名排序依次写入字段值，不写字段名，开头写入字段结构指纹，结构变化后旧数据解码失败按缓存未命中处理；
+ * 不支持的类型(如java.time)退回JSON文本
+ * 解码只按调用方声明的类型实例化，数据中不含类名；需要多态的实体通过registerSubtype登记编号，
+ * 未登记的子类按声明类型写为不带类型信息的JSON文本
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class BinaryRedisCodec extends AbstractRedisCodec {
+
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte FLOAT = 6;
+    private static final byte STRING = 7;
+    private static final byte DECIMAL = 8;
+    private static final byte DATE = 9;
+    private static final byte LIST = 10;
+    private static final byte MAP = 11;
+    private static final byte BEAN = 12;
+    private static final byte BYTES = 13;
+    private static final byte SHORT = 14;
+    private static final byte BYTE = 15;
+    private static final byte CHAR = 16;
+    private static final byte ENUM = 17;
+    private static final byte SET = 18;
+    private static final byte BIG_INTEGER = 19;
+    private static final byte JSON_TEXT = 20;
+    /**
+     * 旧格式：实体后写入类名，已停用，读到时按解码失败处理
+     */
+    private static final byte TYPED_BEAN = 21;
+    /**
+     * 运行时类型与声明类型不一致且已登记的实体，额外写入登记编号
+     */
+    private static final byte SUBTYPE_BEAN = 22;
+
+    /**
+     * 解析JSON文本的配置，拒绝任何@type，类型只来自声明；HashMapper解析JSON文本的域时同样使用
+     */
+    static final ParserConfig JSON_CONFIG = new ParserConfig() {
+        @Override
+        public Class<?> checkAutoType(String typeName, Class<?> expectClass) {
+            throw new JSONException("不支持@type：" + typeName);
+        }
+
+        @Override
+        public Class<?> checkAutoType(String typeName, Class<?> expectClass, int features) {
+            throw new JSONException("不支持@type：" + typeName);
+        }
+    };
+
+    /**
+     * 各实体类的字段结构，首次使用时解析
+     */
+    private static final Map<Class<?>, BeanSchema> SCHEMAS = new ConcurrentHashMap<>();
+
+    /**
+     * 已登记的多态实体：编号到类型
+     */
+    private static final Map<Integer, Class<?>> SUBTYPES = new ConcurrentHashMap<>();
+
+    /**
+     * 已登记的多态实体：类型到编号
+     */
+    private static final Map<Class<?>, Integer> SUBTYPE_IDS = new ConcurrentHashMap<>();
+
+    public BinaryRedisCodec() {
+        super("binary");
+    }
+
+    /**
+     * 登记允许多态解码的实体类型
+     * 字段声明为父类/接口而实际值为子类时，只有登记过的子类才按子类写入和读取，编号写入数据代替类名
+     *
+     * @param id   编号，全局唯一且不可复用，变更编号会导致旧缓存解码失败
+     * @param type 实体类型，需有无参构造方法
+     */
+    public static synchronized void registerSubtype(int id, Class<?> type) {
+        if (!isBean(type)) {
+            throw new IllegalArgumentException(type.getName() + " 不是可编码的实体类");
+        }
+        Class<?> existing = SUBTYPES.get(id);
+        Integer existingId = SUBTYPE_IDS.get(type);
+        if ((existing != null && existing != type) || (existingId != null && existingId != id)) {
+            throw new IllegalArgumentException("编号或类型已登记：" + id + " " + type.getName());
+        }
+        SUBTYPES.put(id, type);
+        SUBTYPE_IDS.put(type, id);
+    }
+
+    @Override
+    protected byte[] doEncode(Object value) {
+        Output out = new Output(128);
+        if (value instanceof List) {
+            // 顶层列表的元素类型由decodeList传入，元素实体不写类名
+            List<?> list = (List<?>) value;
+            out.writeByte(LIST);
+            out.writeVarInt(list.size());
+            for (Object element : list) {
+                write(out, element, element == null ? null : element.getClass());
+            }
+        } else {
+            write(out, value, value == null ? null : value.getClass());
+        }
+        return out.toByteArray();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <T> T doDecode(byte[] bytes, Class<T> clazz) {
+        return (T) read(new Input(bytes), clazz, clazz);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <T> List<T> doDecodeList(byte[] bytes, Class<T> elementClass) {
+        Input in = new Input(bytes);
+        byte tag = in.readByte();
+        if (tag == NULL) {
+            return null;
+        }
+        if (tag != LIST) {
+            throw new IllegalStateException("数据不是列表，类型标记：" + tag);
+        }
+        int size = in.readVarInt();
+        List<T> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add((T) read(in, elementClass, elementClass));
+        }
+        return list;
+    }
+
+    /**
+     * 写入一个值
+     *
+     * @param out      输出
+     * @param value    值
+     * @param declared 声明类型，未知时为null
+     */
+    private void write(Output out, Object value, Type declared) {
+        if (value == null) {
+            out.writeByte(NULL);
+            return;
+        }
+        Class<?> type = value.getClass();
+        if (type == String.class) {
+            out.writeByte(STRING);
+            out.writeString((String) value);
+        } else if (type == Integer.class) {
+            out.writeByte(INT);
+            out.writeVarLong((Integer) value);
+        } else if (type == Long.class) {
+            out.writeByte(LONG);
+            out.writeVarLong((Long) value);
+        } else if (type == Boolean.class) {
+            out.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (type == Double.class) {
+            out.writeByte(DOUBLE);
+            out.writeLong(Double.doubleToRawLongBits((Double) value));
+        } else if (type == Float.class) {
+            out.writeByte(FLOAT);
+            out.writeInt(Float.floatToRawIntBits((Float) value));
+        } else if (type == Short.class) {
+            out.writeByte(SHORT);
+            out.writeVarLong((Short) value);
+        } else if (type == Byte.class) {
+            out.writeByte(BYTE);
+            out.writeByte((Byte) value);
+        } else if (type == Character.class) {
+            out.writeByte(CHAR);
+            out.writeVarLong((Character) value);
+        } else if (type == BigDecimal.class) {
+            out.writeByte(DECIMAL);
+            out.writeString(((BigDecimal) value).toString());
+        } else if (type == BigInteger.class) {
+            out.writeByte(BIG_INTEGER);
+            out.writeBytes(((BigInteger) value).toByteArray());
+        } else if (value instanceof Date) {
+            out.writeByte(DATE);
+            out.writeVarLong(((Date) value).getTime());
+        } else if (type == byte[].class) {
+            out.writeByte(BYTES);
+            out.writeBytes((byte[]) value);
+        } else if (value instanceof Enum) {
+            out.writeByte(ENUM);
+            out.writeString(((Enum<?>) value).name());
+        } else if (value instanceof Collection) {
+            Collection<?> collection = (Collection<?>) value;
+            out.writeByte(value instanceof Set ? SET : LIST);
+            out.writeVarInt(collection.size());
+            Type elementType = typeArgument(declared, 0);
+            for (Object element : collection) {
+                write(out, element, elementType);
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            out.writeByte(MAP);
+            out.writeVarInt(map.size());
+            Type keyType = typeArgument(declared, 0);
+            Type valueType = typeArgument(declared, 1);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                write(out, entry.getKey(), keyType);
+                write(out, entry.getValue(), valueType);
+            }
+        } else if (isBean(type) && rawClass(declared) == type) {
+            out.writeByte(BEAN);
+            writeBean(out, value, schemaOf(type));
+        } else if (SUBTYPE_IDS.containsKey(type)) {
+            out.writeByte(SUBTYPE_BEAN);
+            out.writeVarInt(SUBTYPE_IDS.get(type));
+            writeBean(out, value, schemaOf(type));
+        } else {
+            out.writeByte(JSON_TEXT);
+            out.writeString(JSON.toJSONString(value));
+        }
+    }
+
+    private void writeBean(Output out, Object bean, BeanSchema schema) {
+        out.writeInt(schema.fingerprint);
+        try {
+            for (Field field : schema.fields) {
+                write(out, field.get(bean), field.getGenericType());
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("读取字段失败：" + bean.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * 读取一个值
+     *
+     * @param in       输入
+     * @param expected 期望类型，未知时为null
+     * @param generic  期望类型的泛型信息，未知时为null
+     * @return Object
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object read(Input in, Class<?> expected, Type generic) {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return null;
+            case TRUE:
+                return Boolean.TRUE;
+            case FALSE:
+                return Boolean.FALSE;
+            case INT:
+                return (int) in.readVarLong();
+            case LONG:
+                return in.readVarLong();
+            case DOUBLE:
+                return Double.longBitsToDouble(in.readLong());
+            case FLOAT:
+                return Float.intBitsToFloat(in.readInt());
+            case SHORT:
+                return (short) in.readVarLong();
+            case BYTE:
+                return in.readByte();
+            case CHAR:
+                return (char) in.readVarLong();
+            case STRING:
+                return in.readString();
+            case DECIMAL:
+                return new BigDecimal(in.readString());
+            case BIG_INTEGER:
+                return new BigInteger(in.readBytes());
+            case DATE:
+                return toDate(in.readVarLong(), expected);
+            case BYTES:
+                return in.readBytes();
+            case ENUM:
+                String name = in.readString();
+                if (expected != null && expected.isEnum()) {
+                    return Enum.valueOf((Class<Enum>) expected, name);
+                }
+                return name;
+            case LIST:
+            case SET:
+                int size = in.readVarInt();
+                Type elementType = typeArgument(generic, 0);
+                Class<?> elementClass = rawClass(elementType);
+                Collection<Object> collection = tag == SET ? new LinkedHashSet<>(size * 2) : new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    collection.add(read(in, elementClass, elementType));
+                }
+                return collection;
+            case MAP:
+                int entries = in.readVarInt();
+                Type keyType = typeArgument(generic, 0);
+                Type valueType = typeArgument(generic, 1);
+                Map<Object, Object> map = new HashMap<>(entries * 2);
+                for (int i = 0; i < entries; i++) {
+                    Object key = read(in, rawClass(keyType), keyType);
+                    map.put(key, read(in, rawClass(valueType), valueType));
+                }
+                return map;
+            case BEAN:
+                if (expected == null || expected == Object.class) {
+                    throw new IllegalStateException("缺少实体类型信息，无法解码");
+                }
+                return readBean(in, schemaOf(expected));
+            case SUBTYPE_BEAN:
+                return readBean(in, schemaOf(subtype(in.readVarInt(), expected)));
+            case JSON_TEXT:
+                // 不识别@type，类型只来自声明
+                String text = in.readString();
+                return JSON.parseObject(text, generic == null ? Object.class : generic, JSON_CONFIG,
+                        Feature.DisableSpecialKeyDetect);
+            case TYPED_BEAN:
+                throw new IllegalStateException("不再支持按类名解码的旧数据");
+            default:
+                throw new IllegalStateException("未知的类型标记：" + tag);
+        }
+    }
+
+    private Object readBean(Input in, BeanSchema schema) {
+        int fingerprint = in.readInt();
+        if (fingerprint != schema.fingerprint) {
+            throw new IllegalStateException("实体结构已变化：" + schema.type.getName());
+        }
+        try {
+            Object bean = schema.constructor.newInstance();
+            for (Field field : schema.fields) {
+                Object value = read(in, field.getType(), field.getGenericType());
+                if (value != null) {
+                    field.set(bean, value);
+                }
+            }
+            return bean;
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("实例化失败：" + schema.type.getName(), e);
+        }
+    }
+
+    private static Object toDate(long millis, Class<?> expected) {
+        if (expected == java.sql.Timestamp.class) {
+            return new java.sql.Timestamp(millis);
+        }
+        if (expected == java.sql.Date.class) {
+            return new java.sql.Date(millis);
+        }
+        return new Date(millis);
+    }
+
+    /**
+     * 按登记编号取实体类型，且必须与声明类型兼容
+     */
+    private static Class<?> subtype(int id, Class<?> expected) {
+        Class<?> type = SUBTYPES.get(id);
+        if (type == null) {
+            throw new IllegalStateException("未登记的实体编号：" + id);
+        }
+        if (expected != null && !expected.isAssignableFrom(type)) {
+            throw new IllegalStateException("实体类型" + type.getName() + "与声明类型不符：" + expected.getName());
+        }
+        return type;
+    }
+
+    /**
+     * 是否按实体类编码：非JDK类型且有无参构造方法
+     */
+    private static boolean isBean(Class<?> type) {
+        if (type.isArray() || type.isInterface() || type.getName().startsWith("java.")) {
+            return false;
+        }
+        try {
+            type.getDeclaredConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            Type[] args = ((ParameterizedType) type).getActualTypeArguments();
+            return index < args.length ? args[index] : null;
+        }
+        return null;
+    }
+
+    private static Class<?> rawClass(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        return null;
+    }
+
+    private static BeanSchema schemaOf(Class<?> type) {
+        return SCHEMAS.computeIfAbsent(type, BeanSchema::new);
+    }
+
+    /**
+     * 实体类字段结构
+     */
+    private static final class BeanSchema {
+
+        private final Class<?> type;
+
+        private final Constructor<?> constructor;
+
+        private final Field[] fields;
+
+        private final int fingerprint;
+
+        private BeanSchema(Class<?> type) {
+            this.type = type;
+            try {
+                this.constructor = type.getDeclaredConstructor();
+                this.constructor.setAccessible(true);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException(type.getName() + " 缺少无参构造方法", e);
+            }
+            List<Field> list = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                        continue;
+                    }
+                    field.setAccessible(true);
+                    list.add(field);
+                }
+            }
+            list.sort(Comparator.comparing(Field::getName).thenComparing(f -> f.getDeclaringClass().getName()));
+            this.fields = list.toArray(new Field[0]);
+            StringBuilder signature = new StringBuilder();
+            for (Field field : fields) {
+                signature.append(field.getName()).append(':').append(field.getGenericType().getTypeName()).append(';');
+            }
+            this.fingerprint = Arrays.hashCode(signature.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * 可扩容的输出缓冲区
+     */
+    private static final class Output {
+
+        private byte[] buffer;
+
+        private int position;
+
+        private Output(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        private void ensure(int size) {
+            if (position + size > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + size));
+            }
+        }
+
+        private void writeByte(int b) {
+            ensure(1);
+            buffer[position++] = (byte) b;
+        }
+
+        private void writeInt(int v) {
+            ensure(4);
+            buffer[position++] = (byte) (v >>> 24);
+            buffer[position++] = (byte) (v >>> 16);
+            buffer[position++] = (byte) (v >>> 8);
+            buffer[position++] = (byte) v;
+        }
+
+        private void writeLong(long v) {
+            writeInt((int) (v >>> 32));
+            writeInt((int) v);
+        }
+
+        /**
+         * 无符号varint，用于长度
+         */
+        private void writeVarInt(int v) {
+            ensure(5);
+            while ((v & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buffer[position++] = (byte) v;
+        }
+
+        /**
+         * zigzag varlong，用于有符号整数
+         */
+        private void writeVarLong(long v) {
+            long zigzag = (v << 1) ^ (v >> 63);
+            ensure(10);
+            while ((zigzag & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+                zigzag >>>= 7;
+            }
+            buffer[position++] = (byte) zigzag;
+        }
+
+        private void writeBytes(byte[] bytes) {
+            writeVarInt(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        private void writeString(String s) {
+            writeBytes(s.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    /**
+     * 输入缓冲区
+     */
+    private static final class Input {
+
+        private final byte[] buffer;
+
+        private int position;
+
+        private Input(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        private byte readByte() {
+            if (position >= buffer.length) {
+                throw new IllegalStateException("数据不完整");
+            }
+            return buffer[position++];
+        }
+
+        private int readInt() {
+            return ((readByte() & 0xFF) << 24) | ((readByte() & 0xFF) << 16)
+                    | ((readByte() & 0xFF) << 8) | (readByte() & 0xFF);
+        }
+
+        private long readLong() {
+            return ((long) readInt() << 32) | (readInt() & 0xFFFFFFFFL);
+        }
+
+        private int readVarInt() {
+            int result = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = readByte();
+                result |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalStateException("varint格式错误");
+        }
+
+        private long readVarLong() {
+            long zigzag = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+                zigzag |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return (zigzag >>> 1) ^ -(zigzag & 1);
+                }
+            }
+            throw new IllegalStateException("varlong格式错误");
+        }
+
+        private byte[] readBytes() {
+            int length = readVarInt();
+            if (length < 0 || position + length > buffer.length) {
+                throw new IllegalStateException("数据不完整");
+            }
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        private String readString() {
+            int length = readVarInt();
+            if (length < 0 || position + length > buffer.length) {
+                throw new IllegalStateException("数据不完整");
+            }
+            String s = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return s;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.unisinsight.sprite.common.codec;
+
+import lombok.Data;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * description 编解码指标：次数、字节数、耗时
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class CodecMetrics {
+
+    private final LongAdder encodeCount = new LongAdder();
+    private final LongAdder encodeBytes = new LongAdder();
+    private final LongAdder encodeNanos = new LongAdder();
+    private final LongAdder decodeCount = new LongAdder();
+    private final LongAdder decodeBytes = new LongAdder();
+    private final LongAdder decodeNanos = new LongAdder();
+    private final LongAdder decodeErrors = new LongAdder();
+
+    void onEncode(int bytes, long nanos) {
+        encodeCount.increment();
+        encodeBytes.add(bytes);
+        encodeNanos.add(nanos);
+    }
+
+    void onDecode(int bytes, long nanos) {
+        decodeCount.increment();
+        decodeBytes.add(bytes);
+        decodeNanos.add(nanos);
+    }
+
+    void onDecodeError() {
+        decodeErrors.increment();
+    }
+
+    /**
+     * 生成指标快照
+     *
+     * @param name 编解码器名称
+     * @return Snapshot
+     */
+    public Snapshot snapshot(String name) {
+        Snapshot snapshot = new Snapshot();
+        snapshot.setName(name);
+        long encodes = encodeCount.sum();
+        long decodes = decodeCount.sum();
+        snapshot.setEncodeCount(encodes);
+        snapshot.setEncodeBytes(encodeBytes.sum());
+        snapshot.setAvgEncodeBytes(encodes == 0 ? 0 : encodeBytes.sum() / (double) encodes);
+        snapshot.setAvgEncodeMicros(encodes == 0 ? 0 : toMicros(encodeNanos.sum()) / encodes);
+        snapshot.setDecodeCount(decodes);
+        snapshot.setDecodeBytes(decodeBytes.sum());
+        snapshot.setAvgDecodeMicros(decodes == 0 ? 0 : toMicros(decodeNanos.sum()) / decodes);
+        snapshot.setDecodeErrors(decodeErrors.sum());
+        return snapshot;
+    }
+
+    private static double toMicros(long nanos) {
+        return nanos / (double) TimeUnit.MICROSECONDS.toNanos(1);
+    }
+
+    /**
+     * 指标快照
+     */
+    @Data
+    public static class Snapshot {
+
+        private String name;
+
+        private long encodeCount;
+
+        /**
+         * 编码后的总字节数，即写入redis的数据量
+         */
+        private long encodeBytes;
+
+        private double avgEncodeBytes;
+
+        private double avgEncodeMicros;
+
+        private long decodeCount;
+
+        private long decodeBytes;
+
+        private double avgDecodeMicros;
+
+        private long decodeErrors;
+    }
+}
@@ -0,0 +1,120 @@
+package com.unisinsight.sprite.common.codec;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * description 压缩编解码装饰器
+ * 编码结果超过阈值时使用Deflater(BEST_SPEED)压缩，首字节标记是否压缩，小对象不压缩避免浪费CPU
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class CompressedRedisCodec extends AbstractRedisCodec {
+
+    private static final byte RAW = 0;
+
+    private static final byte DEFLATE = 1;
+
+    private final RedisCodec delegate;
+
+    private final int threshold;
+
+    /**
+     * 构造方法
+     *
+     * @param delegate  实际的编解码器
+     * @param threshold 压缩阈值(字节)
+     */
+    public CompressedRedisCodec(RedisCodec delegate, int threshold) {
+        super(delegate.getName() + "+deflate");
+        this.delegate = delegate;
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected byte[] doEncode(Object value) {
+        byte[] raw = delegate.encode(value);
+        if (raw.length >= threshold) {
+            byte[] compressed = deflate(raw);
+            // 压缩收益不明显时保存原始数据
+            if (compressed.length < raw.length - raw.length / 10) {
+                return withHeader(DEFLATE, compressed);
+            }
+        }
+        return withHeader(RAW, raw);
+    }
+
+    @Override
+    protected <T> T doDecode(byte[] bytes, Class<T> clazz) {
+        return delegate.decode(unwrap(bytes), clazz);
+    }
+
+    @Override
+    protected <T> List<T> doDecodeList(byte[] bytes, Class<T> elementClass) {
+        return delegate.decodeList(unwrap(bytes), elementClass);
+    }
+
+    private static byte[] withHeader(byte flag, byte[] body) {
+        byte[] bytes = new byte[body.length + 1];
+        bytes[0] = flag;
+        System.arraycopy(body, 0, bytes, 1, body.length);
+        return bytes;
+    }
+
+    private static byte[] unwrap(byte[] bytes) {
+        if (bytes.length == 0) {
+            throw new IllegalStateException("数据为空");
+        }
+        byte[] body = Arrays.copyOfRange(bytes, 1, bytes.length);
+        if (bytes[0] == RAW) {
+            return body;
+        }
+        if (bytes[0] == DEFLATE) {
+            return inflate(body);
+        }
+        throw new IllegalStateException("未知的压缩标记：" + bytes[0]);
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(buffer);
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("压缩数据不完整");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("解压失败", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.unisinsight.sprite.common.codec;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.parser.Feature;
+import com.alibaba.fastjson.util.FieldInfo;
+import com.alibaba.fastjson.util.JavaBeanInfo;
+import com.alibaba.fastjson.util.TypeUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * description 实体与redis hash的映射
+ * 每个类只解析一次属性、生成MethodHandle与转换器，之后读写hash时不再反射、不再经过JSON中转；
+ * 属性列表取自fastjson：写入使用JavaBeanSerializer的getter列表(含只读属性，遵循@JSONField的name与serialize)，
+ * 读取使用JavaBeanDeserializer的setter列表，与原hsetObj经JSON中转得到的域名一致，已有缓存数据可直接读取
+ *
+ * @param <T> 实体类型
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public final class HashMapper<T> {
+
+    private static final Map<Class<?>, HashMapper<?>> MAPPERS = new ConcurrentHashMap<>();
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    private final Class<T> type;
+
+    private final MethodHandle constructor;
+
+    /**
+     * 可读属性，顺序与fastjson序列化一致
+     */
+    private final FieldMapping[] fields;
+
+    private final Map<String, FieldMapping> fieldsByName;
+
+    private HashMapper(Class<T> type) {
+        this.type = type;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Map<String, FieldMapping> byName = new LinkedHashMap<>();
+        try {
+            Constructor<T> ctor = type.getDeclaredConstructor();
+            ctor.setAccessible(true);
+            this.constructor = lookup.unreflectConstructor(ctor).asType(CONSTRUCTOR_TYPE);
+            List<FieldMapping> readable = new ArrayList<>();
+            for (FieldInfo info : TypeUtils.computeGetters(type, null)) {
+                FieldMapping field = new FieldMapping(info.name);
+                field.getter = (info.method != null ? lookup.unreflect(accessible(info.method))
+                        : lookup.unreflectGetter(accessible(info.field))).asType(GETTER_TYPE);
+                field.format = info.format;
+                field.valueType = info.fieldClass;
+                field.genericType = info.fieldType;
+                byName.put(field.name, field);
+                readable.add(field);
+            }
+            for (FieldInfo info : JavaBeanInfo.build(type, type, null).fields) {
+                if (info.getOnly) {
+                    continue;
+                }
+                FieldMapping field = byName.computeIfAbsent(info.name, FieldMapping::new);
+                field.setter = info.method != null ? lookup.unreflect(accessible(info.method)).asType(SETTER_TYPE)
+                        : lookup.unreflectSetter(accessible(info.field)).asType(SETTER_TYPE);
+                field.valueType = info.fieldClass;
+                field.genericType = info.fieldType;
+            }
+            this.fields = readable.toArray(new FieldMapping[0]);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException(type.getName() + " 无法生成hash映射", e);
+        }
+        this.fieldsByName = new HashMap<>(byName);
+    }
+
+    /**
+     * 获取指定类的映射，首次调用时生成并缓存
+     *
+     * @param type 实体类
+     * @param <T>  泛型
+     * @return HashMapper
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> HashMapper<T> of(Class<T> type) {
+        return (HashMapper<T>) MAPPERS.computeIfAbsent(type, HashMapper::new);
+    }
+
+    /**
+     * 实体转为hash，值为null的字段不写入
+     *
+     * @param obj 实体
+     * @return hash域与值
+     */
+    public Map<byte[], byte[]> toHash(T obj) {
+        Map<byte[], byte[]> hash = new LinkedHashMap<>(fields.length * 2);
+        for (FieldMapping field : fields) {
+            Object value = field.get(obj);
+            if (value != null) {
+                hash.put(field.nameBytes, field.encode(value));
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * 指定字段转为hash，值为null的字段放入nullFields，由调用方执行HDEL
+     *
+     * @param obj        实体
+     * @param names      字段名
+     * @param nullFields 值为null的字段的域名，可为null
+     * @return hash域与值
+     */
+    public Map<byte[], byte[]> toHash(T obj, List<String> names, List<byte[]> nullFields) {
+        Map<byte[], byte[]> hash = new LinkedHashMap<>(names.size() * 2);
+        for (String name : names) {
+            FieldMapping field = field(name);
+            Object value = field.get(obj);
+            if (value != null) {
+                hash.put(field.nameBytes, field.encode(value));
+            } else if (nullFields != null) {
+                nullFields.add(field.nameBytes);
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * hash转为实体，未知的域忽略
+     *
+     * @param hash hash域与值
+     * @return 实体，hash为空时返回null
+     */
+    public T fromHash(Map<byte[], byte[]> hash) {
+        if (hash == null || hash.isEmpty()) {
+            return null;
+        }
+        T obj = newInstance();
+        for (Map.Entry<byte[], byte[]> entry : hash.entrySet()) {
+            FieldMapping field = fieldsByName.get(new String(entry.getKey(), StandardCharsets.UTF_8));
+            if (field != null && field.setter != null && entry.getValue() != null) {
+                field.set(obj, field.decode(entry.getValue()));
+            }
+        }
+        return obj;
+    }
+
+    /**
+     * HMGET结果转为实体，只填充指定字段
+     *
+     * @param names  字段名，与values顺序一致
+     * @param values HMGET返回值
+     * @return 实体，所有值均为null时返回null
+     */
+    public T fromValues(List<String> names, List<byte[]> values) {
+        if (values == null) {
+            return null;
+        }
+        T obj = null;
+        for (int i = 0; i < names.size() && i < values.size(); i++) {
+            byte[] value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            FieldMapping field = field(names.get(i));
+            if (field.setter == null) {
+                continue;
+            }
+            if (obj == null) {
+                obj = newInstance();
+            }
+            field.set(obj, field.decode(value));
+        }
+        return obj;
+    }
+
+    /**
+     * 字段名对应的hash域名
+     *
+     * @param names 字段名
+     * @return 域名
+     */
+    public byte[][] fieldKeys(List<String> names) {
+        byte[][] keys = new byte[names.size()][];
+        for (int i = 0; i < names.size(); i++) {
+            keys[i] = field(names.get(i)).nameBytes;
+        }
+        return keys;
+    }
+
+    /**
+     * 比较两个实体，返回值不同的字段名
+     *
+     * @param before 修改前，为null时返回全部字段
+     * @param after  修改后
+     * @return 字段名
+     */
+    public List<String> changedFields(T before, T after) {
+        List<String> changed = new ArrayList<>();
+        for (FieldMapping field : fields) {
+            if (before == null || !Objects.equals(field.get(before), field.get(after))) {
+                changed.add(field.name);
+            }
+        }
+        return changed;
+    }
+
+    private FieldMapping field(String name) {
+        FieldMapping field = fieldsByName.get(name);
+        if (field == null) {
+            throw new IllegalArgumentException(type.getName() + " 不存在字段：" + name);
+        }
+        return field;
+    }
+
+    private static <A extends AccessibleObject> A accessible(A member) {
+        member.setAccessible(true);
+        return member;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T newInstance() {
+        try {
+            return (T) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("实例化失败：" + type.getName(), e);
+        }
+    }
+
+    /**
+     * 单个属性的读写句柄与值转换，只读属性没有setter，只写属性没有getter
+     */
+    private static final class FieldMapping {
+
+        private final String name;
+
+        private final byte[] nameBytes;
+
+        private Class<?> valueType;
+
+        private Type genericType;
+
+        private String format;
+
+        private MethodHandle getter;
+
+        private MethodHandle setter;
+
+        private FieldMapping(String name) {
+            this.name = name;
+            this.nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private Object get(Object obj) {
+            if (getter == null) {
+                throw new IllegalArgumentException("属性不可读：" + name);
+            }
+            try {
+                return getter.invokeExact(obj);
+            } catch (Throwable e) {
+                throw new IllegalStateException("读取字段失败：" + name, e);
+            }
+        }
+
+        private void set(Object obj, Object value) {
+            if (value == null) {
+                return;
+            }
+            try {
+                setter.invokeExact(obj, value);
+            } catch (Throwable e) {
+                throw new IllegalStateException("写入字段失败：" + name, e);
+            }
+        }
+
+        /**
+         * 值转为hash中的字符串，简单类型直接toString，日期为毫秒数或@JSONField指定的格式，其余为JSON
+         */
+        private byte[] encode(Object value) {
+            String text;
+            if (value instanceof CharSequence || value instanceof Number || value instanceof Boolean
+                    || value instanceof Character) {
+                text = value.toString();
+            } else if (value instanceof Date) {
+                text = format == null ? Long.toString(((Date) value).getTime())
+                        : new SimpleDateFormat(format).format((Date) value);
+            } else if (value instanceof Enum) {
+                text = ((Enum<?>) value).name();
+            } else {
+                text = JSON.toJSONString(value);
+            }
+            return text.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Object decode(byte[] bytes) {
+            String text = new String(bytes, StandardCharsets.UTF_8);
+            Class<?> t = valueType;
+            if (t == String.class) {
+                return text;
+            }
+            if (text.isEmpty()) {
+                return null;
+            }
+            if (t == Integer.class || t == int.class) {
+                return Integer.valueOf(text);
+            }
+            if (t == Long.class || t == long.class) {
+                return Long.valueOf(text);
+            }
+            if (t == Double.class || t == double.class) {
+                return Double.valueOf(text);
+            }
+            if (t == Float.class || t == float.class) {
+                return Float.valueOf(text);
+            }
+            if (t == Boolean.class || t == boolean.class) {
+                return Boolean.valueOf(text);
+            }
+            if (t == Short.class || t == short.class) {
+                return Short.valueOf(text);
+            }
+            if (t == Byte.class || t == byte.class) {
+                return Byte.valueOf(text);
+            }
+            if (t == Character.class || t == char.class) {
+                return text.charAt(0);
+            }
+            if (t == BigDecimal.class) {
+                return new BigDecimal(text);
+            }
+            if (Date.class.isAssignableFrom(t)) {
+                if (!isDigits(text)) {
+                    return TypeUtils.castToDate(text);
+                }
+                long millis = Long.parseLong(text);
+                if (t == java.sql.Timestamp.class) {
+                    return new java.sql.Timestamp(millis);
+                }
+                return t == java.sql.Date.class ? new java.sql.Date(millis) : new Date(millis);
+            }
+            if (t.isEnum()) {
+                return Enum.valueOf((Class<Enum>) t, text);
+            }
+            // 与BinaryRedisCodec相同，不识别@type，类型只来自字段声明
+            return JSON.parseObject(text, genericType, BinaryRedisCodec.JSON_CONFIG,
+                    Feature.DisableSpecialKeyDetect);
+        }
+
+        private static boolean isDigits(String text) {
+            for (int i = text.charAt(0) == '-' ? 1 : 0; i < text.length(); i++) {
+                if (!Character.isDigit(text.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.unisinsight.sprite.common.codec;
+
+import com.alibaba.fastjson.JSON;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * description fastjson文本编解码，与RedisUtil原有的缓存格式兼容
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class JsonRedisCodec extends AbstractRedisCodec {
+
+    public JsonRedisCodec() {
+        super("json");
+    }
+
+    @Override
+    protected byte[] doEncode(Object value) {
+        return JSON.toJSONBytes(value);
+    }
+
+    @Override
+    protected <T> T doDecode(byte[] bytes, Class<T> clazz) {
+        return JSON.parseObject(new String(bytes, StandardCharsets.UTF_8), clazz);
+    }
+
+    @Override
+    protected <T> List<T> doDecodeList(byte[] bytes, Class<T> elementClass) {
+        return JSON.parseArray(new String(bytes, StandardCharsets.UTF_8), elementClass);
+    }
+}
@@ -0,0 +1,54 @@
+package com.unisinsight.sprite.common.codec;
+
+import java.util.List;
+
+/**
+ * description redis对象缓存编解码器
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public interface RedisCodec {
+
+    /**
+     * 编解码器名称，用于指标统计
+     *
+     * @return String
+     */
+    String getName();
+
+    /**
+     * 对象编码
+     *
+     * @param value 对象
+     * @return byte[]
+     */
+    byte[] encode(Object value);
+
+    /**
+     * 解码为对象
+     *
+     * @param bytes 数据
+     * @param clazz 目标类型
+     * @param <T>   泛型
+     * @return T
+     */
+    <T> T decode(byte[] bytes, Class<T> clazz);
+
+    /**
+     * 解码为列表
+     *
+     * @param bytes        数据
+     * @param elementClass 元素类型
+     * @param <T>          泛型
+     * @return List
+     */
+    <T> List<T> decodeList(byte[] bytes, Class<T> elementClass);
+
+    /**
+     * 运行指标
+     *
+     * @return CodecMetrics.Snapshot
+     */
+    CodecMetrics.Snapshot getMetrics();
+}
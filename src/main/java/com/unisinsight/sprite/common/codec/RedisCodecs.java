@@ -0,0 +1,49 @@
+package com.unisinsight.sprite.common.codec;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * description 内置编解码器
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public final class RedisCodecs {
+
+    /**
+     * 超过该字节数的数据才压缩
+     */
+    private static final int COMPRESS_THRESHOLD = 1024;
+
+    /**
+     * fastjson文本，兼容已有缓存数据
+     */
+    public static final RedisCodec JSON = new JsonRedisCodec();
+
+    /**
+     * 紧凑二进制
+     */
+    public static final RedisCodec BINARY = new BinaryRedisCodec();
+
+    /**
+     * 紧凑二进制，超过1KB时压缩
+     */
+    public static final RedisCodec BINARY_COMPRESSED = new CompressedRedisCodec(new BinaryRedisCodec(), COMPRESS_THRESHOLD);
+
+    private RedisCodecs() {
+    }
+
+    /**
+     * 所有内置编解码器的指标
+     *
+     * @return List
+     */
+    public static List<CodecMetrics.Snapshot> getMetrics() {
+        List<CodecMetrics.Snapshot> list = new ArrayList<>(3);
+        list.add(JSON.getMetrics());
+        list.add(BINARY.getMetrics());
+        list.add(BINARY_COMPRESSED.getMetrics());
+        return list;
+    }
+}
@@ -0,0 +1,24 @@
+package com.unisinsight.sprite.common.config;
+
+import com.unisinsight.sprite.common.cache.TieredCacheManager;
+import com.unisinsight.sprite.common.cache.TieredCacheProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * description 缓存配置，@Cacheable等注解使用本地+redis二级缓存
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Configuration
+@EnableConfigurationProperties(TieredCacheProperties.class)
+public class CacheConfiguration {
+
+    @Bean
+    public CacheManager cacheManager(TieredCacheProperties properties) {
+        return new TieredCacheManager(properties);
+    }
+}
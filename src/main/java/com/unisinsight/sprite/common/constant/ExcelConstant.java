@@ -13,6 +13,11 @@ public class ExcelConstant {
      */
     public static final String EXCEL_03_FORMAT = ".xls";
 
+    /**
+     * 2007版Excel后缀
+     */
+    public static final String EXCEL_07_FORMAT = ".xlsx";
+
     private ExcelConstant(){
 
     }
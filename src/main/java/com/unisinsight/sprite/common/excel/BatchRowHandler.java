@@ -0,0 +1,73 @@
+package com.unisinsight.sprite.common.excel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * description 分批转换的行处理
+ * 跳过表头行，每行通过RowBinder转换为实体，达到batchSize后交给handler，读取结束后需调用finish处理最后一批
+ *
+ * @param <T> 实体类型
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class BatchRowHandler<T> implements ExcelRowReader.RowHandler {
+
+    private final RowBinder<T> binder;
+
+    private final int headRows;
+
+    private final int batchSize;
+
+    private final Consumer<List<T>> handler;
+
+    private List<T> batch;
+
+    private int total;
+
+    /**
+     * 构造方法
+     *
+     * @param type      实体类
+     * @param headRows  表头行数
+     * @param batchSize 每批行数
+     * @param handler   批处理
+     */
+    public BatchRowHandler(Class<T> type, int headRows, int batchSize, Consumer<List<T>> handler) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize必须大于0");
+        }
+        this.binder = RowBinder.of(type);
+        this.headRows = headRows;
+        this.batchSize = batchSize;
+        this.handler = handler;
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void onRow(int rowNum, String[] cells) {
+        if (rowNum < headRows) {
+            return;
+        }
+        batch.add(binder.bind(rowNum, cells));
+        total++;
+        if (batch.size() >= batchSize) {
+            handler.accept(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    /**
+     * 处理最后一批
+     *
+     * @return 转换的总行数
+     */
+    public int finish() {
+        if (!batch.isEmpty()) {
+            handler.accept(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+        return total;
+    }
+}
@@ -0,0 +1,174 @@
+package com.unisinsight.sprite.common.excel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * description csv流式读取
+ * 通过NIO通道读入直接内存缓冲区，按字节解析分隔符与引号(逗号、双引号、换行均为单字节，UTF-8下可直接按字节判断)，
+ * 字段内容直接由字节生成String，不经过字符解码缓冲；空字段为null，不创建对象；
+ * 遵循RFC4180：字段可用双引号包裹，引号内的逗号、换行为内容，两个双引号表示一个双引号；支持\r\n与\n换行，跳过UTF-8 BOM与空行；
+ * 与ExcelRowReader使用相同的行处理接口，可直接使用RowBinder转换
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public final class CsvRowReader {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private static final int BOM_LENGTH = 3;
+
+    private static final byte COMMA = ',';
+
+    private static final byte QUOTE = '"';
+
+    private static final byte CR = '\r';
+
+    private static final byte LF = '\n';
+
+    private static final int START = 0;
+
+    private static final int UNQUOTED = 1;
+
+    private static final int QUOTED = 2;
+
+    /**
+     * 引号字段中遇到双引号，下一个字节为双引号时是转义，否则字段的引号结束
+     */
+    private static final int QUOTE_IN_QUOTED = 3;
+
+    private final ExcelRowReader.RowHandler handler;
+
+    private final List<String> fields = new ArrayList<>();
+
+    private byte[] field = new byte[256];
+
+    private int length;
+
+    private int state = START;
+
+    private boolean quoted;
+
+    private int rowNum;
+
+    private CsvRowReader(ExcelRowReader.RowHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * 逐行读取
+     *
+     * @param channel 输入通道，如FileChannel或Channels.newChannel(inputStream)，由调用方关闭
+     * @param handler 行处理，rowNum为记录序号，从0开始，包含表头行
+     * @throws IOException 读取异常
+     */
+    public static void read(ReadableByteChannel channel, ExcelRowReader.RowHandler handler) throws IOException {
+        CsvRowReader reader = new CsvRowReader(handler);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        boolean first = true;
+        while (channel.read(buffer) >= 0) {
+            // 通道一次可能只返回几个字节，凑够BOM的长度再判断
+            if (first && buffer.position() < BOM_LENGTH) {
+                continue;
+            }
+            buffer.flip();
+            if (first) {
+                skipBom(buffer);
+                first = false;
+            }
+            reader.parse(buffer);
+            buffer.clear();
+        }
+        // 内容不足BOM长度时，剩余字节仍在缓冲区中
+        buffer.flip();
+        reader.parse(buffer);
+        reader.finish();
+    }
+
+    private static void skipBom(ByteBuffer buffer) {
+        if (buffer.remaining() >= BOM_LENGTH && buffer.get(0) == (byte) 0xEF && buffer.get(1) == (byte) 0xBB
+                && buffer.get(2) == (byte) 0xBF) {
+            buffer.position(BOM_LENGTH);
+        }
+    }
+
+    private void parse(ByteBuffer buffer) {
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (state == QUOTED) {
+                if (b == QUOTE) {
+                    state = QUOTE_IN_QUOTED;
+                } else {
+                    append(b);
+                }
+                continue;
+            }
+            if (state == QUOTE_IN_QUOTED) {
+                if (b == QUOTE) {
+                    append(b);
+                    state = QUOTED;
+                    continue;
+                }
+                // 引号结束后的内容按普通字符处理
+                state = UNQUOTED;
+            }
+            if (b == COMMA) {
+                endField();
+            } else if (b == LF) {
+                endField();
+                endRow();
+            } else if (b == CR) {
+                continue;
+            } else if (b == QUOTE && state == START) {
+                state = QUOTED;
+                quoted = true;
+            } else {
+                append(b);
+                state = UNQUOTED;
+            }
+        }
+    }
+
+    private void append(byte b) {
+        if (length == field.length) {
+            field = Arrays.copyOf(field, length * 2);
+        }
+        field[length++] = b;
+    }
+
+    private void endField() {
+        if (length == 0) {
+            fields.add(quoted ? "" : null);
+        } else {
+            fields.add(new String(field, 0, length, StandardCharsets.UTF_8));
+        }
+        length = 0;
+        quoted = false;
+        state = START;
+    }
+
+    private void endRow() {
+        // 空行只有一个空字段
+        if (fields.size() > 1 || fields.get(0) != null) {
+            handler.onRow(rowNum, fields.toArray(new String[0]));
+        }
+        rowNum++;
+        fields.clear();
+    }
+
+    /**
+     * 最后一行没有换行时结束该行
+     */
+    private void finish() {
+        if (length > 0 || quoted || !fields.isEmpty() || state != START) {
+            endField();
+            endRow();
+        }
+    }
+}
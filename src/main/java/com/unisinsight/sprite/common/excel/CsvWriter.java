@@ -0,0 +1,178 @@
+package com.unisinsight.sprite.common.excel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
+
+/**
+ * description csv流式导出
+ * 列按顺序对应数据类声明的字段，取值与格式与ExportRowPlan一致；
+ * 写入直接内存缓冲区，满后写入NIO通道，ASCII字符直接按字节写入，不创建中间byte数组；
+ * 包含逗号、双引号或换行的字段用双引号包裹，内容中的双引号写为两个双引号；null写为空字段，空字符串写为""
+ *
+ * <pre>
+ * try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+ *      CsvWriter writer = new CsvWriter(channel, headers, "yyyy-MM-dd HH:mm:ss", false)) {
+ *     writer.write(new PageIterator&lt;&gt;(pageNum -&gt; mapper.selectPage(pageNum, 5000)));
+ * }
+ * </pre>
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class CsvWriter implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private static final byte[] BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final WritableByteChannel channel;
+
+    private final DateTimeFormatter formatter;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    private long total;
+
+    /**
+     * 构造方法，写入表头
+     *
+     * @param channel    输出通道，由调用方关闭
+     * @param headers    列标题，为null时不写表头
+     * @param dateFormat 时间格式
+     * @param bom        是否写入UTF-8 BOM，需要用Excel打开时为true，否则中文乱码
+     * @throws IOException 写出异常
+     */
+    public CsvWriter(WritableByteChannel channel, String[] headers, String dateFormat, boolean bom)
+            throws IOException {
+        this.channel = channel;
+        this.formatter = ExportRowPlan.formatter(dateFormat);
+        if (bom) {
+            buffer.put(BOM);
+        }
+        if (headers != null) {
+            for (int i = 0; i < headers.length; i++) {
+                if (i > 0) {
+                    put((byte) ',');
+                }
+                writeField(headers[i]);
+            }
+            put((byte) '\n');
+        }
+    }
+
+    /**
+     * 写入数据，可多次调用
+     *
+     * @param rows 数据，如PageIterator
+     * @throws IOException 写出异常
+     */
+    public void write(Iterator<?> rows) throws IOException {
+        Class<?> type = null;
+        ExportRowPlan plan = null;
+        while (rows.hasNext()) {
+            Object data = rows.next();
+            if (data == null) {
+                continue;
+            }
+            if (data.getClass() != type) {
+                type = data.getClass();
+                plan = ExportRowPlan.of(type);
+            }
+            for (int i = 0; i < plan.getColumnCount(); i++) {
+                if (i > 0) {
+                    put((byte) ',');
+                }
+                writeField(plan.text(data, i, formatter));
+            }
+            put((byte) '\n');
+            total++;
+        }
+    }
+
+    /**
+     * 已写入的数据行数
+     *
+     * @return long
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * 写出缓冲区中的数据，不关闭通道
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        // 空字符串写为""，与null区分，CsvRowReader读回时分别为""与null
+        if (value.isEmpty()) {
+            put((byte) '"');
+            put((byte) '"');
+            return;
+        }
+        boolean quote = false;
+        boolean ascii = true;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                quote = true;
+            } else if (c >= 0x80) {
+                ascii = false;
+            }
+        }
+        if (quote) {
+            put((byte) '"');
+            writeText(value.replace("\"", "\"\""), ascii);
+            put((byte) '"');
+        } else {
+            writeText(value, ascii);
+        }
+    }
+
+    private void writeText(String value, boolean ascii) throws IOException {
+        if (!ascii) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > buffer.remaining()) {
+                flush();
+            }
+            if (bytes.length > buffer.remaining()) {
+                write(ByteBuffer.wrap(bytes));
+            } else {
+                buffer.put(bytes);
+            }
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            put((byte) value.charAt(i));
+        }
+    }
+
+    private void put(byte b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            flush();
+        }
+        buffer.put(b);
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        write(buffer);
+        buffer.clear();
+    }
+
+    private void write(ByteBuffer source) throws IOException {
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.unisinsight.sprite.common.excel;
+
+import com.unisinsight.sprite.common.enums.BaseResultCode;
+import com.unisinsight.sprite.common.exception.CommonException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * description Excel文件格式
+ * 按文件头的魔数判断：xls为OLE2复合文档(D0 CF 11 E0 A1 B1 1A E1)，xlsx为zip压缩包(50 4B 03 04)
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public enum ExcelFormat {
+
+    /**
+     * Excel2003
+     */
+    XLS(new byte[]{(byte) 0xD0, (byte) 0xCF, 0x11, (byte) 0xE0, (byte) 0xA1, (byte) 0xB1, 0x1A, (byte) 0xE1}),
+
+    /**
+     * Excel2007
+     */
+    XLSX(new byte[]{0x50, 0x4B, 0x03, 0x04});
+
+    private static final int HEADER_LENGTH = 8;
+
+    private final byte[] magic;
+
+    ExcelFormat(byte[] magic) {
+        this.magic = magic;
+    }
+
+    /**
+     * 读取文件头判断格式，读取后流回到起始位置
+     *
+     * @param in 支持mark的输入流，如BufferedInputStream
+     * @return ExcelFormat
+     * @throws IOException 读取异常
+     */
+    public static ExcelFormat detect(InputStream in) throws IOException {
+        if (!in.markSupported()) {
+            throw new IllegalArgumentException("输入流不支持mark");
+        }
+        byte[] header = new byte[HEADER_LENGTH];
+        in.mark(HEADER_LENGTH);
+        int length = 0;
+        try {
+            int n;
+            while (length < HEADER_LENGTH && (n = in.read(header, length, HEADER_LENGTH - length)) > 0) {
+                length += n;
+            }
+        } finally {
+            in.reset();
+        }
+        for (ExcelFormat format : values()) {
+            if (format.matches(header, length)) {
+                return format;
+            }
+        }
+        throw CommonException.of(BaseResultCode.IMPORT_ERROR, "不支持的文件格式，请上传xls或xlsx文件");
+    }
+
+    private boolean matches(byte[] header, int length) {
+        if (length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if (header[i] != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,257 @@
+package com.unisinsight.sprite.common.excel;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.util.SAXHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * description Excel流式读取
+ * xlsx通过SAX逐行解析sheet的xml，不创建XSSFWorkbook，内存占用与文件行数无关；
+ * xls单个sheet最多65536行，仍使用HSSFWorkbook读取；
+ * 只读取第一个sheet，单元格统一读取为字符串：数值为不带格式的原值，日期为yyyy-MM-dd HH:mm:ss，空单元格为null，空行跳过
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Slf4j
+public final class ExcelRowReader {
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * 超过该值的整数转为long会丢失精度，按BigDecimal处理
+     */
+    private static final double MAX_EXACT_LONG = 1e15;
+
+    private ExcelRowReader() {
+    }
+
+    /**
+     * 逐行读取
+     *
+     * @param in      输入流，读取完毕后由调用方关闭
+     * @param handler 行处理，rowNum从0开始，包含表头行
+     * @throws IOException 读取或解析异常
+     */
+    public static void read(InputStream in, RowHandler handler) throws IOException {
+        InputStream input = in.markSupported() ? in : new BufferedInputStream(in);
+        if (ExcelFormat.detect(input) == ExcelFormat.XLSX) {
+            readXlsx(input, handler);
+        } else {
+            readXls(input, handler);
+        }
+    }
+
+    /**
+     * OPCPackage从文件读取时按需解压各部分，从流读取时需要将整个zip解压到内存，因此先写入临时文件
+     */
+    private static void readXlsx(InputStream in, RowHandler handler) throws IOException {
+        Path temp = Files.createTempFile("excel-import-", ".xlsx");
+        OPCPackage pkg = null;
+        try {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            pkg = OPCPackage.open(temp.toFile(), PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pkg);
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return;
+            }
+            XMLReader parser = SAXHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), null,
+                    new ReadOnlySharedStringsTable(pkg), new SheetHandler(handler), new CellFormatter(), false));
+            try (InputStream sheet = sheets.next()) {
+                parser.parse(new InputSource(sheet));
+            }
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("解析xlsx文件失败：" + e.getMessage(), e);
+        } finally {
+            if (pkg != null) {
+                // 只读打开的包使用revert关闭，close会尝试保存
+                pkg.revert();
+            }
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void readXls(InputStream in, RowHandler handler) throws IOException {
+        try (HSSFWorkbook workbook = new HSSFWorkbook(in)) {
+            if (workbook.getNumberOfSheets() == 0) {
+                return;
+            }
+            Sheet sheet = workbook.getSheetAt(0);
+            CellFormatter formatter = new CellFormatter();
+            for (int i = 0; i <= sheet.getLastRowNum(); i++) {
+                Row row = sheet.getRow(i);
+                if (row == null || row.getLastCellNum() <= 0) {
+                    continue;
+                }
+                String[] cells = new String[row.getLastCellNum()];
+                boolean empty = true;
+                for (int j = 0; j < cells.length; j++) {
+                    Cell cell = row.getCell(j);
+                    cells[j] = cell == null ? null : formatter.text(cell);
+                    empty &= isBlank(cells[j]);
+                }
+                if (!empty) {
+                    handler.onRow(i, cells);
+                }
+            }
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    /**
+     * 行处理
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+
+        /**
+         * 处理一行
+         *
+         * @param rowNum 行号，从0开始
+         * @param cells  单元格值，长度为该行最后一个非空单元格的列号+1
+         */
+        void onRow(int rowNum, String[] cells);
+    }
+
+    /**
+     * 收集SAX解析出的单元格，一行结束后交给RowHandler
+     */
+    private static final class SheetHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final RowHandler handler;
+
+        private String[] cells = new String[16];
+
+        private int width;
+
+        private int nextColumn;
+
+        private SheetHandler(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            Arrays.fill(cells, 0, width, null);
+            width = 0;
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            boolean empty = true;
+            for (int i = 0; i < width && empty; i++) {
+                empty = isBlank(cells[i]);
+            }
+            if (!empty) {
+                handler.onRow(rowNum, Arrays.copyOf(cells, width));
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference == null ? nextColumn : column(cellReference);
+            if (column >= cells.length) {
+                cells = Arrays.copyOf(cells, Math.max(cells.length * 2, column + 1));
+            }
+            cells[column] = formattedValue;
+            width = Math.max(width, column + 1);
+            nextColumn = column + 1;
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName) {
+            // 不处理页眉页脚
+        }
+
+        /**
+         * 单元格引用(如AB12)中的列号，从0开始
+         */
+        private static int column(String reference) {
+            int column = 0;
+            for (int i = 0; i < reference.length(); i++) {
+                char ch = reference.charAt(i);
+                if (ch < 'A' || ch > 'Z') {
+                    break;
+                }
+                column = column * 26 + (ch - 'A' + 1);
+            }
+            return column - 1;
+        }
+    }
+
+    /**
+     * 数值不按单元格格式显示(千分位、百分比等)，输出原值；日期统一输出yyyy-MM-dd HH:mm:ss
+     * 内部缓存了格式，每次读取单独创建
+     */
+    private static final class CellFormatter extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString,
+                                            boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DATE_TIME.format(DateUtil.getJavaDate(value, use1904Windowing).toInstant()
+                        .atZone(ZoneId.systemDefault()));
+            }
+            if (value == Math.rint(value) && Math.abs(value) < MAX_EXACT_LONG) {
+                return Long.toString((long) value);
+            }
+            return BigDecimal.valueOf(value).stripTrailingZeros().toPlainString();
+        }
+
+        private String text(Cell cell) {
+            CellType type = cell.getCellTypeEnum();
+            if (type == CellType.FORMULA) {
+                type = cell.getCachedFormulaResultTypeEnum();
+            }
+            switch (type) {
+                case STRING:
+                    return cell.getStringCellValue();
+                case NUMERIC:
+                    CellStyle style = cell.getCellStyle();
+                    return formatRawCellContents(cell.getNumericCellValue(), style.getDataFormat(),
+                            style.getDataFormatString(), false);
+                case BOOLEAN:
+                    return String.valueOf(cell.getBooleanCellValue());
+                default:
+                    return null;
+            }
+        }
+    }
+}
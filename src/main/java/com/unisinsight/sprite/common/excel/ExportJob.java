@@ -0,0 +1,116 @@
+package com.unisinsight.sprite.common.excel;
+
+import com.alibaba.fastjson.annotation.JSONField;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.nio.file.Path;
+
+/**
+ * description 后台导出任务
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Data
+public class ExportJob {
+
+    /**
+     * 任务id
+     */
+    private String id;
+
+    /**
+     * 提交任务的调用者标识
+     */
+    @JsonIgnore
+    @JSONField(serialize = false)
+    private String owner;
+
+    /**
+     * 导出文件名，不含后缀
+     */
+    private String name;
+
+    private volatile State state = State.RUNNING;
+
+    /**
+     * 已写入行数
+     */
+    private volatile long rows;
+
+    /**
+     * 总行数，未知时为-1
+     */
+    @JsonProperty("total_rows")
+    @JSONField(name = "total_rows")
+    private long totalRows = -1L;
+
+    /**
+     * 文件大小(字节)，导出完成后设置
+     */
+    @JsonProperty("file_size")
+    @JSONField(name = "file_size")
+    private volatile long fileSize;
+
+    /**
+     * 失败原因
+     */
+    private volatile String error;
+
+    @JsonProperty("create_time")
+    @JSONField(name = "create_time")
+    private long createTime;
+
+    @JsonProperty("finish_time")
+    @JSONField(name = "finish_time")
+    private volatile long finishTime;
+
+    /**
+     * 下载地址，导出完成后设置
+     */
+    @JsonProperty("download_url")
+    @JSONField(name = "download_url")
+    private volatile String downloadUrl;
+
+    @JsonIgnore
+    @JSONField(serialize = false)
+    private volatile Path file;
+
+    /**
+     * 进度百分比，总行数未知时导出中为-1
+     *
+     * @return int
+     */
+    public int getProgress() {
+        if (state == State.SUCCESS) {
+            return 100;
+        }
+        if (totalRows <= 0) {
+            return -1;
+        }
+        return (int) Math.min(99L, rows * 100 / totalRows);
+    }
+
+    /**
+     * 任务状态
+     */
+    public enum State {
+
+        /**
+         * 导出中
+         */
+        RUNNING,
+
+        /**
+         * 导出完成，可下载
+         */
+        SUCCESS,
+
+        /**
+         * 导出失败
+         */
+        FAILED
+    }
+}
@@ -0,0 +1,355 @@
+package com.unisinsight.sprite.common.excel;
+
+import com.alibaba.fastjson.JSON;
+import com.unisinsight.sprite.common.constant.ExcelConstant;
+import com.unisinsight.sprite.common.enums.BaseResultCode;
+import com.unisinsight.sprite.common.exception.CommonException;
+import com.unisinsight.sprite.common.utils.StringUtils;
+import com.unisinsight.sprite.common.utils.TaskLane;
+import com.unisinsight.sprite.common.utils.ThreadPoolUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * description 后台导出任务
+ * 在批量任务线程池中逐页查询并写入临时xlsx文件，请求线程立即返回任务；前端轮询任务进度，完成后通过下载地址获取文件；
+ * 下载支持Range断点续传；同一调用者相同名称、表头与查询条件的导出在执行中时直接返回执行中的任务，不重复查询；
+ * 任务记录提交时的调用者，只有同一调用者可以查询与下载，调用者标识默认为HTTP会话id，可通过setOwnerResolver替换为用户id等；
+ * 任务与文件保存在本节点，多节点部署时查询与下载需路由到同一节点；完成后保留1小时，每10分钟清理一次
+ *
+ * <pre>
+ * ExportJob job = exportJobService.submit("人员信息", headers, "yyyy-MM-dd", query,
+ *         pageNum -&gt; personService.listPage(query, pageNum, 5000));
+ * </pre>
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Slf4j
+@Service
+public class ExportJobService {
+
+    public static final String DOWNLOAD_URL = "/sprite/export/jobs/%s/file";
+
+    private static final Path EXPORT_DIR = Paths.get(System.getProperty("java.io.tmpdir"), "sprite-export");
+
+    private static final long RETENTION_MILLIS = 60 * 60 * 1000L;
+
+    private static final long PURGE_INTERVAL_MINUTES = 10L;
+
+    private static final String RANGE_PREFIX = "bytes=";
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * 执行中的任务，key为导出内容的摘要
+     */
+    private final Map<String, ExportJob> running = new ConcurrentHashMap<>();
+
+    private volatile Supplier<String> ownerResolver = ExportJobService::sessionOwner;
+
+    private ScheduledFuture<?> purgeTask;
+
+    /**
+     * 启动过期任务的定时清理
+     */
+    @PostConstruct
+    public void start() {
+        purgeTask = ThreadPoolUtils.scheduleAtFixedRate(TaskLane.BULK, this::purgeExpired,
+                PURGE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * 停止定时清理
+     */
+    @PreDestroy
+    public void stop() {
+        if (purgeTask != null) {
+            purgeTask.cancel(false);
+        }
+    }
+
+    /**
+     * 设置调用者标识的获取方式，在请求线程中调用，如返回"租户id:用户id"
+     *
+     * @param ownerResolver 返回当前调用者的标识，无法识别时返回null
+     */
+    public void setOwnerResolver(Supplier<String> ownerResolver) {
+        this.ownerResolver = ownerResolver;
+    }
+
+    /**
+     * 当前调用者的标识
+     *
+     * @return 无法识别时为null
+     */
+    public String currentOwner() {
+        return ownerResolver.get();
+    }
+
+    /**
+     * 提交导出任务，总行数未知
+     *
+     * @param name         导出文件名，不含后缀
+     * @param headers      列标题
+     * @param dateFormat   时间格式
+     * @param condition    查询条件，用于判断重复导出
+     * @param pageSupplier 按页码(从1开始)查询一页数据，返回空时结束
+     * @param <T>          泛型
+     * @return ExportJob
+     */
+    public <T> ExportJob submit(String name, String[] headers, String dateFormat, Object condition,
+                                IntFunction<List<T>> pageSupplier) {
+        return submit(name, headers, dateFormat, condition, -1L, pageSupplier);
+    }
+
+    /**
+     * 提交导出任务
+     *
+     * @param name         导出文件名，不含后缀
+     * @param headers      列标题
+     * @param dateFormat   时间格式
+     * @param condition    查询条件，用于判断重复导出
+     * @param totalRows    总行数，用于计算进度，未知时为-1
+     * @param pageSupplier 按页码(从1开始)查询一页数据，返回空时结束
+     * @param <T>          泛型
+     * @return ExportJob
+     */
+    public <T> ExportJob submit(String name, String[] headers, String dateFormat, Object condition,
+                                long totalRows, IntFunction<List<T>> pageSupplier) {
+        String owner = currentOwner();
+        String key = DigestUtils.md5DigestAsHex((owner + "|" + name + "|" + String.join(",", headers) + "|"
+                + JSON.toJSONString(condition)).getBytes(StandardCharsets.UTF_8));
+        ExportJob job = new ExportJob();
+        job.setId(StringUtils.UUID());
+        job.setOwner(owner);
+        job.setName(name);
+        job.setTotalRows(totalRows);
+        job.setCreateTime(System.currentTimeMillis());
+        ExportJob existing = running.putIfAbsent(key, job);
+        if (existing != null) {
+            log.info("导出{}执行中，返回已有任务{}", name, existing.getId());
+            return existing;
+        }
+        jobs.put(job.getId(), job);
+        try {
+            ThreadPoolUtils.execute(TaskLane.BULK, () -> export(key, job, headers, dateFormat, pageSupplier));
+        } catch (RejectedExecutionException e) {
+            running.remove(key, job);
+            jobs.remove(job.getId());
+            throw CommonException.of(BaseResultCode.REQUEST_LIMIT_ERROR, "导出任务过多，请稍后重试");
+        }
+        return job;
+    }
+
+    /**
+     * 查询任务
+     *
+     * @param id 任务id
+     * @return ExportJob
+     */
+    public ExportJob get(String id) {
+        ExportJob job = jobs.get(id);
+        if (job == null) {
+            throw CommonException.of(BaseResultCode.RESULT_EMPTY_ERROR, "导出任务不存在或已过期");
+        }
+        return job;
+    }
+
+    /**
+     * 下载导出文件，支持单个Range的断点续传
+     *
+     * @param id       任务id
+     * @param request  请求
+     * @param response 响应
+     * @throws IOException 读取或写出异常
+     */
+    public void download(String id, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ExportJob job = get(id);
+        if (job.getState() != ExportJob.State.SUCCESS) {
+            throw CommonException.of(BaseResultCode.DATA_EMPTY_ERROR, "导出未完成");
+        }
+        long size = job.getFileSize();
+        String etag = "\"" + job.getId() + "-" + size + "\"";
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader("Range");
+        String ifRange = request.getHeader("If-Range");
+        boolean partial = range != null && (ifRange == null || ifRange.equals(etag));
+        if (partial) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                // 多个区间等不支持的格式，返回整个文件
+                partial = false;
+            } else if (bounds.length == 0) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader("Content-Range", "bytes */" + size);
+                return;
+            } else {
+                start = bounds[0];
+                end = bounds[1];
+            }
+        }
+        response.setContentType("APPLICATION/OCTET-STREAM");
+        response.setHeader("Content-disposition", "attachment;filename="
+                + URLEncoder.encode(job.getName() + ExcelConstant.EXCEL_07_FORMAT, "UTF-8"));
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("ETag", etag);
+        if (partial) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + size);
+        }
+        long length = end - start + 1;
+        response.setHeader("Content-Length", String.valueOf(length));
+        try (FileChannel channel = FileChannel.open(job.getFile(), StandardOpenOption.READ)) {
+            OutputStream output = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(output);
+            long position = start;
+            while (position <= end) {
+                long n = channel.transferTo(position, end - position + 1, target);
+                if (n <= 0) {
+                    break;
+                }
+                position += n;
+            }
+            output.flush();
+        }
+    }
+
+    /**
+     * 解析Range请求头
+     *
+     * @return [start, end]；超出文件范围时返回空数组；格式不支持或无效时返回null
+     */
+    static long[] parseRange(String range, long size) {
+        if (!range.startsWith(RANGE_PREFIX) || range.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = range.substring(RANGE_PREFIX.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                // bytes=-500 表示最后500字节
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0) {
+                    return new long[0];
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                end = dash == spec.length() - 1 ? size - 1 : Math.min(size - 1, Long.parseLong(spec.substring(dash + 1)));
+            }
+            if (start >= size) {
+                return new long[0];
+            }
+            if (start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private <T> void export(String key, ExportJob job, String[] headers, String dateFormat,
+                            IntFunction<List<T>> pageSupplier) {
+        Path file = EXPORT_DIR.resolve(job.getId() + ExcelConstant.EXCEL_07_FORMAT);
+        long start = System.currentTimeMillis();
+        try {
+            Files.createDirectories(EXPORT_DIR);
+            Iterator<T> rows = new PageIterator<>(pageNum -> {
+                List<T> page = pageSupplier.apply(pageNum);
+                if (page != null) {
+                    job.setRows(job.getRows() + page.size());
+                }
+                return page;
+            });
+            try (XlsxStreamWriter writer = new XlsxStreamWriter(headers, dateFormat);
+                 OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                writer.write(rows);
+                writer.finish(out);
+            }
+            job.setFile(file);
+            job.setFileSize(Files.size(file));
+            job.setDownloadUrl(String.format(DOWNLOAD_URL, job.getId()));
+            job.setFinishTime(System.currentTimeMillis());
+            job.setState(ExportJob.State.SUCCESS);
+            log.info("导出{}完成，共{}行，耗时{}ms", job.getName(), job.getRows(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("导出{}失败：", job.getName(), e);
+            deleteQuietly(file);
+            job.setError(e.getMessage());
+            job.setFinishTime(System.currentTimeMillis());
+            job.setState(ExportJob.State.FAILED);
+        } finally {
+            running.remove(key, job);
+        }
+    }
+
+    /**
+     * 删除过期的任务与文件
+     */
+    void purgeExpired() {
+        long deadline = System.currentTimeMillis() - RETENTION_MILLIS;
+        jobs.values().removeIf(job -> {
+            if (job.getState() == ExportJob.State.RUNNING || job.getFinishTime() > deadline) {
+                return false;
+            }
+            if (job.getFile() != null) {
+                deleteQuietly(job.getFile());
+            }
+            return true;
+        });
+    }
+
+    /**
+     * 默认的调用者标识：HTTP会话id，不在请求线程中时为null
+     */
+    private static String sessionOwner() {
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null : attributes.getRequest().getSession(true).getId();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除导出文件{}失败：{}", file, e.getMessage());
+        }
+    }
+}
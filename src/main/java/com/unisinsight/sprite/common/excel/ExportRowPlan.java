@@ -0,0 +1,235 @@
+package com.unisinsight.sprite.common.excel;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * description 导出行的写入计划
+ * 列按顺序对应数据类声明的字段，每列的getter在首次使用时解析为MethodHandle并按类缓存；
+ * 单元格类型由值的类型决定：能精确表示为double的数字写为数值，日期按格式化后的文本写入，其他写为文本；
+ * 时间格式使用线程安全的DateTimeFormatter，按格式缓存
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Slf4j
+public final class ExportRowPlan {
+
+    public static final String DEFAULT_DATE_FORMAT = "yyyy-MM-dd HH:mm:ss";
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /**
+     * double能精确表示的最大整数2^53，超出的long(如雪花id)写为文本
+     */
+    private static final long MAX_EXACT_LONG = 1L << 53;
+
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private static final Map<Class<?>, ExportRowPlan> PLANS = new ConcurrentHashMap<>();
+
+    private static final Map<String, DateTimeFormatter> FORMATTERS = new ConcurrentHashMap<>();
+
+    /**
+     * 下标为列号，没有getter的列为null
+     */
+    private final MethodHandle[] getters;
+
+    private final String[] names;
+
+    private ExportRowPlan(Class<?> type) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Field[] fields = type.getDeclaredFields();
+        int columns = 0;
+        for (Field field : fields) {
+            if (!field.isSynthetic()) {
+                columns++;
+            }
+        }
+        this.getters = new MethodHandle[columns];
+        this.names = new String[columns];
+        int i = 0;
+        for (Field field : fields) {
+            if (field.isSynthetic()) {
+                continue;
+            }
+            String name = field.getName();
+            names[i] = name;
+            try {
+                Method getter = type.getMethod("get" + name.substring(0, 1).toUpperCase() + name.substring(1));
+                getters[i] = lookup.unreflect(getter).asType(GETTER_TYPE);
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                // 没有public getter的列留空
+            }
+            i++;
+        }
+    }
+
+    /**
+     * 获取数据类的写入计划，首次使用时解析
+     *
+     * @param type 数据类
+     * @return ExportRowPlan
+     */
+    public static ExportRowPlan of(Class<?> type) {
+        ExportRowPlan plan = PLANS.get(type);
+        if (plan == null) {
+            plan = PLANS.computeIfAbsent(type, ExportRowPlan::new);
+        }
+        return plan;
+    }
+
+    /**
+     * 获取时间格式，为空时使用yyyy-MM-dd HH:mm:ss
+     *
+     * @param pattern 时间格式
+     * @return DateTimeFormatter
+     */
+    public static DateTimeFormatter formatter(String pattern) {
+        String key = pattern == null || pattern.isEmpty() ? DEFAULT_DATE_FORMAT : pattern;
+        return FORMATTERS.computeIfAbsent(key, DateTimeFormatter::ofPattern);
+    }
+
+    /**
+     * 写入一行，每列创建单元格并设置样式，空值的单元格不写内容
+     *
+     * @param data      数据
+     * @param row       行
+     * @param cellStyle 单元格样式
+     * @param formatter 时间格式
+     */
+    public void write(Object data, Row row, CellStyle cellStyle, DateTimeFormatter formatter) {
+        for (int i = 0; i < getters.length; i++) {
+            setCell(row.createCell(i), cellStyle, cellValue(data, i, formatter));
+        }
+    }
+
+    /**
+     * 取一行的单元格值，不访问工作簿，可在多个线程中并行调用，结果通过write(Object[], Row, CellStyle)写入；
+     * 能精确表示为double的数字为Number，其他值为文本，空值与空文本为null
+     *
+     * @param data      数据
+     * @param formatter 时间格式
+     * @return 按列顺序的单元格值
+     */
+    public Object[] cellValues(Object data, DateTimeFormatter formatter) {
+        Object[] values = new Object[getters.length];
+        for (int i = 0; i < getters.length; i++) {
+            values[i] = cellValue(data, i, formatter);
+        }
+        return values;
+    }
+
+    /**
+     * 写入cellValues取得的一行
+     *
+     * @param cellValues 单元格值
+     * @param row        行
+     * @param cellStyle  单元格样式
+     */
+    public static void write(Object[] cellValues, Row row, CellStyle cellStyle) {
+        for (int i = 0; i < cellValues.length; i++) {
+            setCell(row.createCell(i), cellStyle, cellValues[i]);
+        }
+    }
+
+    /**
+     * 取一列的文本，用于csv等纯文本导出；数字不使用科学计数法，空值返回null
+     *
+     * @param data      数据
+     * @param column    列号
+     * @param formatter 时间格式
+     * @return String
+     */
+    public String text(Object data, int column, DateTimeFormatter formatter) {
+        Object value = value(data, column);
+        return value == null ? null : toText(value, formatter);
+    }
+
+    /**
+     * 列数
+     *
+     * @return int
+     */
+    public int getColumnCount() {
+        return getters.length;
+    }
+
+    private Object value(Object data, int column) {
+        if (getters[column] == null) {
+            return null;
+        }
+        try {
+            return getters[column].invokeExact(data);
+        } catch (Throwable e) {
+            log.info("读取{}失败：{}", names[column], e.getMessage());
+            return null;
+        }
+    }
+
+    private Object cellValue(Object data, int column, DateTimeFormatter formatter) {
+        Object value = value(data, column);
+        if (value == null || value instanceof Number && isExactDouble((Number) value)) {
+            return value;
+        }
+        String text = toText(value, formatter);
+        return text.isEmpty() ? null : text;
+    }
+
+    private static void setCell(Cell cell, CellStyle cellStyle, Object cellValue) {
+        cell.setCellStyle(cellStyle);
+        if (cellValue instanceof Number) {
+            cell.setCellValue(((Number) cellValue).doubleValue());
+        } else if (cellValue != null) {
+            cell.setCellValue((String) cellValue);
+        }
+    }
+
+    private static String toText(Object value, DateTimeFormatter formatter) {
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        } else if (value instanceof Date) {
+            return formatter.format(Instant.ofEpochMilli(((Date) value).getTime()).atZone(ZoneId.systemDefault()));
+        } else if (value instanceof LocalDateTime) {
+            return formatter.format((LocalDateTime) value);
+        } else if (value instanceof LocalDate) {
+            return formatter.format(((LocalDate) value).atStartOfDay());
+        }
+        return value.toString();
+    }
+
+    private static boolean isExactDouble(Number value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte
+                || value instanceof Double || value instanceof Float) {
+            return true;
+        }
+        if (value instanceof Long) {
+            return Math.abs(value.longValue()) <= MAX_EXACT_LONG;
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).precision() <= MAX_EXACT_DIGITS;
+        }
+        if (value instanceof BigInteger) {
+            return ((BigInteger) value).abs().compareTo(BigInteger.valueOf(MAX_EXACT_LONG)) <= 0;
+        }
+        return false;
+    }
+}
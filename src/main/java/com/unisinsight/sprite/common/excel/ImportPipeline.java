@@ -0,0 +1,440 @@
+package com.unisinsight.sprite.common.excel;
+
+import com.unisinsight.sprite.common.enums.BaseResultCode;
+import com.unisinsight.sprite.common.exception.CommonException;
+import com.unisinsight.sprite.common.utils.BoundedExecutor;
+import com.unisinsight.sprite.common.utils.RejectPolicy;
+import com.unisinsight.sprite.common.utils.ThreadPoolUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * description Excel并行导入
+ * 读取线程逐行解析文件，按块放入有界队列；多个转换线程完成行到实体的转换与校验；
+ * 调用线程按batchSize汇总后交给sink，如jdbc批量插入。各阶段之间的队列有界，内存占用与文件大小无关；
+ * sink只在调用线程中串行执行，可以使用调用方的事务；行的写入顺序与文件中的顺序不保证一致；
+ * 每次导入开始前先占用读取与转换所需的全部线程，保证各阶段同时运行，并发导入超出线程池时排队等待；
+ * 每个实例只能执行一次
+ *
+ * <pre>
+ * ImportResult result = new ImportPipeline&lt;&gt;(PersonDTO.class, 1000, personMapper::batchInsert)
+ *         .validator(p -&gt; p.getName() == null ? "姓名不能为空" : null)
+ *         .onProgress(p -&gt; log.info("已导入{}行", p.getSucceeded()))
+ *         .run(file.getInputStream());
+ * </pre>
+ *
+ * @param <T> 实体类型
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Slf4j
+public class ImportPipeline<T> {
+
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * 导入线程池大小
+     */
+    static final int POOL_SIZE = Math.max(4, CPU_COUNT * 2);
+
+    /**
+     * 导入专用线程池，与其他业务隔离；满时直接拒绝，不在调用线程执行，避免读取与写入互相等待
+     */
+    private static final BoundedExecutor EXECUTOR = ThreadPoolUtils.newExecutor("sprite-import",
+            POOL_SIZE, 200, RejectPolicy.REJECT, 0L);
+
+    /**
+     * 线程池的空闲线程，导入开始前占用workers+1个，任务结束时逐个归还；
+     * 读取与转换线程互相等待，只有全部同时运行才能完成，不能排在其他导入的任务之后
+     */
+    private static final Semaphore THREADS = new Semaphore(POOL_SIZE, true);
+
+    /**
+     * 等待空闲线程的最长时间
+     */
+    private static final long ADMIT_TIMEOUT_SECONDS = 60L;
+
+    /**
+     * 读取线程每次放入队列的行数
+     */
+    private static final int CHUNK_ROWS = 256;
+
+    private static final long POLL_MILLIS = 200L;
+
+    /**
+     * 队列结束标记，每个消费线程一个
+     */
+    private static final Object END = new Object();
+
+    private final Class<T> type;
+
+    private final int batchSize;
+
+    private final Consumer<List<T>> sink;
+
+    private int workers = Math.min(Math.max(1, CPU_COUNT - 1), POOL_SIZE - 1);
+
+    private int headRows = 1;
+
+    private int maxErrors = 1000;
+
+    private Function<T, String> validator;
+
+    private Consumer<ImportResult> progressListener;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private volatile boolean cancelled;
+
+    private volatile Throwable failure;
+
+    private final AtomicInteger read = new AtomicInteger();
+
+    private final AtomicInteger failed = new AtomicInteger();
+
+    private final Queue<ImportResult.RowError> errors = new ConcurrentLinkedQueue<>();
+
+    private int succeeded;
+
+    private long startTime;
+
+    /**
+     * 构造方法
+     *
+     * @param type      实体类，列按顺序对应声明的字段
+     * @param batchSize 每次交给sink的行数
+     * @param sink      批量写入
+     */
+    public ImportPipeline(Class<T> type, int batchSize, Consumer<List<T>> sink) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize必须大于0");
+        }
+        this.type = type;
+        this.batchSize = batchSize;
+        this.sink = sink;
+    }
+
+    /**
+     * 转换线程数，默认CPU核数-1，最多为导入线程池大小-1
+     *
+     * @param workers 线程数
+     * @return this
+     */
+    public ImportPipeline<T> workers(int workers) {
+        this.workers = Math.min(Math.max(1, workers), POOL_SIZE - 1);
+        return this;
+    }
+
+    /**
+     * 表头行数，默认1
+     *
+     * @param headRows 表头行数
+     * @return this
+     */
+    public ImportPipeline<T> headRows(int headRows) {
+        this.headRows = Math.max(0, headRows);
+        return this;
+    }
+
+    /**
+     * 结果中保留的失败行数上限，默认1000，超出的只计数
+     *
+     * @param maxErrors 上限
+     * @return this
+     */
+    public ImportPipeline<T> maxErrors(int maxErrors) {
+        this.maxErrors = Math.max(0, maxErrors);
+        return this;
+    }
+
+    /**
+     * 行校验，在转换线程中执行
+     *
+     * @param validator 返回错误信息，通过时返回null
+     * @return this
+     */
+    public ImportPipeline<T> validator(Function<T, String> validator) {
+        this.validator = validator;
+        return this;
+    }
+
+    /**
+     * 进度回调，每写入一批后在调用线程中执行
+     *
+     * @param progressListener 回调
+     * @return this
+     */
+    public ImportPipeline<T> onProgress(Consumer<ImportResult> progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * 执行导入，阻塞至全部写入或失败
+     * 线程池中没有足够的空闲线程时等待其他导入结束，超时后抛出异常；
+     * 单行转换或校验失败记录在结果中并继续；文件无法解析或sink抛出异常时停止导入并抛出该异常
+     *
+     * @param in 输入流，由调用方关闭
+     * @return ImportResult
+     * @throws Exception 解析或写入异常
+     */
+    public ImportResult run(InputStream in) throws Exception {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("ImportPipeline只能执行一次");
+        }
+        startTime = System.currentTimeMillis();
+        BlockingQueue<Object> rows = new ArrayBlockingQueue<>(workers * 4);
+        BlockingQueue<Object> converted = new ArrayBlockingQueue<>(workers * 4);
+        int permits = workers + 1;
+        if (!THREADS.tryAcquire(permits, ADMIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            throw CommonException.of(BaseResultCode.IMPORT_ERROR, "导入任务过多，请稍后重试");
+        }
+        try {
+            submit(() -> readRows(in, rows));
+            permits--;
+            for (int i = 0; i < workers; i++) {
+                submit(() -> convertRows(rows, converted));
+                permits--;
+            }
+        } catch (RejectedExecutionException e) {
+            cancelled = true;
+            THREADS.release(permits);
+            throw CommonException.of(BaseResultCode.IMPORT_ERROR, "导入任务过多，请稍后重试");
+        }
+        try {
+            writeRows(converted);
+        } catch (InterruptedException e) {
+            cancelled = true;
+            Thread.currentThread().interrupt();
+            throw e;
+        } catch (RuntimeException | Error e) {
+            cancelled = true;
+            throw e;
+        }
+        if (failure != null) {
+            if (failure instanceof Exception) {
+                throw (Exception) failure;
+            }
+            throw (Error) failure;
+        }
+        ImportResult result = snapshot(true);
+        result.setErrors(new ArrayList<>(errors));
+        log.info("{}导入完成，共{}行，成功{}行，失败{}行，耗时{}ms", type.getSimpleName(), result.getTotal(),
+                result.getSucceeded(), result.getFailed(), result.getElapsedMillis());
+        return result;
+    }
+
+    /**
+     * 提交到导入线程池，任务结束时归还占用的线程
+     */
+    private static void submit(Runnable task) {
+        EXECUTOR.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                THREADS.release();
+            }
+        });
+    }
+
+    /**
+     * 读取线程：逐行解析，按块放入队列，结束后为每个转换线程放入结束标记
+     */
+    private void readRows(InputStream in, BlockingQueue<Object> rows) {
+        List<RawRow> chunk = new ArrayList<>(CHUNK_ROWS);
+        try {
+            ExcelRowReader.read(in, (rowNum, cells) -> {
+                if (rowNum < headRows) {
+                    return;
+                }
+                read.incrementAndGet();
+                chunk.add(new RawRow(rowNum, cells));
+                if (chunk.size() >= CHUNK_ROWS) {
+                    put(rows, new ArrayList<>(chunk));
+                    chunk.clear();
+                }
+            });
+            if (!chunk.isEmpty()) {
+                put(rows, chunk);
+            }
+        } catch (Throwable e) {
+            fail(e);
+        } finally {
+            for (int i = 0; i < workers; i++) {
+                put(rows, END);
+            }
+        }
+    }
+
+    /**
+     * 转换线程：转换并校验每一行，失败的行记录后跳过
+     */
+    @SuppressWarnings("unchecked")
+    private void convertRows(BlockingQueue<Object> rows, BlockingQueue<Object> converted) {
+        RowBinder<T> binder = RowBinder.of(type);
+        try {
+            Object item;
+            while ((item = take(rows)) != null && item != END) {
+                List<RawRow> chunk = (List<RawRow>) item;
+                List<T> beans = new ArrayList<>(chunk.size());
+                for (RawRow row : chunk) {
+                    try {
+                        T bean = binder.bind(row.rowNum, row.cells);
+                        String error = validator == null ? null : validator.apply(bean);
+                        if (error == null) {
+                            beans.add(bean);
+                        } else {
+                            reject(row.rowNum, error);
+                        }
+                    } catch (CommonException e) {
+                        reject(row.rowNum, e.getMessage());
+                    } catch (RuntimeException e) {
+                        reject(row.rowNum, "第" + (row.rowNum + 1) + "行处理失败：" + e);
+                    }
+                }
+                if (!beans.isEmpty()) {
+                    put(converted, beans);
+                }
+            }
+        } catch (Throwable e) {
+            fail(e);
+        } finally {
+            put(converted, END);
+        }
+    }
+
+    /**
+     * 写入：在调用线程中汇总转换结果，每batchSize行交给sink一次
+     */
+    @SuppressWarnings("unchecked")
+    private void writeRows(BlockingQueue<Object> converted) throws InterruptedException {
+        List<T> batch = new ArrayList<>(batchSize);
+        int ended = 0;
+        while (ended < workers) {
+            Object item = take(converted);
+            if (item == null) {
+                return;
+            }
+            if (item == END) {
+                ended++;
+                continue;
+            }
+            for (T bean : (List<T>) item) {
+                batch.add(bean);
+                if (batch.size() >= batchSize) {
+                    flush(batch);
+                }
+            }
+        }
+        if (!batch.isEmpty() && failure == null) {
+            flush(batch);
+        }
+    }
+
+    private void flush(List<T> batch) {
+        sink.accept(new ArrayList<>(batch));
+        succeeded += batch.size();
+        batch.clear();
+        if (progressListener != null) {
+            progressListener.accept(snapshot(false));
+        }
+    }
+
+    private ImportResult snapshot(boolean finished) {
+        ImportResult result = new ImportResult();
+        result.setTotal(read.get());
+        result.setSucceeded(succeeded);
+        result.setFailed(failed.get());
+        result.setElapsedMillis(System.currentTimeMillis() - startTime);
+        result.setFinished(finished);
+        return result;
+    }
+
+    private void reject(int rowNum, String message) {
+        if (failed.incrementAndGet() <= maxErrors) {
+            errors.add(new ImportResult.RowError(rowNum + 1, message));
+        }
+    }
+
+    private void fail(Throwable e) {
+        if (!cancelled) {
+            failure = e;
+            cancelled = true;
+            log.error("{}导入失败：", type.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * 放入队列，导入取消时放弃；读取过程中取消时抛出异常中止解析
+     */
+    private void put(BlockingQueue<Object> queue, Object item) {
+        if (cancelled && item == END) {
+            return;
+        }
+        try {
+            while (!queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (cancelled) {
+                    if (item == END) {
+                        return;
+                    }
+                    throw new CancellationSignal();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fail(e);
+            throw new CancellationSignal();
+        }
+    }
+
+    /**
+     * 取出队列元素，导入取消时返回null
+     */
+    private Object take(BlockingQueue<Object> queue) throws InterruptedException {
+        while (!cancelled) {
+            Object item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (item != null) {
+                return item;
+            }
+        }
+        return null;
+    }
+
+    private static final class RawRow {
+
+        private final int rowNum;
+
+        private final String[] cells;
+
+        private RawRow(int rowNum, String[] cells) {
+            this.rowNum = rowNum;
+            this.cells = cells;
+        }
+    }
+
+    /**
+     * 导入取消时中止读取与转换，不作为导入失败的原因
+     */
+    private static final class CancellationSignal extends RuntimeException {
+
+        private static final long serialVersionUID = -3817224510463862940L;
+
+        private CancellationSignal() {
+            super(null, null, false, false);
+        }
+    }
+}
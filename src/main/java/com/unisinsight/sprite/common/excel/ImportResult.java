@@ -0,0 +1,64 @@
+package com.unisinsight.sprite.common.excel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * description 导入结果，导入过程中作为进度回调的参数
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Data
+public class ImportResult {
+
+    /**
+     * 已读取的数据行数，不含表头
+     */
+    private int total;
+
+    /**
+     * 已写入的行数
+     */
+    private int succeeded;
+
+    /**
+     * 转换或校验失败的行数
+     */
+    private int failed;
+
+    /**
+     * 耗时(毫秒)
+     */
+    private long elapsedMillis;
+
+    /**
+     * 是否已读取完毕
+     */
+    private boolean finished;
+
+    /**
+     * 失败的行，最多保留maxErrors条；进度回调中为空
+     */
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * 失败的行
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+
+        /**
+         * Excel中的行号，从1开始
+         */
+        private int row;
+
+        private String message;
+    }
+}
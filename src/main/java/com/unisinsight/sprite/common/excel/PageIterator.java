@@ -0,0 +1,65 @@
+package com.unisinsight.sprite.common.excel;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntFunction;
+
+/**
+ * description 分页查询的迭代器
+ * 逐页调用查询，当前页遍历完后再查询下一页，内存中只保留一页数据；查询返回空页或null时结束
+ *
+ * @param <T> 元素类型
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class PageIterator<T> implements Iterator<T> {
+
+    private final IntFunction<List<T>> pageSupplier;
+
+    private int pageNum;
+
+    private Iterator<T> current = Collections.emptyIterator();
+
+    private boolean exhausted;
+
+    /**
+     * 构造方法
+     *
+     * @param pageSupplier 按页码(从1开始)查询一页数据
+     */
+    public PageIterator(IntFunction<List<T>> pageSupplier) {
+        this.pageSupplier = pageSupplier;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext() && !exhausted) {
+            List<T> page = pageSupplier.apply(++pageNum);
+            if (page == null || page.isEmpty()) {
+                exhausted = true;
+            } else {
+                current = page.iterator();
+            }
+        }
+        return current.hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * 已查询的页数
+     *
+     * @return int
+     */
+    public int getPageNum() {
+        return pageNum;
+    }
+}
@@ -0,0 +1,178 @@
+package com.unisinsight.sprite.common.excel;
+
+import com.unisinsight.sprite.common.enums.BaseResultCode;
+import com.unisinsight.sprite.common.exception.CommonException;
+import com.unisinsight.sprite.common.utils.DateUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * description Excel行与实体类的绑定
+ * 列按顺序对应实体类声明的字段，每列的setter与类型转换在首次使用时解析并按类缓存，
+ * 读取时每个单元格只做一次转换和一次setter调用；
+ * 支持String、Integer、Long、Double、BigDecimal、Boolean(含对应的基本类型)与Date，其他类型的列忽略
+ *
+ * @param <T> 实体类型
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public final class RowBinder<T> {
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final Map<Class<?>, RowBinder<?>> BINDERS = new ConcurrentHashMap<>();
+
+    private final Class<T> type;
+
+    private final MethodHandle constructor;
+
+    /**
+     * 下标为列号，不支持的列为null
+     */
+    private final Column[] columns;
+
+    private RowBinder(Class<T> type) {
+        this.type = type;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            Constructor<T> c = type.getDeclaredConstructor();
+            c.setAccessible(true);
+            this.constructor = lookup.unreflectConstructor(c).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalArgumentException(type.getName() + "没有可用的无参构造方法", e);
+        }
+        Field[] fields = type.getDeclaredFields();
+        this.columns = new Column[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            Field field = fields[i];
+            Function<String, Object> converter = converterOf(field.getType());
+            if (field.isSynthetic() || converter == null) {
+                continue;
+            }
+            String name = field.getName();
+            try {
+                Method setter = type.getMethod("set" + name.substring(0, 1).toUpperCase() + name.substring(1),
+                        field.getType());
+                columns[i] = new Column(name, lookup.unreflect(setter).asType(SETTER_TYPE), converter,
+                        field.getType().isPrimitive());
+            } catch (NoSuchMethodException | IllegalAccessException e) {
+                // 没有public setter的字段不读取
+            }
+        }
+    }
+
+    /**
+     * 获取实体类的绑定，首次使用时解析
+     *
+     * @param type 实体类
+     * @param <T>  实体类型
+     * @return RowBinder
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RowBinder<T> of(Class<T> type) {
+        RowBinder<?> binder = BINDERS.get(type);
+        if (binder == null) {
+            binder = BINDERS.computeIfAbsent(type, RowBinder::new);
+        }
+        return (RowBinder<T>) binder;
+    }
+
+    /**
+     * 将一行单元格转换为实体
+     *
+     * @param rowNum 行号，从0开始，用于错误提示
+     * @param cells  单元格值，null的单元格跳过
+     * @return T
+     */
+    @SuppressWarnings("unchecked")
+    public T bind(int rowNum, String[] cells) {
+        T target;
+        try {
+            target = (T) constructor.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("实例化" + type.getSimpleName() + "失败", e);
+        }
+        int length = Math.min(cells.length, columns.length);
+        for (int i = 0; i < length; i++) {
+            Column column = columns[i];
+            String text = cells[i];
+            if (column == null || text == null) {
+                continue;
+            }
+            Object value;
+            try {
+                value = column.converter.apply(text);
+            } catch (RuntimeException e) {
+                throw CommonException.of(BaseResultCode.IMPORT_ERROR,
+                        "第" + (rowNum + 1) + "行第" + (i + 1) + "列的值[" + text + "]格式错误");
+            }
+            if (value == null && column.primitive) {
+                continue;
+            }
+            try {
+                column.setter.invokeExact((Object) target, value);
+            } catch (Throwable e) {
+                throw CommonException.of(BaseResultCode.IMPORT_ERROR,
+                        "第" + (rowNum + 1) + "行" + type.getSimpleName() + "." + column.name + "赋值失败");
+            }
+        }
+        return target;
+    }
+
+    /**
+     * 字符串到字段类型的转换，空白值转换为null；不支持的类型返回null
+     */
+    private static Function<String, Object> converterOf(Class<?> type) {
+        if (type == String.class) {
+            return text -> text;
+        }
+        Function<String, Object> parser;
+        if (type == Integer.class || type == int.class) {
+            parser = Integer::valueOf;
+        } else if (type == Long.class || type == long.class) {
+            parser = Long::valueOf;
+        } else if (type == Double.class || type == double.class) {
+            parser = Double::valueOf;
+        } else if (type == BigDecimal.class) {
+            parser = BigDecimal::new;
+        } else if (type == Boolean.class || type == boolean.class) {
+            parser = Boolean::valueOf;
+        } else if (type == Date.class) {
+            parser = DateUtils::stringsToDate;
+        } else {
+            return null;
+        }
+        return text -> {
+            String value = text.trim();
+            return value.isEmpty() ? null : parser.apply(value);
+        };
+    }
+
+    private static final class Column {
+
+        private final String name;
+
+        private final MethodHandle setter;
+
+        private final Function<String, Object> converter;
+
+        private final boolean primitive;
+
+        private Column(String name, MethodHandle setter, Function<String, Object> converter, boolean primitive) {
+            this.name = name;
+            this.setter = setter;
+            this.converter = converter;
+            this.primitive = primitive;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.unisinsight.sprite.common.page;
+
+/**
+ * 分页总数的获取方式
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public enum CountMode {
+
+    /**
+     * 每次执行COUNT(*)，游标翻页(带cursor)时不统计
+     */
+    EXACT,
+
+    /**
+     * 不统计总数，total返回-1，由has_more判断是否有下一页
+     */
+    NONE,
+
+    /**
+     * 按查询条件缓存COUNT(*)结果，缓存时间见countCacheSeconds
+     */
+    CACHED,
+
+    /**
+     * 取pg_class.reltuples估算值，只适用于不带过滤条件的全表列表，表名见countTable
+     */
+    ESTIMATE
+}
@@ -0,0 +1,131 @@
+package com.unisinsight.sprite.common.page;
+
+import com.unisinsight.sprite.common.utils.MapToObjectConvert;
+import org.apache.ibatis.executor.resultset.ResultSetHandler;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Plugin;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * 分页查询结果直接映射为dto
+ * mapper返回List<Map<String, Object>>时，mybatis先为每行创建map，切面再转换为dto，每页数据在内存中有两份；
+ * 该拦截器在PaginationAspect设置了RowMapping时，跳过mybatis的map映射，从ResultSet逐行读取为dtoClass
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Component
+@Intercepts(@Signature(type = ResultSetHandler.class, method = "handleResultSets", args = {Statement.class}))
+public class DtoResultSetInterceptor implements Interceptor {
+
+    /**
+     * PageHelper生成的count查询的id后缀
+     */
+    private static final String COUNT_SUFFIX = "_COUNT";
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        RowMapping mapping = RowMapping.current();
+        if (mapping == null) {
+            return invocation.proceed();
+        }
+        MappedStatement ms = mappedStatement(invocation.getTarget());
+        if (ms == null || !isMapQuery(ms)) {
+            return invocation.proceed();
+        }
+        Statement statement = (Statement) invocation.getArgs()[0];
+        ResultSet rs = statement.getResultSet();
+        if (rs == null) {
+            return invocation.proceed();
+        }
+        mapping.markMapped();
+        try {
+            return read(rs, mapping);
+        } finally {
+            rs.close();
+        }
+    }
+
+    private static List<Object> read(ResultSet rs, RowMapping mapping) throws SQLException {
+        MapToObjectConvert.RowReader reader = MapToObjectConvert.rowReader(rs.getMetaData(), mapping.getDtoClass());
+        int seekColumn = seekColumn(rs, mapping.getSeekField());
+        List<Object> list = new ArrayList<>();
+        int row = 0;
+        while (rs.next()) {
+            list.add(reader.read(rs));
+            if (row == mapping.getCursorRow() && seekColumn > 0) {
+                mapping.setSeekValue(rs.getObject(seekColumn));
+            }
+            row++;
+        }
+        return list;
+    }
+
+    private static int seekColumn(ResultSet rs, String seekField) throws SQLException {
+        if (seekField.isEmpty()) {
+            return 0;
+        }
+        int columns = rs.getMetaData().getColumnCount();
+        for (int i = 1; i <= columns; i++) {
+            if (seekField.equalsIgnoreCase(rs.getMetaData().getColumnLabel(i))) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 只处理resultType为map、未配置字段映射的查询，排除PageHelper的count查询
+     */
+    private static boolean isMapQuery(MappedStatement ms) {
+        if (ms.getSqlCommandType() != SqlCommandType.SELECT || ms.getId().endsWith(COUNT_SUFFIX)) {
+            return false;
+        }
+        List<ResultMap> resultMaps = ms.getResultMaps();
+        if (resultMaps.size() != 1) {
+            return false;
+        }
+        ResultMap resultMap = resultMaps.get(0);
+        return Map.class.isAssignableFrom(resultMap.getType()) && resultMap.getResultMappings().isEmpty();
+    }
+
+    /**
+     * 取DefaultResultSetHandler中的MappedStatement，目标被其他插件代理时逐层取出
+     */
+    private static MappedStatement mappedStatement(Object target) {
+        MetaObject meta = SystemMetaObject.forObject(target);
+        while (meta.hasGetter("h.target")) {
+            meta = SystemMetaObject.forObject(meta.getValue("h.target"));
+        }
+        if (!meta.hasGetter("mappedStatement")) {
+            return null;
+        }
+        return (MappedStatement) meta.getValue("mappedStatement");
+    }
+
+    @Override
+    public Object plugin(Object target) {
+        return target instanceof ResultSetHandler ? Plugin.wrap(target, this) : target;
+    }
+
+    @Override
+    public void setProperties(Properties properties) {
+        // 无配置项
+    }
+}
@@ -46,4 +46,23 @@ public class PageQuery implements Serializable {
     @ApiModelProperty(value = "排序规则", hidden = true)
     private String orderRule ;
 
+    /**
+     * 游标，取上一页返回的next_cursor，为空时从第一条开始；
+     * 仅对配置了seekField的分页方法生效，此时忽略page_num
+     */
+    @JsonProperty("cursor")
+    @ApiModelProperty(value = "游标，取上一页返回的next_cursor")
+    private String cursor;
+
+    /**
+     * 游标对应的排序字段值，供mapper拼接条件，游标格式错误时抛出CommonException；
+     * 不是getter，序列化(Jackson、fastjson)、属性复制时不会调用，mapper中需先bind：
+     * &lt;bind name="seekAfter" value="_parameter.seekAfter()"/&gt;，再使用 AND id &gt; #{seekAfter}
+     *
+     * @return 为空时表示第一页
+     */
+    public Object seekAfter() {
+        return SeekCursor.decode(cursor);
+    }
+
 }
@@ -31,4 +31,11 @@ public class PageResult<T> {
         result.setData(list);
         return result;
     }
+
+    public static <T> PageResult<T> of(T list, Pagination paging) {
+        PageResult<T> result = new PageResult<>();
+        result.setPaging(paging);
+        result.setData(list);
+        return result;
+    }
 }
@@ -19,7 +19,7 @@ import lombok.Data;
 public class Pagination {
 
     /**
-     * 总数量
+     * 总数量，未统计时为-1
      */
     private int total;
 
@@ -37,4 +37,18 @@ public class Pagination {
     @JSONField(name = "page_size")
     private int pageSize;
 
+    /**
+     * 是否还有下一页
+     */
+    @JsonProperty("has_more")
+    @JSONField(name = "has_more")
+    private boolean hasMore;
+
+    /**
+     * 下一页游标，仅游标分页返回
+     */
+    @JsonProperty("next_cursor")
+    @JSONField(name = "next_cursor")
+    private String nextCursor;
+
 }
@@ -11,9 +11,50 @@ import java.util.Map;
  * 注意事项：
  *  1.mapper方法的返回结果类型必须为List<Map<String, Object>>
  *  2.service方法的返回结果类型必须为Object
+ *  3.设置directMapping = true且mapper的resultType为map时，结果由DtoResultSetInterceptor直接读取为dtoClass，
+ *    不生成中间map；此时service方法拿到的是dtoClass而非map，不能再按map处理mapper的返回值
+ *  4.使用游标分页时，mapper需根据PageQuery.seekAfter()拼接条件，如
+ *    <bind name="seekAfter" value="_parameter.seekAfter()"/>
+ *    <if test="seekAfter != null">AND id &gt; #{seekAfter}</if>，排序由切面按seekField追加；
+ *    PageQuery以@Param命名传入时将_parameter换为该名称
  */
 @Target(ElementType.METHOD)
 @Retention(RetentionPolicy.RUNTIME)
 public @interface PaginationAnnotation {
     Class<?> dtoClass() default Map.class;
+
+    /**
+     * 游标分页的排序字段(列名)，需唯一且有索引，如主键；为空时使用页码分页
+     */
+    String seekField() default "";
+
+    /**
+     * 游标分页是否倒序，倒序时mapper条件应为 &lt; #{seekAfter}
+     */
+    boolean seekDesc() default false;
+
+    /**
+     * 总数的获取方式
+     */
+    CountMode count() default CountMode.EXACT;
+
+    /**
+     * CountMode.CACHED时总数的缓存时间(秒)
+     */
+    long countCacheSeconds() default 60L;
+
+    /**
+     * CountMode.ESTIMATE时估算行数的表名，可带schema
+     */
+    String countTable() default "";
+
+    /**
+     * 是否由ResultSet直接读取为dtoClass，默认关闭；确认service方法不处理mapper返回的map后再开启
+     */
+    boolean directMapping() default false;
+
+    /**
+     * debug日志中输出的最大行数，0不输出
+     */
+    int logRows() default 10;
 }
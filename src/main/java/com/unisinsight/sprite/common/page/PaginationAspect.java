@@ -4,16 +4,26 @@
  */
 package com.unisinsight.sprite.common.page;
 
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SimplePropertyPreFilter;
 import com.github.pagehelper.Page;
 import com.github.pagehelper.PageHelper;
-import com.unisinsight.ic.commons.base.PageParam;
-import com.unisinsight.ic.commons.utils.MapToObjectConvert;
+import com.unisinsight.sprite.common.utils.ApplicationContextUtil;
+import com.unisinsight.sprite.common.utils.CacheUtils;
+import com.unisinsight.sprite.common.utils.MapToObjectConvert;
+import com.unisinsight.sprite.common.utils.RedisUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
 
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +31,8 @@ import java.util.Optional;
 
 /**
  * description
+ * 页码分页使用LIMIT/OFFSET；配置了seekField时支持游标分页，按排序字段定位，深分页与第一页开销相同；
+ * 总数可按CountMode跳过、缓存或估算，避免每页执行COUNT(*)
  *
  * @author tangmingdong [458778648@qq.com]
  * @since 1.0
@@ -29,6 +41,27 @@ import java.util.Optional;
 @Component
 @Slf4j
 public class PaginationAspect {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+
+    private static final String COUNT_KEY_PREFIX = "page:count:";
+
+    private static final String ESTIMATE_KEY_PREFIX = "page:estimate:";
+
+    private static final long ESTIMATE_CACHE_MILLIS = 60 * 1000L;
+
+    private static final String ESTIMATE_SQL = "SELECT reltuples::bigint FROM pg_class WHERE oid = ?::regclass";
+
+    /**
+     * 计算总数缓存key时排除分页相关字段，只保留查询条件
+     */
+    private static final SimplePropertyPreFilter COUNT_KEY_FILTER = new SimplePropertyPreFilter();
+
+    static {
+        COUNT_KEY_FILTER.getExcludes().addAll(Arrays.asList(
+                "pageNum", "pageSize", "orderField", "orderRule", "cursor"));
+    }
+
     /**
      * 对指定路径+annotation注解的方法进行拦截验证
      * @param joinPoint ProceedingJoinPoint
@@ -39,17 +72,137 @@ public class PaginationAspect {
 	@Around(value = "execution(* com.unisinsight.*.service.*.*(..)) && @annotation(paginationAnnotation)")
     public Object aroundMethod(ProceedingJoinPoint joinPoint, PaginationAnnotation paginationAnnotation) throws Throwable {
         Object[] args = joinPoint.getArgs();
-        Optional<Object> optional = Arrays.stream(args).filter(o -> PageParam.class.isAssignableFrom(o.getClass())).findAny();
+        Optional<Object> optional = Arrays.stream(args).filter(o -> o instanceof PageQuery).findAny();
         if (!optional.isPresent()) {
             return joinPoint.proceed();
         }
         PageQuery pageParam = (PageQuery) optional.get();
         int pageNum = pageParam.getPageNum() < 1 ? 1 : pageParam.getPageNum();
-        int pageSize = pageParam.getPageSize() == 0 ? 20 : pageParam.getPageSize();
-        Page<Object> page = PageHelper.startPage(pageNum, pageSize);
-        Object resultList = joinPoint.proceed();
-        List<Map<String, Object>> list = (List<Map<String, Object>>) resultList;
-        log.info("分页列表查询结果：{}", list);
-        return PageResult.of(MapToObjectConvert.convert(list, paginationAnnotation.dtoClass()), page);
+        int pageSize = pageParam.getPageSize() == 0 ? DEFAULT_PAGE_SIZE : pageParam.getPageSize();
+        String seekField = paginationAnnotation.seekField();
+        boolean hasCursor = !seekField.isEmpty() && pageParam.getCursor() != null && !pageParam.getCursor().isEmpty();
+        boolean seek = hasCursor || (!seekField.isEmpty() && pageNum == 1);
+
+        // 带游标时COUNT(*)会受游标条件影响，只使用缓存或估算的总数
+        Long total = null;
+        String countKey = null;
+        if (paginationAnnotation.count() == CountMode.ESTIMATE) {
+            total = estimateCount(paginationAnnotation.countTable());
+        } else if (paginationAnnotation.count() == CountMode.CACHED) {
+            countKey = countKey(joinPoint, args);
+            total = cachedCount(countKey);
+        }
+        boolean count = total == null && !hasCursor && paginationAnnotation.count() != CountMode.NONE;
+
+        // 多取一条用于判断是否有下一页
+        int offset = seek ? 0 : (pageNum - 1) * pageSize;
+        Page<Object> page = PageHelper.offsetPage(offset, pageSize + 1, count);
+        page.setReasonable(false);
+        if (!seekField.isEmpty()) {
+            page.setOrderBy(seekField + (paginationAnnotation.seekDesc() ? " DESC" : " ASC"));
+        }
+        // 分页查询结果由DtoResultSetInterceptor直接读取为dto，不再生成中间map
+        RowMapping mapping = paginationAnnotation.directMapping()
+                ? RowMapping.start(paginationAnnotation.dtoClass(), seekField, pageSize - 1) : null;
+        List<?> list;
+        try {
+            list = (List<?>) joinPoint.proceed();
+        } finally {
+            // 方法未执行查询时清除分页参数，避免影响该线程的下一次查询
+            PageHelper.clearPage();
+            RowMapping.clear();
+        }
+        if (count) {
+            total = page.getTotal();
+            if (countKey != null) {
+                RedisUtil.set(countKey, String.valueOf(total), paginationAnnotation.countCacheSeconds());
+            }
+        }
+        boolean hasMore = list.size() > pageSize;
+        if (hasMore) {
+            list = list.subList(0, pageSize);
+        }
+        Pagination paging = new Pagination();
+        paging.setPageNum(pageNum);
+        paging.setPageSize(pageSize);
+        paging.setTotal(total == null ? -1 : (int) Math.min(total, Integer.MAX_VALUE));
+        paging.setHasMore(hasMore);
+        List<?> data;
+        if (mapping != null && mapping.isMapped()) {
+            data = list;
+            if (hasMore) {
+                paging.setNextCursor(SeekCursor.encode(mapping.getSeekValue()));
+            }
+        } else {
+            List<Map<String, Object>> rows = (List<Map<String, Object>>) list;
+            if (hasMore && !seekField.isEmpty()) {
+                paging.setNextCursor(SeekCursor.encode(rows.get(rows.size() - 1).get(seekField)));
+            }
+            data = MapToObjectConvert.convert(rows, paginationAnnotation.dtoClass());
+        }
+        int logRows = Math.min(paginationAnnotation.logRows(), data.size());
+        if (logRows > 0 && log.isDebugEnabled()) {
+            log.debug("分页列表查询结果：共{}条，前{}条：{}", data.size(), logRows, data.subList(0, logRows));
+        }
+        return PageResult.of(data, paging);
 	}
+
+    /**
+     * 总数缓存key：方法签名+查询条件的摘要
+     */
+    private static String countKey(ProceedingJoinPoint joinPoint, Object[] args) {
+        try {
+            String text = joinPoint.getSignature().toLongString() + JSON.toJSONString(args, COUNT_KEY_FILTER);
+            return COUNT_KEY_PREFIX + joinPoint.getSignature().getName() + ":"
+                    + DigestUtils.md5DigestAsHex(text.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.warn("查询条件无法序列化，不缓存总数：", e);
+            return null;
+        }
+    }
+
+    private static Long cachedCount(String countKey) {
+        if (countKey == null) {
+            return null;
+        }
+        String value = RedisUtil.get(countKey);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 取统计信息中的估算行数，本地缓存1分钟；表从未analyze或查询失败时返回null，改为精确统计
+     */
+    private static Long estimateCount(String table) {
+        if (table.isEmpty()) {
+            log.warn("CountMode.ESTIMATE未配置countTable，改为精确统计");
+            return null;
+        }
+        String key = ESTIMATE_KEY_PREFIX + table;
+        Long cached = CacheUtils.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        DataSource dataSource = ApplicationContextUtil.getBean(DataSource.class);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(ESTIMATE_SQL)) {
+            statement.setString(1, table);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (rs.next() && rs.getLong(1) >= 0) {
+                    long estimate = rs.getLong(1);
+                    CacheUtils.set(key, estimate, ESTIMATE_CACHE_MILLIS);
+                    return estimate;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("估算表{}行数失败，改为精确统计：", table, e);
+        }
+        return null;
+    }
 }
@@ -0,0 +1,78 @@
+package com.unisinsight.sprite.common.page;
+
+/**
+ * 分页查询的结果映射上下文，由PaginationAspect设置，DtoResultSetInterceptor在分页查询时使用
+ * 与PageHelper一致，只作用于设置后的第一条map结果的查询
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+final class RowMapping {
+
+    private static final ThreadLocal<RowMapping> CURRENT = new ThreadLocal<>();
+
+    private final Class<?> dtoClass;
+
+    private final String seekField;
+
+    /**
+     * 需要记录游标值的行下标，即本页最后一行
+     */
+    private final int cursorRow;
+
+    private boolean mapped;
+
+    private Object seekValue;
+
+    private RowMapping(Class<?> dtoClass, String seekField, int cursorRow) {
+        this.dtoClass = dtoClass;
+        this.seekField = seekField;
+        this.cursorRow = cursorRow;
+    }
+
+    static RowMapping start(Class<?> dtoClass, String seekField, int cursorRow) {
+        RowMapping mapping = new RowMapping(dtoClass, seekField, cursorRow);
+        CURRENT.set(mapping);
+        return mapping;
+    }
+
+    static RowMapping current() {
+        return CURRENT.get();
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    Class<?> getDtoClass() {
+        return dtoClass;
+    }
+
+    String getSeekField() {
+        return seekField;
+    }
+
+    int getCursorRow() {
+        return cursorRow;
+    }
+
+    boolean isMapped() {
+        return mapped;
+    }
+
+    /**
+     * 标记已映射，同时从线程中移除，后续查询不再处理
+     */
+    void markMapped() {
+        this.mapped = true;
+        CURRENT.remove();
+    }
+
+    Object getSeekValue() {
+        return seekValue;
+    }
+
+    void setSeekValue(Object seekValue) {
+        this.seekValue = seekValue;
+    }
+}
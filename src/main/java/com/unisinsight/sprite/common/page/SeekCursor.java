@@ -0,0 +1,95 @@
+package com.unisinsight.sprite.common.page;
+
+import com.unisinsight.sprite.common.exception.CommonException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * 游标分页的游标编解码
+ * 游标为上一页最后一行排序字段的值，带类型标记后base64编码，解码后可直接作为mapper参数与数据库类型比较
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public final class SeekCursor {
+
+    private static final char LONG = 'L';
+
+    private static final char DECIMAL = 'N';
+
+    private static final char TIMESTAMP = 'T';
+
+    private static final char STRING = 'S';
+
+    private SeekCursor() {
+    }
+
+    /**
+     * 编码
+     *
+     * @param value 排序字段的值
+     * @return 游标，值为null时返回null
+     */
+    public static String encode(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String text;
+        if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+            text = LONG + value.toString();
+        } else if (value instanceof Number) {
+            text = DECIMAL + value.toString();
+        } else if (value instanceof Date) {
+            Timestamp timestamp = value instanceof Timestamp ? (Timestamp) value : new Timestamp(((Date) value).getTime());
+            text = TIMESTAMP + (timestamp.getTime() / 1000 * 1000 + "." + timestamp.getNanos());
+        } else {
+            text = STRING + value.toString();
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码
+     *
+     * @param cursor 游标
+     * @return 排序字段的值，游标为空时返回null
+     */
+    public static Object decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        String text;
+        try {
+            text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new CommonException("无效的分页游标：" + cursor);
+        }
+        if (text.isEmpty()) {
+            throw new CommonException("无效的分页游标：" + cursor);
+        }
+        String value = text.substring(1);
+        try {
+            switch (text.charAt(0)) {
+                case LONG:
+                    return Long.valueOf(value);
+                case DECIMAL:
+                    return new BigDecimal(value);
+                case TIMESTAMP:
+                    int dot = value.indexOf('.');
+                    Timestamp timestamp = new Timestamp(Long.parseLong(value.substring(0, dot)));
+                    timestamp.setNanos(Integer.parseInt(value.substring(dot + 1)));
+                    return timestamp;
+                case STRING:
+                    return value;
+                default:
+                    throw new CommonException("无效的分页游标：" + cursor);
+            }
+        } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+            throw new CommonException("无效的分页游标：" + cursor);
+        }
+    }
+}
@@ -6,20 +6,26 @@ package com.unisinsight.sprite.common.utils;
 
 import com.unisinsight.sprite.common.enums.BaseResultCode;
 import com.unisinsight.sprite.common.exception.CommonException;
-import org.springframework.beans.BeanUtils;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * description 实体转换类
+ * 属性复制使用按类型缓存的BeanCopier
  *
  * @date 2018/9/6 17:12
  * @since 1.0
  */
 public final class BeanConvert {
 
+    /**
+     * 超过该数量的列表并行转换
+     */
+    private static final int PARALLEL_THRESHOLD = 10000;
+
     /**
      * 构造方法私有化
      */
@@ -44,8 +50,26 @@ public final class BeanConvert {
         }
 
         List<Object> list = (List<Object>) source;
+        if (list.isEmpty()) {
+            return new ArrayList<>(0);
+        }
+        if (list.size() >= PARALLEL_THRESHOLD) {
+            // 并行流使用公共ForkJoinPool，调用线程同时参与计算；
+            // 转换只复制属性、不做IO，不会长时间占用公共线程池，元素中有IO时不要使用该方法
+            return list.parallelStream().map(model -> convertElement(model, c)).collect(Collectors.toList());
+        }
+        List<T> result = new ArrayList<>(list.size());
+        for (Object model : list) {
+            result.add(convertElement(model, c));
+        }
+        return result;
+    }
 
-        return list.stream().map(model -> convert(model, c)).collect(Collectors.toList());
+    /**
+     * 列表元素转换，null元素保留为null
+     */
+    private static <T> T convertElement(Object model, Class<T> c) {
+        return model == null ? null : BeanCopier.of(model.getClass(), c).create(model);
     }
 
     /**
@@ -57,16 +81,10 @@ public final class BeanConvert {
      * @return T
      */
     public static <T> T convert(Object source, Class<T> c) {
-        T target;
-        try {
-            target = c.newInstance();
-            BeanUtils.copyProperties(source, target);
-        } catch (InstantiationException e) {
-            throw CommonException.of(BaseResultCode.INVALID_PARAM_ERROR, "实例化异常");
-        } catch (IllegalAccessException e) {
-            throw CommonException.of(BaseResultCode.INVALID_PARAM_ERROR, "非法访问异常");
+        if (null == source) {
+            throw CommonException.of(BaseResultCode.INVALID_PARAM_ERROR, "source不能为空");
         }
-        return target;
+        return BeanCopier.of(source.getClass(), c).create(source);
     }
 
 }
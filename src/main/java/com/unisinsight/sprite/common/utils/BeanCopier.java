@@ -0,0 +1,270 @@
+package com.unisinsight.sprite.common.utils;
+
+import com.alibaba.fastjson.parser.ParserConfig;
+import com.alibaba.fastjson.util.TypeUtils;
+import com.unisinsight.sprite.common.enums.BaseResultCode;
+import com.unisinsight.sprite.common.exception.CommonException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.ClassUtils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * description 属性复制器
+ * 按(源类型, 目标类型)生成并缓存，属性的getter/setter在生成时解析为MethodHandle，复制时不再查找属性描述与反射调用；
+ * 属性名优先精确匹配，其次忽略大小写与下划线匹配(userName与user_name)；
+ * 类型可直接赋值时原样复制，基本类型、数字、字符串、日期、枚举之间自动转换，其余不兼容的属性跳过
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public final class BeanCopier {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final Map<Key, BeanCopier> COPIERS = new ConcurrentHashMap<>();
+
+    private final Class<?> targetType;
+
+    /**
+     * 目标类型的无参构造方法，统一为()Object，没有时为null
+     */
+    private final MethodHandle constructor;
+
+    private final Property[] properties;
+
+    private BeanCopier(Class<?> sourceType, Class<?> targetType) {
+        this.targetType = targetType;
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        this.constructor = constructorOf(lookup, targetType);
+        Map<String, PropertyDescriptor> readable = new HashMap<>();
+        Map<String, PropertyDescriptor> readableLoose = new HashMap<>();
+        for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(sourceType)) {
+            if (pd.getReadMethod() != null && !"class".equals(pd.getName())) {
+                readable.put(pd.getName(), pd);
+                readableLoose.putIfAbsent(looseName(pd.getName()), pd);
+            }
+        }
+        List<Property> list = new ArrayList<>();
+        for (PropertyDescriptor target : BeanUtils.getPropertyDescriptors(targetType)) {
+            Method writeMethod = target.getWriteMethod();
+            if (writeMethod == null) {
+                continue;
+            }
+            PropertyDescriptor source = readable.get(target.getName());
+            if (source == null) {
+                source = readableLoose.get(looseName(target.getName()));
+            }
+            if (source == null) {
+                continue;
+            }
+            Class<?> from = source.getReadMethod().getReturnType();
+            Class<?> to = writeMethod.getParameterTypes()[0];
+            Function<Object, Object> converter = converterOf(from, to);
+            if (converter == null) {
+                continue;
+            }
+            try {
+                list.add(new Property(target.getName(), handleOf(lookup, source.getReadMethod(), GETTER_TYPE),
+                        handleOf(lookup, writeMethod, SETTER_TYPE), converter, to.isPrimitive()));
+            } catch (IllegalAccessException e) {
+                // 非public类的方法无法访问，跳过该属性
+            }
+        }
+        this.properties = list.toArray(new Property[0]);
+    }
+
+    /**
+     * 获取复制器，首次使用时生成
+     *
+     * @param sourceType 源类型
+     * @param targetType 目标类型
+     * @return BeanCopier
+     */
+    public static BeanCopier of(Class<?> sourceType, Class<?> targetType) {
+        Key key = new Key(sourceType, targetType);
+        BeanCopier copier = COPIERS.get(key);
+        if (copier == null) {
+            copier = COPIERS.computeIfAbsent(key, k -> new BeanCopier(k.source, k.target));
+        }
+        return copier;
+    }
+
+    /**
+     * 创建目标对象并复制属性
+     *
+     * @param source 源对象
+     * @param <T>    目标类型
+     * @return T
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T create(Object source) {
+        if (constructor == null) {
+            throw CommonException.of(BaseResultCode.INVALID_PARAM_ERROR, "实例化异常");
+        }
+        Object target;
+        try {
+            target = constructor.invokeExact();
+        } catch (Throwable e) {
+            throw CommonException.of(BaseResultCode.INVALID_PARAM_ERROR, "实例化异常");
+        }
+        copy(source, target);
+        return (T) target;
+    }
+
+    /**
+     * 复制属性，源属性值为null时目标基本类型属性保持不变
+     *
+     * @param source 源对象
+     * @param target 目标对象
+     */
+    public void copy(Object source, Object target) {
+        for (Property property : properties) {
+            Object value;
+            try {
+                value = property.getter.invokeExact(source);
+            } catch (Throwable e) {
+                throw CommonException.of(BaseResultCode.CONVERT_BEAN_ERROR,
+                        "读取属性" + property.name + "失败：" + e.getMessage());
+            }
+            if (value != null) {
+                value = property.converter.apply(value);
+            }
+            if (value == null && property.primitive) {
+                continue;
+            }
+            try {
+                property.setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw CommonException.of(BaseResultCode.CONVERT_BEAN_ERROR,
+                        targetType.getSimpleName() + "." + property.name + "赋值失败：" + e.getMessage());
+            }
+        }
+    }
+
+    private static MethodHandle constructorOf(MethodHandles.Lookup lookup, Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            Constructor<?> c = type.getDeclaredConstructor();
+            c.setAccessible(true);
+            return lookup.unreflectConstructor(c).asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static MethodHandle handleOf(MethodHandles.Lookup lookup, Method method, MethodType type)
+            throws IllegalAccessException {
+        if (!Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+            method.setAccessible(true);
+        }
+        return lookup.unreflect(method).asType(type);
+    }
+
+    private static String looseName(String name) {
+        return name.replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 属性值转换，不支持的类型组合返回null
+     */
+    private static Function<Object, Object> converterOf(Class<?> from, Class<?> to) {
+        if (ClassUtils.isAssignable(to, from)) {
+            return Function.identity();
+        }
+        Class<?> target = ClassUtils.resolvePrimitiveIfNecessary(to);
+        if (!isSimple(ClassUtils.resolvePrimitiveIfNecessary(from)) || !isSimple(target)) {
+            return null;
+        }
+        if (target == String.class) {
+            return value -> value instanceof Enum ? ((Enum<?>) value).name() : value.toString();
+        }
+        boolean dateToNumber = Date.class.isAssignableFrom(from) && Number.class.isAssignableFrom(target);
+        return value -> {
+            try {
+                Object input = dateToNumber ? ((Date) value).getTime() : value;
+                return TypeUtils.cast(input, target, ParserConfig.getGlobalInstance());
+            } catch (RuntimeException e) {
+                // 无法转换的值按null处理
+                return null;
+            }
+        };
+    }
+
+    private static boolean isSimple(Class<?> type) {
+        return ClassUtils.isPrimitiveWrapper(type) || type == String.class || type == BigDecimal.class
+                || type == BigInteger.class || Date.class.isAssignableFrom(type) || type.isEnum();
+    }
+
+    private static final class Property {
+
+        private final String name;
+
+        private final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        private final Function<Object, Object> converter;
+
+        private final boolean primitive;
+
+        private Property(String name, MethodHandle getter, MethodHandle setter,
+                         Function<Object, Object> converter, boolean primitive) {
+            this.name = name;
+            this.getter = getter;
+            this.setter = setter;
+            this.converter = converter;
+            this.primitive = primitive;
+        }
+    }
+
+    private static final class Key {
+
+        private final Class<?> source;
+
+        private final Class<?> target;
+
+        private Key(Class<?> source, Class<?> target) {
+            this.source = source;
+            this.target = target;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return source == key.source && target == key.target;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, target);
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.unisinsight.sprite.common.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * description 有界线程池
+ * 线程数与队列长度均有上限，队列满时按RejectPolicy处理，并记录队列深度、活跃线程、任务耗时与拒绝次数
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Slf4j
+public class BoundedExecutor implements Executor {
+
+    /**
+     * 空闲线程回收时间(秒)
+     */
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    private final String name;
+
+    private final ThreadPoolExecutor executor;
+
+    private final RejectPolicy rejectPolicy;
+
+    private final long blockTimeoutMillis;
+
+    private final ExecutorMetrics metrics = new ExecutorMetrics();
+
+    /**
+     * 构造方法
+     *
+     * @param name               线程池名称，同时作为线程名前缀
+     * @param poolSize           最大线程数，空闲时回收
+     * @param queueCapacity      队列长度上限
+     * @param rejectPolicy       队列满时的处理策略
+     * @param blockTimeoutMillis BLOCK策略下的最长等待时间(毫秒)
+     */
+    public BoundedExecutor(String name, int poolSize, int queueCapacity,
+                           RejectPolicy rejectPolicy, long blockTimeoutMillis) {
+        this.name = name;
+        this.rejectPolicy = rejectPolicy;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+        // core == max，配合allowCoreThreadTimeOut，先扩线程再排队，空闲后自动回收
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), new NamedThreadFactory(name),
+                (r, e) -> reject(r));
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 提交任务
+     *
+     * @param runnable runnable
+     * @throws RejectedExecutionException REJECT策略或BLOCK超时时抛出
+     */
+    @Override
+    public void execute(Runnable runnable) {
+        metrics.onSubmit();
+        executor.execute(new TimedTask(runnable, false));
+    }
+
+    /**
+     * 尝试提交任务，队列满时直接返回false，不阻塞也不在调用线程执行，适用于可放弃的后台任务
+     *
+     * @param runnable runnable
+     * @return 是否已提交
+     */
+    public boolean tryExecute(Runnable runnable) {
+        metrics.onSubmit();
+        try {
+            executor.execute(new TimedTask(runnable, true));
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 队列满时的处理
+     *
+     * @param task 被拒绝的任务
+     */
+    private void reject(Runnable task) {
+        if (executor.isShutdown()) {
+            metrics.onReject();
+            throw new RejectedExecutionException(name + " is shutdown");
+        }
+        if (((TimedTask) task).optional) {
+            metrics.onReject();
+            throw new RejectedExecutionException(name + " queue full");
+        }
+        switch (rejectPolicy) {
+            case CALLER_RUNS:
+                metrics.onCallerRuns();
+                task.run();
+                return;
+            case BLOCK:
+                try {
+                    BlockingQueue<Runnable> queue = executor.getQueue();
+                    if (queue.offer(task, blockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                metrics.onReject();
+                throw new RejectedExecutionException(name + " queue full after waiting " + blockTimeoutMillis + "ms");
+            case REJECT:
+            default:
+                metrics.onReject();
+                throw new RejectedExecutionException(name + " queue full");
+        }
+    }
+
+    /**
+     * 获取运行指标快照
+     *
+     * @return ExecutorMetrics.Snapshot
+     */
+    public ExecutorMetrics.Snapshot getMetrics() {
+        return metrics.snapshot(name, executor.getQueue().size(), executor.getActiveCount(), executor.getPoolSize());
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 停止接收新任务，已提交任务继续执行
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 带耗时统计的任务包装
+     */
+    private final class TimedTask implements Runnable {
+
+        private final Runnable delegate;
+
+        private final long submitNanos = System.nanoTime();
+
+        /**
+         * 由tryExecute提交，队列满时直接拒绝
+         */
+        private final boolean optional;
+
+        private TimedTask(Runnable delegate, boolean optional) {
+            this.delegate = delegate;
+            this.optional = optional;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                delegate.run();
+                success = true;
+            } catch (Throwable e) {
+                log.error("线程池[{}]任务执行异常：", name, e);
+            } finally {
+                metrics.onComplete(start - submitNanos, System.nanoTime() - start, success);
+            }
+        }
+    }
+
+    /**
+     * 带名称前缀的线程工厂
+     */
+    private static final class NamedThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger index = new AtomicInteger();
+
+        private final String prefix;
+
+        private NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + "-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
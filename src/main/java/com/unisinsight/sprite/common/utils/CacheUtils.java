@@ -73,6 +73,15 @@ public final class CacheUtils {
         cache.remove(key);
     }
 
+    /**
+     * 移除指定前缀的缓存
+     *
+     * @param prefix key前缀
+     */
+    public static void removeByPrefix(String prefix) {
+        cache.keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
     /**
      * 移除所有缓存
      */
@@ -0,0 +1,159 @@
+package com.unisinsight.sprite.common.utils;
+
+import com.unisinsight.sprite.common.excel.BatchRowHandler;
+import com.unisinsight.sprite.common.excel.CsvRowReader;
+import com.unisinsight.sprite.common.excel.CsvWriter;
+import com.unisinsight.sprite.common.excel.PageIterator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * description csv导入导出
+ * 用于系统间的数据交换，不需要Excel格式时使用；列与字段的对应、类型转换、分批回调与ExcelUtil一致，
+ * 基于NIO通道按字节解析与写入，适用于GB级文件
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Slf4j
+public final class CsvUtil {
+
+    private static final String CSV_FORMAT = ".csv";
+
+    /**
+     * 构造方法私有化
+     */
+    private CsvUtil() {
+    }
+
+    /**
+     * 分批读取上传的csv文件，第一行为表头，列按顺序对应c的字段
+     *
+     * @param file      文件
+     * @param c         泛型入参
+     * @param batchSize 每批行数
+     * @param handler   批处理，如批量入库
+     * @param <T>       泛型
+     * @return 读取的总行数
+     * @throws IOException 读取异常
+     */
+    public static <T> int readCsv(MultipartFile file, Class<T> c, int batchSize,
+                                  Consumer<List<T>> handler) throws IOException {
+        try (InputStream inputStream = file.getInputStream();
+             ReadableByteChannel channel = Channels.newChannel(inputStream)) {
+            return readCsv(channel, c, batchSize, handler);
+        }
+    }
+
+    /**
+     * 分批读取csv文件
+     *
+     * @param path      文件路径
+     * @param c         泛型入参
+     * @param batchSize 每批行数
+     * @param handler   批处理
+     * @param <T>       泛型
+     * @return 读取的总行数
+     * @throws IOException 读取异常
+     */
+    public static <T> int readCsv(Path path, Class<T> c, int batchSize,
+                                  Consumer<List<T>> handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return readCsv(channel, c, batchSize, handler);
+        }
+    }
+
+    /**
+     * 分批读取csv
+     *
+     * @param channel   输入通道，由调用方关闭
+     * @param c         泛型入参
+     * @param batchSize 每批行数
+     * @param handler   批处理
+     * @param <T>       泛型
+     * @return 读取的总行数
+     * @throws IOException 读取异常
+     */
+    public static <T> int readCsv(ReadableByteChannel channel, Class<T> c, int batchSize,
+                                  Consumer<List<T>> handler) throws IOException {
+        BatchRowHandler<T> rowHandler = new BatchRowHandler<>(c, 1, batchSize, handler);
+        CsvRowReader.read(channel, rowHandler);
+        int total = rowHandler.finish();
+        log.info("====csv读取结束，共{}行====", total);
+        return total;
+    }
+
+    /**
+     * 写入csv文件，不写BOM
+     *
+     * @param path       文件路径，已存在时覆盖
+     * @param headers    列标题
+     * @param rows       需要导出的数据，如PageIterator
+     * @param dateFormat 如果有时间，时间格式
+     * @return 写入的行数
+     * @throws IOException 写出异常
+     */
+    public static long writeCsv(Path path, String[] headers, Iterator<?> rows, String dateFormat) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             CsvWriter writer = new CsvWriter(channel, headers, dateFormat, false)) {
+            writer.write(rows);
+            return writer.getTotal();
+        }
+    }
+
+    /**
+     * 导出csv，带BOM以便Excel直接打开
+     *
+     * @param fileName   文件名
+     * @param headers    列标题
+     * @param rows       需要导出的数据，如PageIterator
+     * @param dateFormat 如果有时间，时间格式
+     * @param response   响应
+     */
+    public static void exportCsv(String fileName, String[] headers, Iterator<?> rows
+            , String dateFormat, HttpServletResponse response) {
+        try {
+            response.setContentType("text/csv;charset=utf-8");
+            response.setHeader("Content-disposition", "attachment;filename="
+                    + URLEncoder.encode(fileName + CSV_FORMAT, "UTF-8"));
+            OutputStream output = response.getOutputStream();
+            try (CsvWriter writer = new CsvWriter(Channels.newChannel(output), headers, dateFormat, true)) {
+                writer.write(rows);
+            }
+            output.flush();
+        } catch (IOException e) {
+            log.error("导出{}失败：", fileName, e);
+        }
+    }
+
+    /**
+     * 分页查询并导出csv，每次只查询一页
+     *
+     * @param fileName     文件名
+     * @param headers      列标题
+     * @param pageSupplier 按页码(从1开始)查询一页数据，返回空时结束
+     * @param dateFormat   如果有时间，时间格式
+     * @param response     响应
+     * @param <T>          泛型
+     */
+    public static <T> void exportCsv(String fileName, String[] headers, IntFunction<List<T>> pageSupplier
+            , String dateFormat, HttpServletResponse response) {
+        exportCsv(fileName, headers, new PageIterator<>(pageSupplier), dateFormat, response);
+    }
+}
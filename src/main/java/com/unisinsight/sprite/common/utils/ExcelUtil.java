@@ -5,14 +5,15 @@ import com.alibaba.excel.metadata.BaseRowModel;
 import com.alibaba.excel.metadata.Sheet;
 import com.alibaba.excel.support.ExcelTypeEnum;
 import com.unisinsight.sprite.common.constant.ExcelConstant;
+import com.unisinsight.sprite.common.excel.BatchRowHandler;
+import com.unisinsight.sprite.common.excel.ExcelRowReader;
+import com.unisinsight.sprite.common.excel.ExportRowPlan;
+import com.unisinsight.sprite.common.excel.PageIterator;
+import com.unisinsight.sprite.common.excel.XlsxStreamWriter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.hssf.usermodel.*;
-import org.apache.poi.poifs.filesystem.OfficeXmlFileException;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFCell;
-import org.apache.poi.xssf.usermodel.XSSFRow;
-import org.apache.poi.xssf.usermodel.XSSFSheet;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.servlet.http.HttpServletResponse;
@@ -20,17 +21,18 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.net.URLEncoder;
 import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -48,6 +50,12 @@ public final class ExcelUtil {
     //单个sheet导出最大数据量
     private static final int SHEET_EXPORT_MAX = 50000;
 
+    //多sheet导出时在写入之前预先生成的sheet数，生成比写入单元格快得多，多了只会占用内存
+    private static final int SHEETS_AHEAD = 2;
+
+    //整体读取时每批解析的行数
+    private static final int IMPORT_BATCH_SIZE = 1000;
+
     /**
      * 构造方法私有化
      */
@@ -101,7 +109,7 @@ public final class ExcelUtil {
 
     /**
      * 读取文件中的数据
-     * 会判断excel版本
+     * 按文件头判断excel版本
      *
      * @param file 文件
      * @param c    泛型入参
@@ -111,24 +119,53 @@ public final class ExcelUtil {
      */
     public static <T> List<T> readExcel(MultipartFile file, Class<T> c) throws Exception {
         log.info("文件读取{}", file.getName());
-        boolean isExcel2007 = false;
-        InputStream inputStream = file.getInputStream();
-        try {
-            new HSSFWorkbook(inputStream);
-            isExcel2007 = false;
-        } catch (OfficeXmlFileException e) {
-            isExcel2007 = true;
-        } catch (Exception e) {
-            throw e;
+        List<T> list = new ArrayList<>();
+        try (InputStream inputStream = file.getInputStream()) {
+            readExcel(inputStream, c, IMPORT_BATCH_SIZE, list::addAll);
         }
-        inputStream = file.getInputStream();
-        if (!isExcel2007) {
-            return readExcel2003(inputStream, c);
-        } else {
-            return readExcel2007(inputStream, c);
+        return list;
+    }
+
+    /**
+     * 分批读取文件中的数据，适用于大文件导入
+     * xlsx逐行解析，每读取batchSize行交给handler处理一次，内存占用与文件大小无关
+     *
+     * @param file      文件
+     * @param c         泛型入参
+     * @param batchSize 每批行数
+     * @param handler   批处理，如批量入库
+     * @param <T>       泛型
+     * @return 读取的总行数
+     * @throws Exception 异常信息
+     */
+    public static <T> int readExcel(MultipartFile file, Class<T> c, int batchSize,
+                                    Consumer<List<T>> handler) throws Exception {
+        log.info("文件分批读取{}", file.getName());
+        try (InputStream inputStream = file.getInputStream()) {
+            return readExcel(inputStream, c, batchSize, handler);
         }
     }
 
+    /**
+     * 分批读取输入流中的数据，第一行为表头，列按顺序对应c的字段
+     * 列与字段的绑定由RowBinder按类缓存
+     *
+     * @param inputStream 输入流
+     * @param c           泛型入参
+     * @param batchSize   每批行数
+     * @param handler     批处理
+     * @param <T>         泛型
+     * @return 读取的总行数
+     * @throws Exception 异常信息
+     */
+    public static <T> int readExcel(InputStream inputStream, Class<T> c, int batchSize,
+                                    Consumer<List<T>> handler) throws Exception {
+        BatchRowHandler<T> rowHandler = new BatchRowHandler<>(c, 1, batchSize, handler);
+        ExcelRowReader.read(inputStream, rowHandler);
+        int total = rowHandler.finish();
+        log.info("====文件读取结束，共{}行====", total);
+        return total;
+    }
 
     /**
      * 读取Excel2003文件中的数据，返回list
@@ -140,82 +177,14 @@ public final class ExcelUtil {
      * @throws Exception 异常
      */
     public static <T> List<T> readExcel2003(InputStream inputStream, Class<T> c) throws Exception {
-
-        Workbook workbook = new HSSFWorkbook(inputStream); //创建工作蒲
-        HSSFSheet sheet = (HSSFSheet) workbook.getSheetAt(0); //创建工作表
-        HSSFRow row = null;  //对应行
-        HSSFCell cell = null; //对应单元格
-        row = sheet.getRow(0);
-
-        int totalRow = sheet.getLastRowNum(); //得到sheet表总行数
-        int totalCell = row.getLastCellNum(); //列数
-        log.info("总行数{}, 总列数{}", totalRow, totalCell);
-
-        T t = c.newInstance();
-        Field[] fields = t.getClass().getDeclaredFields();
-
         List<T> list = new ArrayList<>();
-        for (int i = 1; i <= totalRow; i++) {
-            row = sheet.getRow(i);
-
-            if (isRowEmpty(row)) {
-                continue;
-            }
-
-            log.debug("正在处理第【{}】行", i);
-            t = c.newInstance();
-
-            for (int j = 1; j <= totalCell; j++) {
-
-                cell = row.getCell(j - 1);
-
-                if (cell != null) {
-
-                    Field field = fields[j - 1];
-                    String fieldName = field.getName();
-                    String fieldType = field.getType().getSimpleName();
-
-                    String setMethodName = "set" + fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
-                    Class<? extends Object> tCls = t.getClass();
-
-                    Method method = tCls.getMethod(setMethodName, field.getType());
-                    Object value = getCellValue(cell);
-                    //判断值的类型后进行强制类型转换
-                    if (null != value) {
-                        if ("String".equals(fieldType)) {
-                            log.debug("String {}", value.toString());
-                            method.invoke(t, value.toString());
-                        } else if ("Double".equals(fieldType)) {
-                            log.debug("Double {}", value.toString());
-                            method.invoke(t, (Double) value);
-                        } else if ("int".equals(fieldType)) {
-                            log.debug("int {}", value.toString());
-                            int val = Integer.parseInt((String) value);
-                            method.invoke(t, val);
-                        } else if ("BigDecimal".equals(fieldType)) {
-                            log.debug("BigDecimal {}", value.toString());
-                            method.invoke(t, new BigDecimal(value.toString()));
-                        } else if ("Integer".equals(fieldType)) {
-                            log.debug("Integer {}", value.toString());
-                            method.invoke(t, new Integer(value.toString()));
-                        } else if ("Date".equals(fieldType)) {
-                            log.info("读取的value【{}】", value);
-                            log.info("读取到Date【{}】", value.toString());
-                            method.invoke(t, DateUtils.stringsToDate(value.toString()));
-                        }
-                    }
-                }
-
-            }
-            list.add(t);
-        }
-
-        log.info("====文件读取结束====");
+        readExcel(inputStream, c, IMPORT_BATCH_SIZE, list::addAll);
         return list;
     }
 
     /**
      * 读取Excel2007文件中的数据，返回list
+     * 逐行解析，不创建XSSFWorkbook
      *
      * @param inputStream 输入流
      * @param c           泛型入参
@@ -224,73 +193,8 @@ public final class ExcelUtil {
      * @throws Exception 异常
      */
     public static <T> List<T> readExcel2007(InputStream inputStream, Class<T> c) throws Exception {
-
-        Workbook workbook = new XSSFWorkbook(inputStream); //创建工作蒲
-        XSSFSheet sheet = (XSSFSheet) workbook.getSheetAt(0); //创建工作表
-        XSSFRow row = null;  //对应行
-        XSSFCell cell = null; //对应单元格
-        row = sheet.getRow(0);
-
-        int totalRow = sheet.getLastRowNum(); //得到sheet表总行数
-        int totalCell = row.getLastCellNum(); //列数
-        log.info("总行数【{}】, 总列数【{}】", totalRow, totalCell);
-
-        T t = c.newInstance();
-        Field[] fields = t.getClass().getDeclaredFields();
-
         List<T> list = new ArrayList<>();
-        for (int i = 1; i <= totalRow; i++) {
-            row = sheet.getRow(i);
-            if (isRowEmpty(row)) {
-                continue;
-            }
-
-            t = c.newInstance();
-
-            log.debug("正在处理第{}行", i);
-            for (int j = 0; j < totalCell; j++) {
-
-                cell = row.getCell(j);
-                if (cell != null) {
-                    Field field = fields[j];
-                    String fieldName = field.getName();
-                    String fieldType = field.getType().getSimpleName();
-                    String setMethodName = "set" + fieldName.substring(0, 1).toUpperCase() + fieldName.substring(1);
-
-                    Class<? extends Object> tCls = t.getClass();
-                    Method method = tCls.getMethod(setMethodName, field.getType());
-                    Object value = getCellValue(cell);
-
-                    //判断值的类型后进行强制类型转换
-                    if (null != value) {
-                        if ("String".equals(fieldType)) {
-                            log.debug("String{}", value.toString());
-                            method.invoke(t, value.toString());
-                        } else if ("Double".equals(fieldType)) {
-                            log.debug("Double{}", value.toString());
-                            method.invoke(t, (Double) value);
-                        } else if ("int".equals(fieldType)) {
-                            log.debug("int{}", value.toString());
-                            int val = Integer.parseInt((String) value);
-                            method.invoke(t, val);
-                        } else if ("BigDecimal".equals(fieldType)) {
-                            log.debug("BigDecimal{}", value.toString());
-                            method.invoke(t, new BigDecimal(value.toString()));
-                        } else if ("Integer".equals(fieldType)) {
-                            log.debug("Integer{}", value.toString());
-                            method.invoke(t, new Integer(value.toString()));
-                        } else if ("Date".equals(fieldType)) {
-                            log.debug("Date{}", value.toString());
-                            method.invoke(t, DateUtils.stringsToDate(value.toString()));
-                        }
-                    }
-                }
-
-            }
-            list.add(t);
-        }
-
-        log.info("====文件读取结束====");
+        readExcel(inputStream, c, IMPORT_BATCH_SIZE, list::addAll);
         return list;
     }
 
@@ -510,55 +414,10 @@ public final class ExcelUtil {
                 cell.setCellStyle(style); //加样式
                 cell.setCellValue(headers[i]); //往单元格里写数据
             }
+            DateTimeFormatter formatter = ExportRowPlan.formatter(dateFormat);
             for (int index = 0; index < dataList.size(); index++) {
-                HSSFRow row = sheet1.createRow(index + 1);
-                Field[] fields = dataList.get(index).getClass().getDeclaredFields();
-                for (int i = 0; i < fields.length; i++) {
-                    HSSFCell cell = row.createCell(i);
-                    //单元格设置内容自动换行
-                    cell.setCellStyle(cellStyle);
-                    Field field = fields[i];
-                    String fieldName = field.getName();
-                    String getMethodName = "get"
-                            + fieldName.substring(0, 1).toUpperCase()
-                            + fieldName.substring(1);
-                    try {
-                        Method getMethod = dataList.get(index).getClass().getMethod(getMethodName);
-                        Object value = getMethod.invoke(dataList.get(index));
-                        //空值，遍历下一个
-                        if (value == null || value.toString().isEmpty()) {
-                            continue;
-                        }
-                        // 判断值的类型后进行强制类型转换
-                        String textValue = null;
-                        if (value instanceof Date) {
-                            Date date = (Date) value;
-                            SimpleDateFormat sdf = new SimpleDateFormat(dateFormat);
-                            textValue = sdf.format(date);
-                        } else {
-                            // 其它数据类型都当作字符串简单处理
-                            textValue = value.toString();
-                        }
-                        if (textValue != null) {
-                            Pattern p = Pattern.compile("^//d+(//.//d+)?$");
-                            Matcher matcher = p.matcher(textValue);
-                            if (matcher.matches()) {
-                                // 是数字当作double处理
-                                cell.setCellValue(Double.parseDouble(textValue));
-                            } else {
-                                HSSFRichTextString richString = new HSSFRichTextString(
-                                        textValue);
-                                cell.setCellValue(richString);
-                            }
-                        }
-                    } catch (NoSuchMethodException e) {
-                        log.info("NoSuchMethodException:", e.getMessage());
-                    } catch (IllegalAccessException e) {
-                        log.info("IllegalAccessException:", e.getMessage());
-                    } catch (InvocationTargetException e) {
-                        log.info("InvocationTargetException:", e.getMessage());
-                    }
-                }
+                Object data = dataList.get(index);
+                ExportRowPlan.of(data.getClass()).write(data, sheet1.createRow(index + 1), cellStyle, formatter);
             }
             try (OutputStream output = response.getOutputStream()) {
                 excelName = excelName + ExcelConstant.EXCEL_03_FORMAT;
@@ -579,6 +438,49 @@ public final class ExcelUtil {
     }
 
 
+    /**
+     * 流式导出2007版Excel
+     * 逐条读取数据写入，内存中只保留固定行数；但全部行写完后才开始向响应写出，期间占用请求线程，
+     * 十万行以上的导出应使用ExportJobService后台导出
+     *
+     * @param excelName  Excel文件名
+     * @param headers    列标题
+     * @param rows       需要导出的数据，如PageIterator
+     * @param dateFormat 如果有时间，时间格式
+     * @param response   响应
+     */
+    public static void exportXlsx(String excelName, String[] headers, Iterator<?> rows
+            , String dateFormat, HttpServletResponse response) {
+        try (XlsxStreamWriter writer = new XlsxStreamWriter(headers, dateFormat)) {
+            writer.write(rows);
+            response.setContentType("APPLICATION/OCTET-STREAM");
+            response.setCharacterEncoding("utf-8");
+            response.setHeader("Content-disposition", "attachment;filename="
+                    + URLEncoder.encode(excelName + ExcelConstant.EXCEL_07_FORMAT, "UTF-8"));
+            try (OutputStream output = response.getOutputStream()) {
+                writer.finish(output);
+            }
+        } catch (Exception e) {
+            log.error("导出{}失败：", excelName, e);
+        }
+    }
+
+    /**
+     * 分页查询并流式导出2007版Excel，每次只查询一页
+     *
+     * @param excelName    Excel文件名
+     * @param headers      列标题
+     * @param pageSupplier 按页码(从1开始)查询一页数据，返回空时结束
+     * @param dateFormat   如果有时间，时间格式
+     * @param response     响应
+     * @param <T>          泛型
+     */
+    public static <T> void exportXlsx(String excelName, String[] headers, IntFunction<List<T>> pageSupplier
+            , String dateFormat, HttpServletResponse response) {
+        exportXlsx(excelName, headers, new PageIterator<>(pageSupplier), dateFormat, response);
+    }
+
+
     /**
      * 导出2003版Excel-导出多个sheet
      *
@@ -632,13 +534,30 @@ public final class ExcelUtil {
         }
     }
 
+    /**
+     * 多个sheet时，各sheet的单元格值(getter调用、数字判断、时间格式化)在批量任务线程池中提前生成，
+     * 当前线程按顺序将已生成的sheet写入工作簿；HSSFWorkbook共享字符串表，不能多线程写入，样式在所有sheet间共用；
+     * 最多预先生成SHEETS_AHEAD个sheet，写入后即释放；提交不等待线程池，线程池已满或尚未开始的sheet由当前线程生成
+     */
     private static void dataToSheets(String[] headers, List dataList, String dateFormat,
                                      HSSFWorkbook wb, HSSFCellStyle style, HSSFCellStyle cellStyle) {
         //计算需要的sheet数量
         int sheetCount = dataList.size() % SHEET_EXPORT_MAX == 0 ?
                 dataList.size() / SHEET_EXPORT_MAX : dataList.size() / SHEET_EXPORT_MAX + 1;
-
+        DateTimeFormatter formatter = ExportRowPlan.formatter(dateFormat);
+        List<SheetPart> parts = new ArrayList<>(sheetCount);
+        for (int m = 0; m < sheetCount; m++) {
+            parts.add(new SheetPart(dataList, m * SHEET_EXPORT_MAX,
+                    Math.min((m + 1) * SHEET_EXPORT_MAX, dataList.size()), formatter));
+        }
+        int window = sheetCount > 1 ? Math.min(sheetCount, SHEETS_AHEAD) : 0;
+        for (int m = 0; m < window; m++) {
+            parts.get(m).fork();
+        }
         for (int m = 0; m < sheetCount; m++) {
+            if (window > 0 && m + window < sheetCount) {
+                parts.get(m + window).fork();
+            }
             //新建sheet
             HSSFSheet sheet = wb.createSheet("数据表" + (m + 1));
             //生成sheet1内容
@@ -650,66 +569,71 @@ public final class ExcelUtil {
                 cell.setCellStyle(style); //加样式
                 cell.setCellValue(headers[i]); //往单元格里写数据
             }
-            if ((m + 1) * SHEET_EXPORT_MAX <= dataList.size()) {
-                writeDataToSheet(m * SHEET_EXPORT_MAX, (m + 1) * SHEET_EXPORT_MAX, dataList, dateFormat, cellStyle, sheet);
-            } else {
-                writeDataToSheet(m * SHEET_EXPORT_MAX, dataList.size(), dataList, dateFormat, cellStyle, sheet);
+            List<Object[]> rows = parts.get(m).join();
+            parts.set(m, null);
+            for (int index = 0; index < rows.size(); index++) {
+                ExportRowPlan.write(rows.get(index), sheet.createRow(index + 1), cellStyle);
             }
+        }
+    }
+
+    /**
+     * 一个sheet的单元格值，由线程池或当前线程中先开始的一方生成
+     */
+    private static final class SheetPart {
+
+        private final List dataList;
+
+        private final int begin;
 
+        private final int end;
+
+        private final DateTimeFormatter formatter;
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private final CompletableFuture<List<Object[]>> future = new CompletableFuture<>();
+
+        SheetPart(List dataList, int begin, int end, DateTimeFormatter formatter) {
+            this.dataList = dataList;
+            this.begin = begin;
+            this.end = end;
+            this.formatter = formatter;
         }
 
+        /**
+         * 尝试交给批量任务线程池，线程池已满时不等待，由join在当前线程生成
+         */
+        void fork() {
+            if (!ThreadPoolUtils.tryExecute(TaskLane.BULK, this::run)) {
+                log.debug("批量任务线程池已满，sheet由当前线程生成");
+            }
+        }
 
-    }
+        List<Object[]> join() {
+            run();
+            return future.join();
+        }
 
-    private static void writeDataToSheet(int begin, int end, List dataList, String dateFormat, HSSFCellStyle cellStyle, HSSFSheet sheet) {
-        for (int index = begin; index < end; index++) {
-            HSSFRow row = sheet.createRow(index % SHEET_EXPORT_MAX + 1);
-            Field[] fields = dataList.get(index).getClass().getDeclaredFields();
-            for (int i = 0; i < fields.length; i++) {
-                HSSFCell cell = row.createCell(i);
-                //单元格设置内容自动换行
-                cell.setCellStyle(cellStyle);
-                Field field = fields[i];
-                String fieldName = field.getName();
-                String getMethodName = "get"
-                        + fieldName.substring(0, 1).toUpperCase()
-                        + fieldName.substring(1);
-                try {
-                    Method getMethod = dataList.get(index).getClass().getMethod(getMethodName);
-                    Object value = getMethod.invoke(dataList.get(index));
-                    //空值，遍历下一个
-                    if (value == null || value.toString().isEmpty()) {
-                        continue;
-                    }
-                    // 判断值的类型后进行强制类型转换
-                    String textValue = null;
-                    if (value instanceof Date) {
-                        Date date = (Date) value;
-                        SimpleDateFormat sdf = new SimpleDateFormat(dateFormat);
-                        textValue = sdf.format(date);
-                    } else {
-                        // 其它数据类型都当作字符串简单处理
-                        textValue = value.toString();
-                    }
-                    if (textValue != null) {
-                        Pattern p = Pattern.compile("^//d+(//.//d+)?$");
-                        Matcher matcher = p.matcher(textValue);
-                        if (matcher.matches()) {
-                            // 是数字当作double处理
-                            cell.setCellValue(Double.parseDouble(textValue));
-                        } else {
-                            HSSFRichTextString richString = new HSSFRichTextString(
-                                    textValue);
-                            cell.setCellValue(richString);
-                        }
+        private void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                List<Object[]> rows = new ArrayList<>(end - begin);
+                Class<?> type = null;
+                ExportRowPlan plan = null;
+                for (int index = begin; index < end; index++) {
+                    Object data = dataList.get(index);
+                    if (data.getClass() != type) {
+                        type = data.getClass();
+                        plan = ExportRowPlan.of(type);
                     }
-                } catch (NoSuchMethodException e) {
-                    log.info("NoSuchMethodException:", e.getMessage());
-                } catch (IllegalAccessException e) {
-                    log.info("IllegalAccessException:", e.getMessage());
-                } catch (InvocationTargetException e) {
-                    log.info("InvocationTargetException:", e.getMessage());
+                    rows.add(plan.cellValues(data, formatter));
                 }
+                future.complete(rows);
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
             }
         }
     }
@@ -0,0 +1,128 @@
+package com.unisinsight.sprite.common.utils;
+
+import lombok.Data;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * description 线程池运行指标
+ * 计数器均为无锁累加，可在任务线程中直接记录
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class ExecutorMetrics {
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final LongAdder totalExecNanos = new LongAdder();
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0L);
+    private final LongAccumulator maxExecNanos = new LongAccumulator(Long::max, 0L);
+
+    void onSubmit() {
+        submitted.increment();
+    }
+
+    void onReject() {
+        rejected.increment();
+    }
+
+    void onCallerRuns() {
+        callerRuns.increment();
+    }
+
+    /**
+     * 记录一次任务执行
+     *
+     * @param waitNanos 排队耗时
+     * @param execNanos 执行耗时
+     * @param success   是否正常结束
+     */
+    void onComplete(long waitNanos, long execNanos, boolean success) {
+        if (success) {
+            completed.increment();
+        } else {
+            failed.increment();
+        }
+        totalWaitNanos.add(waitNanos);
+        totalExecNanos.add(execNanos);
+        maxWaitNanos.accumulate(waitNanos);
+        maxExecNanos.accumulate(execNanos);
+    }
+
+    /**
+     * 生成指标快照
+     *
+     * @param name          线程池名称
+     * @param queueDepth    当前队列深度
+     * @param activeThreads 当前活跃线程数
+     * @param poolSize      当前线程数
+     * @return Snapshot
+     */
+    public Snapshot snapshot(String name, int queueDepth, int activeThreads, int poolSize) {
+        Snapshot snapshot = new Snapshot();
+        snapshot.setName(name);
+        snapshot.setQueueDepth(queueDepth);
+        snapshot.setActiveThreads(activeThreads);
+        snapshot.setPoolSize(poolSize);
+        snapshot.setSubmitted(submitted.sum());
+        long done = completed.sum();
+        long error = failed.sum();
+        snapshot.setCompleted(done);
+        snapshot.setFailed(error);
+        snapshot.setRejected(rejected.sum());
+        snapshot.setCallerRuns(callerRuns.sum());
+        long finished = done + error;
+        snapshot.setAvgWaitMillis(finished == 0 ? 0 : toMillis(totalWaitNanos.sum()) / finished);
+        snapshot.setAvgExecMillis(finished == 0 ? 0 : toMillis(totalExecNanos.sum()) / finished);
+        snapshot.setMaxWaitMillis(toMillis(maxWaitNanos.get()));
+        snapshot.setMaxExecMillis(toMillis(maxExecNanos.get()));
+        return snapshot;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * 指标快照
+     */
+    @Data
+    public static class Snapshot {
+
+        private String name;
+
+        private int queueDepth;
+
+        private int activeThreads;
+
+        private int poolSize;
+
+        private long submitted;
+
+        private long completed;
+
+        private long failed;
+
+        private long rejected;
+
+        /**
+         * 队列满时由调用线程执行的次数
+         */
+        private long callerRuns;
+
+        private double avgWaitMillis;
+
+        private double avgExecMillis;
+
+        private double maxWaitMillis;
+
+        private double maxExecMillis;
+    }
+}
@@ -0,0 +1,150 @@
+package com.unisinsight.sprite.common.utils;
+
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * description 带指标统计的redis连接
+ * 通过动态代理包装连接工厂返回的连接，每条命令的耗时、key前缀与数据量记录到RedisMetrics；
+ * 代理只实现RedisConnection/RedisClusterConnection等公开接口，驱动实现类的其他接口不对外暴露
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public final class InstrumentedRedisConnection implements InvocationHandler {
+
+    /**
+     * 连接管理类方法，不计入命令统计
+     */
+    private static final Set<String> PASSTHROUGH = new HashSet<>(Arrays.asList(
+            "equals", "hashCode", "toString", "close", "isClosed", "getNativeConnection",
+            "isQueueing", "isPipelined", "openPipeline", "getSentinelConnection"));
+
+    private final Object target;
+
+    /**
+     * 所属连接，用于判断是否处于pipeline模式
+     */
+    private final RedisConnection connection;
+
+    private InstrumentedRedisConnection(Object target, RedisConnection connection) {
+        this.target = target;
+        this.connection = connection;
+    }
+
+    /**
+     * 包装连接工厂，其返回的连接均带指标统计
+     *
+     * @param factory 原连接工厂
+     * @return RedisConnectionFactory
+     */
+    public static RedisConnectionFactory wrap(RedisConnectionFactory factory) {
+        return (RedisConnectionFactory) Proxy.newProxyInstance(RedisConnectionFactory.class.getClassLoader(),
+                new Class<?>[]{RedisConnectionFactory.class}, (proxy, method, args) -> {
+                    Object result = invokeTarget(factory, method, args);
+                    if (result instanceof RedisConnection) {
+                        Class<?> type = result instanceof RedisClusterConnection
+                                ? RedisClusterConnection.class : RedisConnection.class;
+                        return proxy(result, type, (RedisConnection) result);
+                    }
+                    return result;
+                });
+    }
+
+    private static Object proxy(Object target, Class<?> type, RedisConnection connection) {
+        return Proxy.newProxyInstance(RedisConnection.class.getClassLoader(), new Class<?>[]{type},
+                new InstrumentedRedisConnection(target, connection));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (PASSTHROUGH.contains(name)) {
+            return invokeTarget(target, method, args);
+        }
+        // keyCommands()、stringCommands()等返回的子命令接口同样包装
+        if (name.endsWith("Commands") && method.getParameterCount() == 0 && method.getReturnType().isInterface()) {
+            Object commands = invokeTarget(target, method, args);
+            return commands == null ? null : proxy(commands, method.getReturnType(), connection);
+        }
+        boolean queued = !"closePipeline".equals(name) && (connection.isPipelined() || connection.isQueueing());
+        long start = System.nanoTime();
+        Object result = null;
+        boolean error = true;
+        try {
+            result = invokeTarget(target, method, args);
+            error = false;
+            return result;
+        } finally {
+            long nanos = queued ? -1L : System.nanoTime() - start;
+            RedisMetrics.record(name, keyOf(args), nanos, sizeOf(args) + sizeOf(result), error);
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 取第一个key
+     */
+    private static byte[] keyOf(Object[] args) {
+        if (args == null || args.length == 0) {
+            return null;
+        }
+        Object first = args[0];
+        if (first instanceof byte[]) {
+            return (byte[]) first;
+        }
+        if (first instanceof byte[][] && ((byte[][]) first).length > 0) {
+            return ((byte[][]) first)[0];
+        }
+        if (first instanceof Map && !((Map<?, ?>) first).isEmpty()) {
+            Object key = ((Map<?, ?>) first).keySet().iterator().next();
+            return key instanceof byte[] ? (byte[]) key : null;
+        }
+        return null;
+    }
+
+    /**
+     * 估算数据量，只统计byte[]及其集合
+     */
+    private static long sizeOf(Object value) {
+        if (value == null) {
+            return 0L;
+        }
+        if (value instanceof byte[]) {
+            return ((byte[]) value).length;
+        }
+        long size = 0L;
+        if (value instanceof Object[]) {
+            for (Object element : (Object[]) value) {
+                size += sizeOf(element);
+            }
+        } else if (value instanceof Collection) {
+            for (Object element : (Collection<?>) value) {
+                size += sizeOf(element);
+            }
+        } else if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += sizeOf(entry.getKey()) + sizeOf(entry.getValue());
+            }
+        }
+        return size;
+    }
+}
@@ -0,0 +1,302 @@
+package com.unisinsight.sprite.common.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * description 阻塞IO任务执行器
+ * JDK支持虚拟线程时每个任务运行在独立的虚拟线程上，否则退回到有界线程池；
+ * 可按下游资源(如数据库、redis)设置并发上限，避免虚拟线程数量过大时压垮连接池；
+ * 超出上限的任务在提交时进入该资源的等待队列，由该资源结束任务的线程接着执行，等待期间不占用线程，
+ * 每个资源最多等待MAX_PENDING个任务，超出时拒绝
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Slf4j
+public class IoExecutor implements Executor {
+
+    /**
+     * 每个资源等待队列的长度上限
+     */
+    static final int MAX_PENDING = 10000;
+
+    private final String name;
+
+    /**
+     * 虚拟线程执行器，JDK不支持时为null
+     */
+    private final ExecutorService virtualExecutor;
+
+    /**
+     * 不支持虚拟线程时使用的线程池
+     */
+    private final Executor fallback;
+
+    private final Map<String, ResourceGate> resourceLimits = new ConcurrentHashMap<>();
+
+    private final ExecutorMetrics metrics = new ExecutorMetrics();
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final AtomicInteger running = new AtomicInteger();
+
+    /**
+     * 构造方法
+     *
+     * @param name     执行器名称
+     * @param fallback 不支持虚拟线程时使用的线程池
+     */
+    public IoExecutor(String name, Executor fallback) {
+        this.name = name;
+        this.fallback = fallback;
+        this.virtualExecutor = createVirtualExecutor();
+        log.info("IO执行器[{}]使用{}", name, virtualExecutor == null ? "有界线程池" : "虚拟线程");
+    }
+
+    /**
+     * 通过反射创建虚拟线程执行器，兼容以1.8为编译目标
+     *
+     * @return ExecutorService，不支持时返回null
+     */
+    private static ExecutorService createVirtualExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) method.invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (Exception e) {
+            // JDK19/20未开启preview时会抛出UnsupportedOperationException
+            log.info("虚拟线程不可用：{}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 设置下游资源的并发上限，重复设置时调整原有上限，已在执行的任务仍计入并发数
+     *
+     * @param resource 资源名称
+     * @param permits  最大并发数
+     */
+    public void setResourceLimit(String resource, int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("最大并发数必须大于0：" + permits);
+        }
+        resourceLimits.computeIfAbsent(resource, key -> new ResourceGate(key)).setLimit(permits);
+    }
+
+    /**
+     * 提交不受资源限制的任务
+     *
+     * @param runnable runnable
+     */
+    @Override
+    public void execute(Runnable runnable) {
+        execute(null, runnable);
+    }
+
+    /**
+     * 提交访问指定下游资源的任务，该资源并发数已满时进入等待队列，不占用线程
+     *
+     * @param resource 资源名称，未设置上限时不做限制
+     * @param runnable runnable
+     * @throws RejectedExecutionException 等待队列已满或线程池拒绝时抛出
+     */
+    public void execute(String resource, Runnable runnable) {
+        metrics.onSubmit();
+        ResourceGate gate = resource == null ? null : resourceLimits.get(resource);
+        LimitedTask task = new LimitedTask(gate, runnable);
+        if (gate == null) {
+            handOff(task);
+        } else {
+            gate.submit(task);
+        }
+    }
+
+    private void handOff(Runnable task) {
+        if (virtualExecutor != null) {
+            virtualExecutor.execute(task);
+        } else {
+            fallback.execute(task);
+        }
+    }
+
+    /**
+     * 尝试交给其他线程执行，线程池已满时不在当前线程执行也不等待
+     *
+     * @param task 任务
+     * @return 是否已交出
+     */
+    private boolean tryHandOff(Runnable task) {
+        if (virtualExecutor == null && fallback instanceof BoundedExecutor) {
+            return ((BoundedExecutor) fallback).tryExecute(task);
+        }
+        try {
+            handOff(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 是否运行在虚拟线程模式
+     *
+     * @return boolean
+     */
+    public boolean isVirtual() {
+        return virtualExecutor != null;
+    }
+
+    /**
+     * 获取运行指标快照，queueDepth为等待资源许可的任务数
+     *
+     * @return ExecutorMetrics.Snapshot
+     */
+    public ExecutorMetrics.Snapshot getMetrics() {
+        return metrics.snapshot(name, waiting.get(), running.get(), running.get());
+    }
+
+    /**
+     * 一个下游资源的并发控制：未满时直接交给线程执行，已满时排队；
+     * 任务结束时由同一线程继续执行队列中的下一个任务，不重新提交，调用栈不随等待任务数增长；
+     * 线程池已满、任务在提交线程上执行(CALLER_RUNS)时，只把下一个任务交给其他线程，交不出时才由提交线程继续
+     */
+    private final class ResourceGate {
+
+        private final String resource;
+
+        private final ArrayDeque<LimitedTask> pending = new ArrayDeque<>();
+
+        private int limit;
+
+        private int active;
+
+        private ResourceGate(String resource) {
+            this.resource = resource;
+        }
+
+        void setLimit(int permits) {
+            List<LimitedTask> started = new ArrayList<>();
+            synchronized (this) {
+                limit = permits;
+                // 上限调大时立即启动等待中的任务
+                while (active < limit && !pending.isEmpty()) {
+                    started.add(pending.poll());
+                    waiting.decrementAndGet();
+                    active++;
+                }
+            }
+            for (int i = 0; i < started.size(); i++) {
+                if (!tryHandOff(started.get(i))) {
+                    // 放回队列，由执行中的任务结束后继续执行
+                    synchronized (this) {
+                        for (int j = started.size() - 1; j >= i; j--) {
+                            pending.addFirst(started.get(j));
+                            waiting.incrementAndGet();
+                            active--;
+                        }
+                    }
+                    log.warn("IO执行器[{}]线程池已满，资源[{}]的等待任务稍后执行", name, resource);
+                    return;
+                }
+            }
+        }
+
+        void submit(LimitedTask task) {
+            synchronized (this) {
+                if (active >= limit) {
+                    if (pending.size() >= MAX_PENDING) {
+                        metrics.onReject();
+                        throw new RejectedExecutionException("资源[" + resource + "]等待的任务过多");
+                    }
+                    pending.add(task);
+                    waiting.incrementAndGet();
+                    return;
+                }
+                active++;
+            }
+            try {
+                handOff(task);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    active--;
+                }
+                throw e;
+            }
+        }
+
+        /**
+         * 任务结束时调用，有等待的任务且未超过上限时返回该任务，由当前线程继续执行，否则归还并发数
+         *
+         * @return 下一个任务，没有时返回null
+         */
+        synchronized LimitedTask next() {
+            if (active <= limit && !pending.isEmpty()) {
+                waiting.decrementAndGet();
+                return pending.poll();
+            }
+            active--;
+            return null;
+        }
+    }
+
+    /**
+     * 受资源并发数限制的任务包装，结束后继续执行同一资源的等待任务
+     */
+    private final class LimitedTask implements Runnable {
+
+        private final ResourceGate gate;
+
+        private final Runnable delegate;
+
+        private final long submitNanos = System.nanoTime();
+
+        private final Thread submitter = Thread.currentThread();
+
+        private LimitedTask(ResourceGate gate, Runnable delegate) {
+            this.gate = gate;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void run() {
+            // 在提交线程上执行时不接着执行其他请求提交的等待任务
+            boolean inline = Thread.currentThread() == submitter;
+            LimitedTask task = this;
+            while (task != null) {
+                task.runDelegate();
+                task = gate == null ? null : gate.next();
+                if (task != null && inline && tryHandOff(task)) {
+                    return;
+                }
+            }
+        }
+
+        private void runDelegate() {
+            running.incrementAndGet();
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                delegate.run();
+                success = true;
+            } catch (Throwable e) {
+                log.error("IO执行器[{}]任务执行异常：", name, e);
+            } finally {
+                running.decrementAndGet();
+                metrics.onComplete(start - submitNanos, System.nanoTime() - start, success);
+            }
+        }
+    }
+}
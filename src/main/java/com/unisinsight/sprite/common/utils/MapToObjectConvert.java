@@ -9,15 +9,23 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
 
 import javax.persistence.Column;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * description
  * map转实体类，用于mybatis参数自动映射
  * 未做数据类型判断，使用时需保证数据类型的一致性
+ * 每个实体类的构造方法、字段setter与列名的对应关系只解析一次并缓存，转换时不再反射查找
  *
  * @author tangmingdong [458778648@qq.com]
  * @date 2019/01/05 09:32
@@ -25,6 +33,16 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 public class MapToObjectConvert {
+
+    /**
+     * 列名转驼峰的缓存上限，列名通常有限，超过后不再缓存
+     */
+    private static final int MAX_CACHED_NAMES = 10000;
+
+    private static final Map<Class<?>, MappingPlan> PLANS = new ConcurrentHashMap<>();
+
+    private static final Map<String, String> CAMEL_NAMES = new ConcurrentHashMap<>();
+
     /**
      * 构造器私有化
      */
@@ -42,10 +60,9 @@ public class MapToObjectConvert {
         if (map == null || map.isEmpty()) {
             return new HashMap<>(0);
         }
-        Map<String, Object> resultMap = new HashMap<>(map.size());
+        Map<String, Object> resultMap = new HashMap<>((int) (map.size() / 0.75f) + 1);
         for (Map.Entry<String, Object> entry : map.entrySet()) {
-            String key = StringUtils.withoutUnderscoreName(entry.getKey());
-            resultMap.put(key, entry.getValue());
+            resultMap.put(camelName(entry.getKey()), entry.getValue());
         }
         return resultMap;
     }
@@ -62,9 +79,7 @@ public class MapToObjectConvert {
         if (map == null || map.isEmpty()) {
             return null;
         }
-        Constructor c = getConstructor(clazz);
-        Field[] fs = clazz.getDeclaredFields();
-        return fillFields(map, c, fs);
+        return planOf(clazz).fill(map);
     }
 
     /**
@@ -79,13 +94,83 @@ public class MapToObjectConvert {
         if (list == null || list.isEmpty()) {
             return new ArrayList();
         }
+        List result = new ArrayList(list.size());
         if (clazz == null || Map.class.isAssignableFrom(clazz)) {
-            return list.stream().map(MapToObjectConvert::convert).collect(Collectors.toList());
+            for (Map<String, Object> map : list) {
+                result.add(convert(map));
+            }
         } else {
-            Constructor c = getConstructor(clazz);
-            Field[] fs = clazz.getDeclaredFields();
-            return list.stream().map(o -> fillFields(o, c, fs)).collect(Collectors.toList());
+            MappingPlan plan = planOf(clazz);
+            for (Map<String, Object> map : list) {
+                result.add(plan.fill(map));
+            }
         }
+        return result;
+    }
+
+    /**
+     * 创建结果集行读取器，直接将每行读取为实体类(或驼峰key的map)，不经过中间map
+     * 列与setter的对应关系在创建时按结果集的列解析一次
+     *
+     * @param meta  结果集元数据
+     * @param clazz 实体类，为null或Map时读取为map
+     * @return RowReader
+     * @throws SQLException 读取元数据异常
+     */
+    public static RowReader rowReader(ResultSetMetaData meta, Class<?> clazz) throws SQLException {
+        int columns = meta.getColumnCount();
+        String[] labels = new String[columns];
+        for (int i = 0; i < columns; i++) {
+            labels[i] = meta.getColumnLabel(i + 1);
+        }
+        if (clazz == null || Map.class.isAssignableFrom(clazz)) {
+            String[] keys = new String[columns];
+            for (int i = 0; i < columns; i++) {
+                keys[i] = camelName(labels[i]);
+            }
+            int capacity = (int) (columns / 0.75f) + 1;
+            return rs -> {
+                Map<String, Object> map = new HashMap<>(capacity);
+                for (int i = 0; i < columns; i++) {
+                    map.put(keys[i], rs.getObject(i + 1));
+                }
+                return map;
+            };
+        }
+        MappingPlan plan = planOf(clazz);
+        MethodHandle[] setters = new MethodHandle[columns];
+        for (int i = 0; i < columns; i++) {
+            setters[i] = plan.setterOf(labels[i]);
+        }
+        return rs -> plan.fill(rs, setters);
+    }
+
+    /**
+     * 获取实体类的映射计划，首次使用时解析
+     *
+     * @param clazz Class
+     * @return MappingPlan
+     */
+    private static MappingPlan planOf(Class<?> clazz) {
+        MappingPlan plan = PLANS.get(clazz);
+        if (plan == null) {
+            plan = PLANS.computeIfAbsent(clazz, MappingPlan::new);
+        }
+        return plan;
+    }
+
+    /**
+     * 列名转驼峰，结果缓存
+     */
+    private static String camelName(String name) {
+        String camel = CAMEL_NAMES.get(name);
+        if (camel == null) {
+            camel = StringUtils.withoutUnderscoreName(name);
+            if (CAMEL_NAMES.size() < MAX_CACHED_NAMES) {
+                CAMEL_NAMES.put(name, camel);
+            }
+        }
+        return camel;
     }
 
     /**
@@ -103,45 +188,155 @@ public class MapToObjectConvert {
     }
 
     /**
-     * 对实体类的字段，进行数据填充
-     *
-     * @param map Map
-     * @param c   构造方法
-     * @param fs  字段列表
-     * @param <T> t
-     * @return t
+     * 实体类的映射计划：构造方法与各列名对应的字段setter
+     * 列名优先匹配@Column的name或字段名，其次按下划线转驼峰后匹配字段名
      */
-    private static <T> T fillFields(Map<String, Object> map, Constructor c, Field[] fs) {
-        try {
-            T t = (T) c.newInstance(new Object[c.getParameterCount()]);
-            Map<String, Field> fieldMap = new HashMap<>();
-            for (Field f : fs) {
-                f.setAccessible(true);
-                Column column = f.getAnnotation(Column.class);
-                String fieldName = column == null ? f.getName() : column.name();
-                Object obj = map.remove(fieldName);
-                if (obj == null) {
-                    fieldMap.put(f.getName(), f);
-                } else {
-                    f.set(t, obj);
+    private static final class MappingPlan {
+
+        private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+        /**
+         * 列名未匹配任何字段时的占位，避免重复解析
+         */
+        private static final MethodHandle NO_SETTER = MethodHandles.constant(Object.class, null);
+
+        private final Class<?> type;
+
+        /**
+         * 构造方法，统一为(Object[])Object，有参构造方法传入null
+         */
+        private final MethodHandle constructor;
+
+        private final int constructorArgs;
+
+        /**
+         * Column注解的名称或字段名 -> setter
+         */
+        private final Map<String, MethodHandle> exactSetters = new HashMap<>();
+
+        /**
+         * 字段名 -> setter
+         */
+        private final Map<String, MethodHandle> fieldSetters = new HashMap<>();
+
+        /**
+         * 实际出现过的列名 -> setter，运行时填充
+         */
+        private final Map<String, MethodHandle> resolved = new ConcurrentHashMap<>();
+
+        private MappingPlan(Class<?> type) {
+            this.type = type;
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            try {
+                Constructor<?> c = getConstructor(type);
+                c.setAccessible(true);
+                this.constructorArgs = c.getParameterCount();
+                this.constructor = lookup.unreflectConstructor(c)
+                        .asSpreader(Object[].class, constructorArgs)
+                        .asType(MethodType.methodType(Object.class, Object[].class));
+                for (Field f : type.getDeclaredFields()) {
+                    if (Modifier.isStatic(f.getModifiers()) || Modifier.isFinal(f.getModifiers())) {
+                        continue;
+                    }
+                    f.setAccessible(true);
+                    MethodHandle setter = lookup.unreflectSetter(f).asType(SETTER_TYPE);
+                    Column column = f.getAnnotation(Column.class);
+                    exactSetters.put(column == null ? f.getName() : column.name(), setter);
+                    fieldSetters.put(f.getName(), setter);
                 }
+            } catch (IllegalAccessException e) {
+                throw new CommonException(type.getName() + " 无法访问：" + e.getMessage());
             }
-            if (!map.isEmpty()) {
-                Iterator<Map.Entry<String, Object>> it = map.entrySet().iterator();
-                while (it.hasNext()) {
-                    Map.Entry<String, Object> entry = it.next();
-                    String key = entry.getKey();
+        }
+
+        private MethodHandle setterOf(String column) {
+            MethodHandle setter = resolved.get(column);
+            if (setter == null) {
+                setter = exactSetters.get(column);
+                if (setter == null) {
+                    setter = fieldSetters.get(StringUtils.withoutUnderscoreName(column));
+                }
+                if (setter == null) {
+                    setter = NO_SETTER;
+                }
+                if (resolved.size() < MAX_CACHED_NAMES) {
+                    resolved.put(column, setter);
+                }
+            }
+            return setter;
+        }
+
+        /**
+         * 对实体类的字段，进行数据填充，值为null的列不设置
+         *
+         * @param map Map
+         * @param <T> t
+         * @return t
+         */
+        @SuppressWarnings("unchecked")
+        private <T> T fill(Map<String, Object> map) {
+            try {
+                Object t = constructor.invokeExact(new Object[constructorArgs]);
+                for (Map.Entry<String, Object> entry : map.entrySet()) {
                     Object value = entry.getValue();
-                    Field f = fieldMap.get(StringUtils.withoutUnderscoreName(key));
-                    if (f != null) {
-                        f.set(t, value);
+                    if (value == null) {
+                        continue;
+                    }
+                    MethodHandle setter = setterOf(entry.getKey());
+                    if (setter != NO_SETTER) {
+                        setter.invokeExact(t, value);
                     }
                 }
+                return (T) t;
+            } catch (Throwable e) {
+                log.error("{} 转换失败：", type.getName(), e);
+                throw new CommonException(e.getMessage());
+            }
+        }
+
+        /**
+         * 从结果集当前行填充，setters与列一一对应
+         */
+        private Object fill(ResultSet rs, MethodHandle[] setters) throws SQLException {
+            Object t;
+            try {
+                t = constructor.invokeExact(new Object[constructorArgs]);
+            } catch (Throwable e) {
+                throw new CommonException(type.getName() + " 实例化失败：" + e.getMessage());
+            }
+            for (int i = 0; i < setters.length; i++) {
+                MethodHandle setter = setters[i];
+                if (setter == NO_SETTER) {
+                    continue;
+                }
+                Object value = rs.getObject(i + 1);
+                if (value == null) {
+                    continue;
+                }
+                try {
+                    setter.invokeExact(t, value);
+                } catch (Throwable e) {
+                    log.error("{} 转换失败：", type.getName(), e);
+                    throw new CommonException(e.getMessage());
+                }
             }
             return t;
-        } catch (Exception e) {
-            log.error("{}", e);
-            throw new CommonException(e.getMessage());
         }
     }
+
+    /**
+     * 结果集行读取器
+     */
+    @FunctionalInterface
+    public interface RowReader {
+
+        /**
+         * 读取结果集当前行
+         *
+         * @param rs 结果集，已定位到当前行
+         * @return 实体类或map
+         * @throws SQLException 读取异常
+         */
+        Object read(ResultSet rs) throws SQLException;
+    }
 }
@@ -0,0 +1,173 @@
+package com.unisinsight.sprite.common.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * description 微批处理器
+ * 收集提交的元素，数量达到batchSize或距第一个元素超过windowMillis时，将整批交给线程池处理；
+ * 按时间发出的批次由共享的调度线程提交，只尝试提交不等待，线程池已满时过windowMillis再重试，
+ * 批处理逻辑不会在调度线程上执行，也不会阻塞调度线程或丢失批次；
+ * 适用于redis批量写入、数据库批量插入等场景
+ *
+ * @param <T> 元素类型
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Slf4j
+public class MicroBatcher<T> implements AutoCloseable {
+
+    private final String name;
+
+    private final int batchSize;
+
+    private final long windowMillis;
+
+    private final Consumer<List<T>> handler;
+
+    private final BoundedExecutor executor;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Object lock = new Object();
+
+    private List<T> buffer;
+
+    /**
+     * 批次序号，用于识别定时刷新对应的批次是否已按数量提前发出
+     */
+    private long generation;
+
+    private boolean closed;
+
+    /**
+     * 构造方法，通过ThreadPoolUtils.newBatcher创建
+     *
+     * @param name         名称
+     * @param batchSize    每批最大数量
+     * @param windowMillis 最长等待时间(毫秒)
+     * @param handler      批处理逻辑
+     * @param executor     执行批处理的线程池
+     * @param scheduler    定时刷新使用的调度器
+     */
+    MicroBatcher(String name, int batchSize, long windowMillis, Consumer<List<T>> handler,
+                 BoundedExecutor executor, ScheduledExecutorService scheduler) {
+        this.name = name;
+        this.batchSize = batchSize;
+        this.windowMillis = windowMillis;
+        this.handler = handler;
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.buffer = new ArrayList<>(batchSize);
+    }
+
+    /**
+     * 提交一个元素
+     *
+     * @param item 元素
+     */
+    public void add(T item) {
+        List<T> full = null;
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("批处理器[" + name + "]已关闭");
+            }
+            buffer.add(item);
+            if (buffer.size() >= batchSize) {
+                full = drain();
+            } else if (buffer.size() == 1) {
+                final long current = generation;
+                scheduler.schedule(() -> flush(current), windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        dispatch(full);
+    }
+
+    /**
+     * 立即发出当前已收集的元素
+     */
+    public void flush() {
+        List<T> batch;
+        synchronized (lock) {
+            batch = drain();
+        }
+        dispatch(batch);
+    }
+
+    /**
+     * 定时刷新，在调度线程上执行，批次已按数量发出时忽略
+     *
+     * @param expected 调度时的批次序号
+     */
+    private void flush(long expected) {
+        List<T> batch = null;
+        synchronized (lock) {
+            if (generation == expected) {
+                batch = drain();
+            }
+        }
+        if (batch != null) {
+            tryDispatch(batch);
+        }
+    }
+
+    /**
+     * 在调度线程上提交批次，线程池已满时不在调度线程执行也不等待，过windowMillis后重试
+     *
+     * @param batch 批次
+     */
+    private void tryDispatch(List<T> batch) {
+        log.debug("批处理器[{}]发出批次，数量{}", name, batch.size());
+        if (!executor.tryExecute(() -> handler.accept(batch))) {
+            log.warn("线程池[{}]已满，批处理器[{}]的批次{}ms后重试，数量{}", executor.getName(), name,
+                    windowMillis, batch.size());
+            scheduler.schedule(() -> tryDispatch(batch), windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 取出当前批次，调用方需持有lock
+     *
+     * @return 当前批次，为空时返回null
+     */
+    private List<T> drain() {
+        if (buffer.isEmpty()) {
+            return null;
+        }
+        List<T> batch = buffer;
+        buffer = new ArrayList<>(batchSize);
+        generation++;
+        return batch;
+    }
+
+    /**
+     * 在调用线程上提交批次，线程池已满时按通道的拒绝策略处理
+     *
+     * @param batch 批次，为null时忽略
+     */
+    private void dispatch(List<T> batch) {
+        if (batch == null) {
+            return;
+        }
+        log.debug("批处理器[{}]发出批次，数量{}", name, batch.size());
+        executor.execute(() -> handler.accept(batch));
+    }
+
+    /**
+     * 关闭批处理器，剩余元素立即发出
+     */
+    @Override
+    public void close() {
+        List<T> batch;
+        synchronized (lock) {
+            closed = true;
+            batch = drain();
+        }
+        dispatch(batch);
+    }
+}
@@ -0,0 +1,189 @@
+package com.unisinsight.sprite.common.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * description 基于redis的租约分布式锁
+ * 获取成功时返回单调递增的fencing token，下游写入时携带该值可拒绝过期持有者的请求；
+ * 持有期间由看门狗按租约的1/3周期续期；
+ * 同一进程内先竞争本地锁，只有获得本地锁的线程才访问redis，本地可重入
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Slf4j
+public class RedisLock {
+
+    /**
+     * KEYS[1]锁，KEYS[2]fencing计数器；ARGV[1]持有者，ARGV[2]租约(毫秒)；成功返回token，失败返回-1
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then\n"
+                    + "  return redis.call('INCR', KEYS[2])\n"
+                    + "end\n"
+                    + "return -1", Long.class);
+
+    /**
+     * KEYS[1]锁；ARGV[1]持有者，ARGV[2]租约(毫秒)；仍为持有者时续期
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then\n"
+                    + "  return redis.call('PEXPIRE', KEYS[1], ARGV[2])\n"
+                    + "end\n"
+                    + "return 0", Long.class);
+
+    /**
+     * KEYS[1]锁；ARGV[1]持有者；仍为持有者时删除
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then\n"
+                    + "  return redis.call('DEL', KEYS[1])\n"
+                    + "end\n"
+                    + "return 0", Long.class);
+
+    private static final long RETRY_MILLIS = 50L;
+
+    /**
+     * 本进程标识，与线程id组成持有者
+     */
+    private static final String INSTANCE_ID = StringUtils.UUID();
+
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "redis-lock-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final String lockKey;
+
+    private final String fenceKey;
+
+    private final long leaseMillis;
+
+    private final ReentrantLock localLock = new ReentrantLock();
+
+    /**
+     * 以下字段只由持有localLock的线程修改
+     */
+    private String owner;
+
+    private long token = -1L;
+
+    private ScheduledFuture<?> renewal;
+
+    /**
+     * 构造方法
+     *
+     * @param name        锁名称，redis key为lock:{name}
+     * @param leaseMillis 租约时间(毫秒)，持有者宕机后最多经过该时间自动释放
+     */
+    public RedisLock(String name, long leaseMillis) {
+        this.lockKey = "lock:" + name;
+        this.fenceKey = lockKey + ":fence";
+        this.leaseMillis = leaseMillis;
+    }
+
+    /**
+     * 尝试加锁
+     *
+     * @param waitMillis 最长等待时间(毫秒)
+     * @return fencing token，失败返回-1
+     * @throws InterruptedException 等待时被中断
+     */
+    public long tryLock(long waitMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + waitMillis;
+        if (!localLock.tryLock(waitMillis, TimeUnit.MILLISECONDS)) {
+            return -1L;
+        }
+        if (localLock.getHoldCount() > 1) {
+            return token;
+        }
+        String candidate = INSTANCE_ID + ":" + Thread.currentThread().getId();
+        try {
+            while (true) {
+                Long result = RedisUtil.executeScript(ACQUIRE_SCRIPT, Arrays.asList(lockKey, fenceKey),
+                        candidate, String.valueOf(leaseMillis));
+                if (result != null && result > 0) {
+                    owner = candidate;
+                    token = result;
+                    long period = Math.max(1L, leaseMillis / 3);
+                    renewal = WATCHDOG.scheduleAtFixedRate(this::renew, period, period, TimeUnit.MILLISECONDS);
+                    return token;
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    localLock.unlock();
+                    return -1L;
+                }
+                Thread.sleep(Math.min(RETRY_MILLIS, remaining));
+            }
+        } catch (InterruptedException | RuntimeException e) {
+            localLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * 释放锁，重入时只减少计数
+     */
+    public void unlock() {
+        if (!localLock.isHeldByCurrentThread()) {
+            throw new IllegalMonitorStateException("当前线程未持有锁：" + lockKey);
+        }
+        try {
+            if (localLock.getHoldCount() == 1) {
+                if (renewal != null) {
+                    renewal.cancel(false);
+                    renewal = null;
+                }
+                Long released = RedisUtil.executeScript(RELEASE_SCRIPT, Collections.singletonList(lockKey), owner);
+                if (released == null || released == 0L) {
+                    log.warn("锁[{}]释放时已不再持有，token={}", lockKey, token);
+                }
+                owner = null;
+                token = -1L;
+            }
+        } finally {
+            localLock.unlock();
+        }
+    }
+
+    /**
+     * 当前持有的fencing token
+     *
+     * @return token，未持有时返回-1
+     */
+    public long getToken() {
+        return localLock.isHeldByCurrentThread() ? token : -1L;
+    }
+
+    private void renew() {
+        String current = owner;
+        if (current == null) {
+            return;
+        }
+        try {
+            Long renewed = RedisUtil.executeScript(RENEW_SCRIPT, Collections.singletonList(lockKey),
+                    current, String.valueOf(leaseMillis));
+            if (renewed == null || renewed == 0L) {
+                log.warn("锁[{}]续期失败，租约已丢失，token={}", lockKey, token);
+                ScheduledFuture<?> future = renewal;
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("锁[{}]续期异常：", lockKey, e);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.unisinsight.sprite.common.utils;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * description redis命令指标
+ * 按命令统计延迟分布与错误数，按key前缀统计调用次数、数据量与耗时，超过阈值的命令记录慢日志
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Slf4j
+public final class RedisMetrics {
+
+    /**
+     * key前缀数量上限，超过后归入OTHER_PREFIX，避免key设计不规范时指标无限增长
+     */
+    private static final int MAX_PREFIXES = 500;
+
+    private static final String OTHER_PREFIX = "<other>";
+
+    private static final String NO_KEY = "<none>";
+
+    private static final Map<String, CommandStats> COMMANDS = new ConcurrentHashMap<>();
+
+    private static final Map<String, PrefixStats> PREFIXES = new ConcurrentHashMap<>();
+
+    private static volatile long slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private RedisMetrics() {
+    }
+
+    /**
+     * 设置慢命令阈值
+     *
+     * @param millis 毫秒
+     */
+    public static void setSlowThresholdMillis(long millis) {
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    /**
+     * 记录一次命令执行
+     *
+     * @param command 命令名
+     * @param key     第一个key，可为null
+     * @param nanos   耗时(纳秒)，pipeline中排队的命令为-1
+     * @param bytes   请求与响应的数据量
+     * @param error   是否异常
+     */
+    static void record(String command, byte[] key, long nanos, long bytes, boolean error) {
+        CommandStats stats = COMMANDS.computeIfAbsent(command, CommandStats::new);
+        if (nanos >= 0) {
+            stats.latency.record(nanos);
+        } else {
+            stats.pipelined.increment();
+        }
+        if (error) {
+            stats.errors.increment();
+        }
+        String prefix = prefixOf(key);
+        PrefixStats prefixStats = PREFIXES.get(prefix);
+        if (prefixStats == null) {
+            prefixStats = PREFIXES.size() < MAX_PREFIXES
+                    ? PREFIXES.computeIfAbsent(prefix, p -> new PrefixStats())
+                    : PREFIXES.computeIfAbsent(OTHER_PREFIX, p -> new PrefixStats());
+        }
+        prefixStats.calls.increment();
+        prefixStats.bytes.add(bytes);
+        if (nanos > 0) {
+            prefixStats.nanos.add(nanos);
+        }
+        if (nanos > slowThresholdNanos) {
+            log.warn("redis慢命令：{} key={} 耗时{}ms 数据量{}字节", command,
+                    key == null ? NO_KEY : new String(key, StandardCharsets.UTF_8),
+                    TimeUnit.NANOSECONDS.toMillis(nanos), bytes);
+        }
+    }
+
+    /**
+     * key前缀：取最后一个冒号及之前的部分，如collect:sign:、collect_place_code_key:
+     */
+    private static String prefixOf(byte[] key) {
+        if (key == null) {
+            return NO_KEY;
+        }
+        for (int i = key.length - 1; i >= 0; i--) {
+            if (key[i] == ':') {
+                return new String(key, 0, i + 1, StandardCharsets.UTF_8);
+            }
+        }
+        return OTHER_PREFIX;
+    }
+
+    /**
+     * 各命令的指标
+     *
+     * @return List
+     */
+    public static List<CommandSnapshot> getCommandMetrics() {
+        List<CommandSnapshot> list = new ArrayList<>(COMMANDS.size());
+        for (CommandStats stats : COMMANDS.values()) {
+            CommandSnapshot snapshot = new CommandSnapshot();
+            snapshot.setCommand(stats.command);
+            snapshot.setCount(stats.latency.getCount());
+            snapshot.setPipelined(stats.pipelined.sum());
+            snapshot.setErrors(stats.errors.sum());
+            snapshot.setMeanMicros(stats.latency.getMeanMicros());
+            snapshot.setP50Micros(stats.latency.percentileMicros(50));
+            snapshot.setP99Micros(stats.latency.percentileMicros(99));
+            snapshot.setP999Micros(stats.latency.percentileMicros(99.9));
+            snapshot.setMaxMicros(stats.latency.getMaxMicros());
+            list.add(snapshot);
+        }
+        return list;
+    }
+
+    /**
+     * 各key前缀的指标
+     *
+     * @return List
+     */
+    public static List<PrefixSnapshot> getPrefixMetrics() {
+        List<PrefixSnapshot> list = new ArrayList<>(PREFIXES.size());
+        for (Map.Entry<String, PrefixStats> entry : PREFIXES.entrySet()) {
+            PrefixSnapshot snapshot = new PrefixSnapshot();
+            snapshot.setPrefix(entry.getKey());
+            snapshot.setCalls(entry.getValue().calls.sum());
+            snapshot.setBytes(entry.getValue().bytes.sum());
+            snapshot.setTotalMillis(TimeUnit.NANOSECONDS.toMillis(entry.getValue().nanos.sum()));
+            list.add(snapshot);
+        }
+        return list;
+    }
+
+    private static final class CommandStats {
+
+        private final String command;
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private final LongAdder pipelined = new LongAdder();
+
+        private final LongAdder errors = new LongAdder();
+
+        private CommandStats(String command) {
+            this.command = command;
+        }
+    }
+
+    private static final class PrefixStats {
+
+        private final LongAdder calls = new LongAdder();
+
+        private final LongAdder bytes = new LongAdder();
+
+        private final LongAdder nanos = new LongAdder();
+    }
+
+    /**
+     * 命令指标快照
+     */
+    @Data
+    public static class CommandSnapshot {
+
+        private String command;
+
+        private long count;
+
+        /**
+         * pipeline中执行的次数，不计入延迟统计
+         */
+        private long pipelined;
+
+        private long errors;
+
+        private double meanMicros;
+
+        private long p50Micros;
+
+        private long p99Micros;
+
+        private long p999Micros;
+
+        private long maxMicros;
+    }
+
+    /**
+     * key前缀指标快照
+     */
+    @Data
+    public static class PrefixSnapshot {
+
+        private String prefix;
+
+        private long calls;
+
+        private long bytes;
+
+        private long totalMillis;
+    }
+}
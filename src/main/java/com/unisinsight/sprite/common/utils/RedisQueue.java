@@ -0,0 +1,397 @@
+package com.unisinsight.sprite.common.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * description 基于redis list的工作队列
+ * 生产者RPUSH，消费者用lua脚本一次取出一批(LRANGE+LTRIM)；
+ * 可靠模式下取出的元素同时放入本消费者的处理中列表，处理完成后ack删除，进程重启后可recover放回队列；
+ * 处理失败的元素按失败次数指数退避后重新入队，失败次数记录在queue:{name}:attempts，
+ * 超过最大次数后移入死信列表queue:{name}:dead；内容相同的元素共用失败次数，需要区分时在元素中带上唯一标识；
+ * 消费线程池队列满时阻塞拉取线程，形成反压，队列为空时逐步退避，不会空转
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Slf4j
+public class RedisQueue {
+
+    /**
+     * 单批最大数量，受lua unpack参数个数限制
+     */
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private static final long MIN_IDLE_MILLIS = 50L;
+
+    private static final long MAX_IDLE_MILLIS = 1000L;
+
+    /**
+     * recover每次脚本调用最多移动的元素数，避免单次lua执行过久阻塞redis
+     */
+    static final int RECOVER_CHUNK_SIZE = 1000;
+
+    /**
+     * 默认最大处理次数，超过后移入死信列表
+     */
+    private static final int DEFAULT_MAX_ATTEMPTS = 5;
+
+    private static final long DEFAULT_RETRY_BACKOFF_MILLIS = 1000L;
+
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 60000L;
+
+    /**
+     * KEYS[1]队列，KEYS[2]处理中列表(可选)，ARGV[1]数量
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> POP_SCRIPT = new DefaultRedisScript<>(
+            "local items = redis.call('LRANGE', KEYS[1], 0, tonumber(ARGV[1]) - 1)\n"
+                    + "if #items > 0 then\n"
+                    + "  redis.call('LTRIM', KEYS[1], #items, -1)\n"
+                    + "  if #KEYS > 1 then redis.call('RPUSH', KEYS[2], unpack(items)) end\n"
+                    + "end\n"
+                    + "return items", List.class);
+
+    /**
+     * KEYS[1]处理中列表，KEYS[2]失败次数hash，ARGV为已处理的元素
+     */
+    private static final RedisScript<Long> ACK_SCRIPT = new DefaultRedisScript<>(
+            "local n = 0\n"
+                    + "for i = 1, #ARGV do n = n + redis.call('LREM', KEYS[1], 1, ARGV[i]) end\n"
+                    + "if redis.call('EXISTS', KEYS[2]) == 1 then redis.call('HDEL', KEYS[2], unpack(ARGV)) end\n"
+                    + "return n", Long.class);
+
+    /**
+     * KEYS[1]处理中列表，KEYS[2]队列，ARGV[1]最多移动数量；将处理中的元素放回队列头部
+     */
+    private static final RedisScript<Long> RECOVER_SCRIPT = new DefaultRedisScript<>(
+            "local n = 0\n"
+                    + "while n < tonumber(ARGV[1]) and redis.call('RPOPLPUSH', KEYS[1], KEYS[2]) do n = n + 1 end\n"
+                    + "return n", Long.class);
+
+    /**
+     * 处理失败：KEYS[1]处理中列表，KEYS[2]失败次数hash，KEYS[3]延迟重试zset，KEYS[4]死信列表；
+     * ARGV[1]最大次数，ARGV[2]当前毫秒，ARGV[3]初始退避，ARGV[4]最大退避，ARGV[5]成员前缀，ARGV[6..]元素；
+     * 返回移入死信列表的数量
+     */
+    private static final RedisScript<Long> FAIL_SCRIPT = new DefaultRedisScript<>(
+            "local dead = 0\n"
+                    + "for i = 6, #ARGV do\n"
+                    + "  local item = ARGV[i]\n"
+                    + "  redis.call('LREM', KEYS[1], 1, item)\n"
+                    + "  local n = redis.call('HINCRBY', KEYS[2], item, 1)\n"
+                    + "  if n >= tonumber(ARGV[1]) then\n"
+                    + "    redis.call('HDEL', KEYS[2], item)\n"
+                    + "    redis.call('RPUSH', KEYS[4], item)\n"
+                    + "    dead = dead + 1\n"
+                    + "  else\n"
+                    + "    local delay = math.min(tonumber(ARGV[3]) * 2 ^ (n - 1), tonumber(ARGV[4]))\n"
+                    + "    redis.call('ZADD', KEYS[3], tonumber(ARGV[2]) + delay, ARGV[5] .. i .. ':' .. item)\n"
+                    + "  end\n"
+                    + "end\n"
+                    + "return dead", Long.class);
+
+    /**
+     * KEYS[1]延迟重试zset，KEYS[2]队列，ARGV[1]当前毫秒，ARGV[2]最多移动数量；到期的元素去掉前缀放回队列尾部
+     */
+    private static final RedisScript<Long> DUE_SCRIPT = new DefaultRedisScript<>(
+            "local members = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))\n"
+                    + "for _, m in ipairs(members) do\n"
+                    + "  redis.call('ZREM', KEYS[1], m)\n"
+                    + "  redis.call('RPUSH', KEYS[2], string.sub(m, string.find(m, ':', 1, true) + 1))\n"
+                    + "end\n"
+                    + "return #members", Long.class);
+
+    /**
+     * 延迟重试成员前缀的序号，保证内容相同的元素在zset中不会合并
+     */
+    private static final AtomicLong RETRY_SEQUENCE = new AtomicLong();
+
+    private final String name;
+
+    private final String queueKey;
+
+    private final String processingKey;
+
+    private final String attemptsKey;
+
+    private final String retryKey;
+
+    private final String deadKey;
+
+    private final String consumerId;
+
+    private volatile int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    private volatile long retryBackoffMillis = DEFAULT_RETRY_BACKOFF_MILLIS;
+
+    private volatile boolean running;
+
+    private Thread poller;
+
+    private BoundedExecutor workers;
+
+    /**
+     * 构造方法
+     *
+     * @param name       队列名称，redis key为queue:{name}
+     * @param consumerId 消费者标识，每个进程唯一且重启后保持不变，用于区分处理中列表
+     */
+    public RedisQueue(String name, String consumerId) {
+        this.name = name;
+        this.queueKey = "queue:" + name;
+        this.processingKey = queueKey + ":processing:" + consumerId;
+        this.attemptsKey = queueKey + ":attempts";
+        this.retryKey = queueKey + ":retry";
+        this.deadKey = queueKey + ":dead";
+        this.consumerId = consumerId;
+    }
+
+    /**
+     * 设置失败重试策略，第n次失败后等待retryBackoffMillis*2^(n-1)毫秒(最多60秒)再重新入队
+     *
+     * @param maxAttempts        最大处理次数，达到后移入死信列表
+     * @param retryBackoffMillis 初始退避时间(毫秒)
+     */
+    public void setRetryPolicy(int maxAttempts, long retryBackoffMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoffMillis = Math.max(0L, retryBackoffMillis);
+    }
+
+    /**
+     * 入队
+     *
+     * @param items 元素
+     * @return boolean
+     */
+    public boolean push(List<String> items) {
+        if (null == items || items.isEmpty()) {
+            return true;
+        }
+        return RedisUtil.rSet(queueKey, items);
+    }
+
+    /**
+     * 取出一批元素，取出即删除
+     *
+     * @param count 最大数量
+     * @return 元素列表，队列为空时返回空列表
+     */
+    public List<String> pop(int count) {
+        return popInternal(Collections.singletonList(queueKey), count);
+    }
+
+    /**
+     * 可靠模式取出一批元素，元素同时放入处理中列表，处理完成后需调用ack
+     *
+     * @param count 最大数量
+     * @return 元素列表，队列为空时返回空列表
+     */
+    public List<String> popReliable(int count) {
+        return popInternal(Arrays.asList(queueKey, processingKey), count);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> popInternal(List<String> keys, int count) {
+        int size = Math.min(Math.max(1, count), MAX_BATCH_SIZE);
+        List<String> items = RedisUtil.executeScript(POP_SCRIPT, keys, String.valueOf(size));
+        return items == null ? Collections.emptyList() : items;
+    }
+
+    /**
+     * 确认元素已处理，从处理中列表删除
+     *
+     * @param items 已处理的元素
+     * @return 删除的数量
+     */
+    public long ack(List<String> items) {
+        if (null == items || items.isEmpty()) {
+            return 0L;
+        }
+        Long count = RedisUtil.executeScript(ACK_SCRIPT, Arrays.asList(processingKey, attemptsKey),
+                items.toArray(new String[0]));
+        return count == null ? 0L : count;
+    }
+
+    /**
+     * 标记元素处理失败，从处理中列表删除，按失败次数延迟重新入队或移入死信列表
+     *
+     * @param items 处理失败的元素
+     * @return 移入死信列表的数量
+     */
+    public long fail(List<String> items) {
+        if (null == items || items.isEmpty()) {
+            return 0L;
+        }
+        List<String> args = new ArrayList<>(items.size() + 5);
+        args.add(String.valueOf(maxAttempts));
+        args.add(String.valueOf(System.currentTimeMillis()));
+        args.add(String.valueOf(retryBackoffMillis));
+        args.add(String.valueOf(MAX_RETRY_BACKOFF_MILLIS));
+        // 前缀不含冒号，DUE_SCRIPT按第一个冒号去掉前缀
+        args.add(consumerId.replace(':', '_') + "_" + RETRY_SEQUENCE.incrementAndGet() + "_");
+        args.addAll(items);
+        Long dead = RedisUtil.executeScript(FAIL_SCRIPT, Arrays.asList(processingKey, attemptsKey, retryKey, deadKey),
+                args.toArray(new String[0]));
+        return dead == null ? 0L : dead;
+    }
+
+    /**
+     * 将到期的重试元素放回队列
+     *
+     * @return 放回的数量
+     */
+    public long requeueDue() {
+        Long count = RedisUtil.executeScript(DUE_SCRIPT, Arrays.asList(retryKey, queueKey),
+                String.valueOf(System.currentTimeMillis()), String.valueOf(MAX_BATCH_SIZE));
+        return count == null ? 0L : count;
+    }
+
+    /**
+     * 将本消费者处理中列表的元素放回队列，用于进程重启后恢复未确认的元素
+     * 每次脚本调用最多移动RECOVER_CHUNK_SIZE个，分多次完成
+     *
+     * @return 恢复的数量
+     */
+    public long recover() {
+        long recovered = 0L;
+        String limit = String.valueOf(RECOVER_CHUNK_SIZE);
+        while (true) {
+            Long count = RedisUtil.executeScript(RECOVER_SCRIPT, Arrays.asList(processingKey, queueKey), limit);
+            long moved = count == null ? 0L : count;
+            recovered += moved;
+            if (moved < RECOVER_CHUNK_SIZE) {
+                break;
+            }
+        }
+        if (recovered > 0) {
+            log.info("队列[{}]恢复未确认元素{}个", name, recovered);
+        }
+        return recovered;
+    }
+
+    /**
+     * 队列长度
+     *
+     * @return Long
+     */
+    public Long size() {
+        return RedisUtil.lGetListSize(queueKey);
+    }
+
+    /**
+     * 死信列表长度
+     *
+     * @return Long
+     */
+    public Long deadSize() {
+        return RedisUtil.lGetListSize(deadKey);
+    }
+
+    /**
+     * 启动消费：先恢复未确认元素，再由拉取线程批量取出，交给消费线程池并行处理；
+     * handler正常返回后ack，抛出异常时按重试策略延迟重新入队或移入死信列表
+     *
+     * @param workerCount 消费线程数
+     * @param batchSize   每批数量
+     * @param handler     批处理逻辑
+     */
+    public synchronized void start(int workerCount, int batchSize, Consumer<List<String>> handler) {
+        if (running) {
+            return;
+        }
+        recover();
+        running = true;
+        workers = new BoundedExecutor("queue-" + name, workerCount, workerCount * 2,
+                RejectPolicy.BLOCK, Long.MAX_VALUE);
+        poller = new Thread(() -> poll(batchSize, handler), "queue-" + name + "-poller");
+        poller.setDaemon(true);
+        poller.start();
+        log.info("队列[{}]开始消费，线程数{}，批大小{}", name, workerCount, batchSize);
+    }
+
+    /**
+     * 停止消费，已取出的批次继续处理完成
+     */
+    public synchronized void stop() {
+        running = false;
+        if (poller != null) {
+            poller.interrupt();
+            poller = null;
+        }
+        if (workers != null) {
+            workers.shutdown();
+            workers = null;
+        }
+    }
+
+    /**
+     * 消费线程池指标
+     *
+     * @return ExecutorMetrics.Snapshot，未启动时返回null
+     */
+    public ExecutorMetrics.Snapshot getMetrics() {
+        BoundedExecutor executor = workers;
+        return executor == null ? null : executor.getMetrics();
+    }
+
+    private void poll(int batchSize, Consumer<List<String>> handler) {
+        BoundedExecutor executor = workers;
+        long idle = MIN_IDLE_MILLIS;
+        long nextRetryCheck = 0L;
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                long now = System.currentTimeMillis();
+                if (now >= nextRetryCheck) {
+                    requeueDue();
+                    nextRetryCheck = now + MIN_IDLE_MILLIS;
+                }
+                List<String> batch = popReliable(batchSize);
+                if (batch.isEmpty()) {
+                    Thread.sleep(idle);
+                    idle = Math.min(idle * 2, MAX_IDLE_MILLIS);
+                    continue;
+                }
+                idle = MIN_IDLE_MILLIS;
+                // BLOCK策略：消费线程池满时在此阻塞，不再继续拉取
+                executor.execute(() -> process(batch, handler));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RejectedExecutionException e) {
+                log.info("队列[{}]消费线程池已关闭，停止拉取", name);
+                return;
+            } catch (Exception e) {
+                log.warn("队列[{}]拉取异常：", name, e);
+                sleepQuietly(MAX_IDLE_MILLIS);
+            }
+        }
+    }
+
+    void process(List<String> batch, Consumer<List<String>> handler) {
+        try {
+            handler.accept(batch);
+        } catch (Exception e) {
+            long dead = fail(batch);
+            log.warn("队列[{}]批处理失败，{}个元素稍后重试，{}个元素移入死信列表：", name, batch.size() - dead, dead, e);
+            return;
+        }
+        ack(batch);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
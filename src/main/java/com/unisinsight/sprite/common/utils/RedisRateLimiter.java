@@ -0,0 +1,164 @@
+package com.unisinsight.sprite.common.utils;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * description 基于redis的集群令牌桶限流
+ * 令牌计算在lua脚本中完成，时间取redis服务器时间，避免各节点时钟不一致；
+ * 每次从redis预取一批令牌在本地消费，预取的令牌超过持有时间后作废，以少量精度换取redis调用次数
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Slf4j
+public class RedisRateLimiter {
+
+    /**
+     * KEYS[1]令牌桶；ARGV[1]每秒令牌数，ARGV[2]桶容量，ARGV[3]请求数量；返回实际获得的数量
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "redis.replicate_commands()\n"
+                    + "local rate = tonumber(ARGV[1])\n"
+                    + "local capacity = tonumber(ARGV[2])\n"
+                    + "local requested = tonumber(ARGV[3])\n"
+                    + "local time = redis.call('TIME')\n"
+                    + "local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)\n"
+                    + "local data = redis.call('HMGET', KEYS[1], 'tokens', 'ts')\n"
+                    + "local tokens = tonumber(data[1])\n"
+                    + "local ts = tonumber(data[2])\n"
+                    + "if tokens == nil or ts == nil then tokens = capacity; ts = now end\n"
+                    + "tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate / 1000)\n"
+                    + "local granted = math.min(requested, math.floor(tokens))\n"
+                    + "tokens = tokens - granted\n"
+                    + "redis.call('HMSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))\n"
+                    + "redis.call('PEXPIRE', KEYS[1], math.ceil(capacity * 1000 / rate) + 1000)\n"
+                    + "return granted", Long.class);
+
+    private final String key;
+
+    private final long permitsPerSecond;
+
+    private final long capacity;
+
+    private final int prefetch;
+
+    private final long maxHoldMillis;
+
+    /**
+     * 本地持有的令牌
+     */
+    private final AtomicLong localTokens = new AtomicLong();
+
+    private volatile long localExpireAt;
+
+    private final LongAdder remoteCalls = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * 构造方法，不预取，每次获取都访问redis
+     *
+     * @param name             限流名称，redis key为rate:{name}
+     * @param permitsPerSecond 每秒令牌数
+     * @param capacity         桶容量，即允许的突发量
+     */
+    public RedisRateLimiter(String name, long permitsPerSecond, long capacity) {
+        this(name, permitsPerSecond, capacity, 1, 0L);
+    }
+
+    /**
+     * 构造方法
+     *
+     * @param name             限流名称，redis key为rate:{name}
+     * @param permitsPerSecond 每秒令牌数
+     * @param capacity         桶容量，即允许的突发量
+     * @param prefetch         每次从redis预取的令牌数，1表示不预取
+     * @param maxHoldMillis    预取令牌的最长持有时间(毫秒)
+     */
+    public RedisRateLimiter(String name, long permitsPerSecond, long capacity, int prefetch, long maxHoldMillis) {
+        this.key = "rate:" + name;
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = capacity;
+        this.prefetch = Math.max(1, prefetch);
+        this.maxHoldMillis = maxHoldMillis;
+    }
+
+    /**
+     * 尝试获取一个令牌，不等待
+     * redis异常时放行，避免限流组件故障导致业务不可用
+     *
+     * @return 是否获得
+     */
+    public boolean tryAcquire() {
+        if (takeLocal()) {
+            return true;
+        }
+        synchronized (this) {
+            if (takeLocal()) {
+                return true;
+            }
+            long granted;
+            try {
+                remoteCalls.increment();
+                Long result = RedisUtil.executeScript(ACQUIRE_SCRIPT, Collections.singletonList(key),
+                        String.valueOf(permitsPerSecond), String.valueOf(capacity), String.valueOf(prefetch));
+                granted = result == null ? 0L : result;
+            } catch (Exception e) {
+                log.warn("限流[{}]访问redis异常，放行：", key, e);
+                return true;
+            }
+            if (granted <= 0) {
+                rejected.increment();
+                return false;
+            }
+            localExpireAt = System.currentTimeMillis() + maxHoldMillis;
+            localTokens.set(granted - 1);
+            return true;
+        }
+    }
+
+    /**
+     * 从本地预取的令牌中取一个，过期的令牌作废
+     */
+    private boolean takeLocal() {
+        if (localTokens.get() <= 0) {
+            return false;
+        }
+        if (System.currentTimeMillis() > localExpireAt) {
+            localTokens.set(0);
+            return false;
+        }
+        long current;
+        do {
+            current = localTokens.get();
+            if (current <= 0) {
+                return false;
+            }
+        } while (!localTokens.compareAndSet(current, current - 1));
+        return true;
+    }
+
+    /**
+     * 访问redis的次数
+     *
+     * @return long
+     */
+    public long getRemoteCalls() {
+        return remoteCalls.sum();
+    }
+
+    /**
+     * 被限流的次数
+     *
+     * @return long
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -4,17 +4,34 @@ import com.alibaba.fastjson.JSON;
 import com.alibaba.fastjson.JSONArray;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.Lists;
+import com.unisinsight.sprite.common.codec.HashMapper;
+import com.unisinsight.sprite.common.codec.RedisCodec;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
 
 /**
  * redis 工具类
@@ -42,9 +59,45 @@ public class RedisUtil {
 
     /**
      * redis 工具
+     * 连接经过InstrumentedRedisConnection包装，命令耗时与数据量记录到RedisMetrics
      */
     private static RedisTemplate<String, String> redisTemplate =
-            ApplicationContextUtil.getBean("stringRedisTemplate", RedisTemplate.class);
+            instrument(ApplicationContextUtil.getBean("stringRedisTemplate", RedisTemplate.class));
+
+    /**
+     * 基于原模板的连接工厂创建带指标统计的模板，不影响容器中的stringRedisTemplate
+     * 序列化器、事务支持等配置从原模板复制
+     *
+     * @param template 容器中的stringRedisTemplate
+     * @return RedisTemplate
+     */
+    static RedisTemplate<String, String> instrument(RedisTemplate<String, String> template) {
+        StringRedisTemplate instrumented = new StringRedisTemplate();
+        instrumented.setConnectionFactory(InstrumentedRedisConnection.wrap(template.getConnectionFactory()));
+        instrumented.setKeySerializer(template.getKeySerializer());
+        instrumented.setValueSerializer(template.getValueSerializer());
+        instrumented.setHashKeySerializer(template.getHashKeySerializer());
+        instrumented.setHashValueSerializer(template.getHashValueSerializer());
+        instrumented.setStringSerializer(template.getStringSerializer());
+        instrumented.setDefaultSerializer(template.getDefaultSerializer());
+        instrumented.setEnableDefaultSerializer(template.isEnableDefaultSerializer());
+        instrumented.setExposeConnection(template.isExposeConnection());
+        // 事务支持没有getter
+        Object transactional = new DirectFieldAccessor(template).getPropertyValue("enableTransactionSupport");
+        instrumented.setEnableTransactionSupport(Boolean.TRUE.equals(transactional));
+        instrumented.afterPropertiesSet();
+        return instrumented;
+    }
+
+    /**
+     * 单个pipeline的最大命令数，避免一次性占用过多客户端与服务端缓冲区
+     */
+    private static final int PIPELINE_BATCH_SIZE = 500;
+
+    /**
+     * SCAN默认的COUNT提示值
+     */
+    private static final int DEFAULT_SCAN_COUNT = 1000;
 
     /**
      * 读取缓存
@@ -113,32 +166,267 @@ public class RedisUtil {
      * @param keys
      */
     public static void remove(final String... keys) {
-        for (String key : keys) {
-            remove(key);
+        if (null == keys || keys.length == 0) {
+            return;
         }
+        redisTemplate.delete(Arrays.asList(keys));
     }
 
     /**
      * 批量删除key
+     * 使用SCAN增量遍历，不会像KEYS一样阻塞redis
      *
      * @param pattern
      */
     public static void removePattern(final String pattern) {
-        Set<String> keys = redisTemplate.keys(pattern);
-        if (null != keys && !keys.isEmpty()) {
-            redisTemplate.delete(keys);
+        removePattern(pattern, DEFAULT_SCAN_COUNT, 0, null);
+    }
+
+    /**
+     * 按模式批量删除key
+     * SCAN增量遍历，每批使用UNLINK由redis后台线程释放内存
+     *
+     * @param pattern          匹配模式
+     * @param count            每次SCAN的COUNT提示值
+     * @param maxKeysPerSecond 每秒最多删除的key数量，小于等于0不限速
+     * @param progress         进度回调，参数为已删除的key数量，可为null
+     * @return 已删除的key数量
+     */
+    public static long removePattern(final String pattern, int count, int maxKeysPerSecond,
+                                     final LongConsumer progress) {
+        final long start = System.currentTimeMillis();
+        final long[] deleted = {0L};
+        scan(pattern, count, keys -> {
+            deleted[0] += unlink(keys);
+            if (null != progress) {
+                progress.accept(deleted[0]);
+            }
+            if (maxKeysPerSecond > 0) {
+                long expected = deleted[0] * 1000L / maxKeysPerSecond;
+                long elapsed = System.currentTimeMillis() - start;
+                if (expected > elapsed) {
+                    try {
+                        Thread.sleep(expected - elapsed);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("删除key被中断", e);
+                    }
+                }
+            }
+        });
+        log.info("按模式[{}]删除key完成，数量{}，耗时{}ms", pattern, deleted[0], System.currentTimeMillis() - start);
+        return deleted[0];
+    }
+
+    /**
+     * 使用SCAN增量遍历匹配的key，每批交给handler处理
+     * 同一key在遍历过程中可能被返回多次，handler需保证幂等
+     *
+     * @param pattern 匹配模式
+     * @param count   每次SCAN的COUNT提示值，同时作为回调批次大小
+     * @param handler 批处理回调
+     * @return 遍历到的key数量
+     */
+    public static long scan(final String pattern, int count, final Consumer<List<String>> handler) {
+        final int batchSize = count > 0 ? count : DEFAULT_SCAN_COUNT;
+        final RedisSerializer<String> serializer = redisTemplate.getStringSerializer();
+        Long total = redisTemplate.execute((RedisCallback<Long>) connection -> {
+            long scanned = 0L;
+            ScanOptions options = ScanOptions.scanOptions().match(pattern).count(batchSize).build();
+            try (Cursor<byte[]> cursor = connection.scan(options)) {
+                List<String> batch = new ArrayList<>(batchSize);
+                while (cursor.hasNext()) {
+                    batch.add(serializer.deserialize(cursor.next()));
+                    if (batch.size() >= batchSize) {
+                        scanned += batch.size();
+                        handler.accept(batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    scanned += batch.size();
+                    handler.accept(batch);
+                }
+            } catch (IOException e) {
+                log.warn("关闭scan游标异常：", e);
+            }
+            return scanned;
+        });
+        return total == null ? 0L : total;
+    }
+
+    /**
+     * 使用UNLINK删除，redis版本低于4.0不支持时退回DEL
+     *
+     * @param keys 键集合
+     * @return 删除数量
+     */
+    private static long unlink(final Collection<String> keys) {
+        Long count;
+        try {
+            count = redisTemplate.unlink(keys);
+        } catch (Exception e) {
+            log.debug("UNLINK不可用，使用DEL：{}", e.getMessage());
+            count = redisTemplate.delete(keys);
         }
+        return count == null ? 0L : count;
     }
 
     /**
      * 删除对应的value
+     * key不存在时DEL本身无副作用，无需先判断exists
      *
      * @param key
      */
     public static void remove(final String key) {
-        if (exists(key)) {
-            redisTemplate.delete(key);
+        if (null == key) {
+            return;
         }
+        redisTemplate.delete(key);
+    }
+
+    /**
+     * 批量读取缓存，使用MGET一次往返
+     *
+     * @param keys 键列表
+     * @return 与keys顺序一致、数量相同的值列表，不存在的key对应null；异常时全部为null
+     */
+    public static List<String> mget(final List<String> keys) {
+        if (null == keys || keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            List<String> result = redisTemplate.opsForValue().multiGet(keys);
+            if (result != null && result.size() == keys.size()) {
+                return result;
+            }
+            log.warn("redis MGET返回{}个值，应为{}个", result == null ? null : result.size(), keys.size());
+        } catch (Exception e) {
+            log.warn("redis链接异常：", e);
+        }
+        return new ArrayList<>(Collections.nCopies(keys.size(), null));
+    }
+
+    /**
+     * 批量写入缓存，统一过期时间
+     *
+     * @param values     键值对
+     * @param expireTime 过期时间(秒)，小于等于0则永不过期
+     * @return boolean
+     */
+    public static boolean mset(final Map<String, String> values, long expireTime) {
+        if (null == values || values.isEmpty()) {
+            return true;
+        }
+        if (expireTime <= 0) {
+            try {
+                redisTemplate.opsForValue().multiSet(values);
+                return true;
+            } catch (Exception e) {
+                log.warn("redis链接异常：", e);
+                return false;
+            }
+        }
+        Map<String, Long> expireTimes = new HashMap<>(values.size() * 2);
+        for (String key : values.keySet()) {
+            expireTimes.put(key, expireTime);
+        }
+        return mset(values, expireTimes);
+    }
+
+    /**
+     * 批量写入缓存，每个key单独指定过期时间，使用pipeline分批提交
+     *
+     * @param values      键值对
+     * @param expireTimes 各key的过期时间(秒)，缺失或小于等于0则永不过期
+     * @return boolean
+     */
+    public static boolean mset(final Map<String, String> values, final Map<String, Long> expireTimes) {
+        if (null == values || values.isEmpty()) {
+            return true;
+        }
+        RedisSerializer<String> serializer = redisTemplate.getStringSerializer();
+        List<Entry<String, String>> entries = new ArrayList<>(values.entrySet());
+        try {
+            for (int from = 0; from < entries.size(); from += PIPELINE_BATCH_SIZE) {
+                List<Entry<String, String>> batch =
+                        entries.subList(from, Math.min(from + PIPELINE_BATCH_SIZE, entries.size()));
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (Entry<String, String> entry : batch) {
+                        byte[] rawKey = serializer.serialize(entry.getKey());
+                        byte[] rawValue = serializer.serialize(entry.getValue());
+                        Long expire = expireTimes == null ? null : expireTimes.get(entry.getKey());
+                        if (expire != null && expire > 0L) {
+                            connection.setEx(rawKey, expire, rawValue);
+                        } else {
+                            connection.set(rawKey, rawValue);
+                        }
+                    }
+                    return null;
+                });
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("redis链接异常：", e);
+            return false;
+        }
+    }
+
+    /**
+     * 批量删除，使用一条多key的DEL命令
+     *
+     * @param keys 键集合
+     * @return 实际删除的数量，异常时返回0
+     */
+    public static long mdelete(final Collection<String> keys) {
+        if (null == keys || keys.isEmpty()) {
+            return 0L;
+        }
+        try {
+            Long count = redisTemplate.delete(keys);
+            return count == null ? 0L : count;
+        } catch (Exception e) {
+            log.warn("redis链接异常：", e);
+            return 0L;
+        }
+    }
+
+    /**
+     * 批量获取多个hash的全部域，使用pipeline分批提交HGETALL
+     *
+     * @param keys 键列表
+     * @return 与keys顺序一致、数量相同的结果，不存在的key对应空map；异常时未读取到的key也对应空map
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Map<String, String>> hmgetAll(final List<String> keys) {
+        if (null == keys || keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        RedisSerializer<String> serializer = redisTemplate.getStringSerializer();
+        List<Map<String, String>> result = new ArrayList<>(keys.size());
+        try {
+            for (int from = 0; from < keys.size(); from += PIPELINE_BATCH_SIZE) {
+                List<String> batch = keys.subList(from, Math.min(from + PIPELINE_BATCH_SIZE, keys.size()));
+                List<Object> replies = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (String key : batch) {
+                        connection.hGetAll(serializer.serialize(key));
+                    }
+                    return null;
+                });
+                Iterator<Object> it = replies.iterator();
+                for (int i = 0; i < batch.size(); i++) {
+                    Object reply = it.hasNext() ? it.next() : null;
+                    result.add(reply == null ? new HashMap<>(0) : (Map<String, String>) reply);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("redis链接异常：", e);
+            // 已完成的批次保留，其余补空map，保持与keys一一对应
+            while (result.size() < keys.size()) {
+                result.add(new HashMap<>(0));
+            }
+        }
+        return result;
     }
 
     /**
@@ -247,26 +535,141 @@ public class RedisUtil {
         return elem;
     }
 
+    /**
+     * 写入二进制数据
+     *
+     * @param key    缓存key
+     * @param expire 过期时间(秒)，小于等于0则永不过期
+     * @param value  数据
+     * @return boolean
+     */
+    public static boolean setBytes(final String key, long expire, final byte[] value) {
+        final byte[] rawKey = redisTemplate.getStringSerializer().serialize(key);
+        try {
+            redisTemplate.execute((RedisCallback<Object>) connection -> {
+                if (expire > 0) {
+                    connection.setEx(rawKey, expire, value);
+                } else {
+                    connection.set(rawKey, value);
+                }
+                return null;
+            });
+            return true;
+        } catch (Exception e) {
+            log.warn("redis链接异常：", e);
+            return false;
+        }
+    }
+
+    /**
+     * 读取二进制数据
+     *
+     * @param key 缓存key
+     * @return byte[]，不存在或异常时返回null
+     */
+    public static byte[] getBytes(final String key) {
+        final byte[] rawKey = redisTemplate.getStringSerializer().serialize(key);
+        try {
+            return redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.get(rawKey));
+        } catch (Exception e) {
+            log.warn("redis链接异常：", e);
+            return null;
+        }
+    }
+
+    /**
+     * 使用指定编解码器将对象保存到缓存
+     *
+     * @param key    缓存key
+     * @param expire 缓存时间(秒)
+     * @param t      对象
+     * @param codec  编解码器，如RedisCodecs.BINARY
+     */
+    public static <T> void setObject2Cache(String key, long expire, T t, RedisCodec codec) {
+        try {
+            setBytes(key, expire, codec.encode(t));
+        } catch (Exception e) {
+            log.warn("对象编码失败：", e);
+        }
+    }
+
+    /**
+     * 使用指定编解码器从缓存中获取对象，解码失败按未命中处理
+     *
+     * @param key   缓存key
+     * @param clazz class
+     * @param codec 编解码器，需与写入时一致
+     * @return <T> T
+     */
+    public static <T> T getObjectFromCache(String key, Class<T> clazz, RedisCodec codec) {
+        byte[] bytes = getBytes(key);
+        if (null == bytes || bytes.length == 0) {
+            return null;
+        }
+        try {
+            return codec.decode(bytes, clazz);
+        } catch (Exception ex) {
+            log.warn("从缓存中获取对象失败:", ex);
+            return null;
+        }
+    }
+
+    /**
+     * 使用指定编解码器将列表保存到缓存
+     *
+     * @param key    缓存key
+     * @param expire 缓存时间(秒)
+     * @param data   列表数据
+     * @param codec  编解码器
+     */
+    public static <T> void setList2Cache(String key, long expire, List<T> data, RedisCodec codec) {
+        try {
+            setBytes(key, expire, codec.encode(data));
+        } catch (Exception e) {
+            log.warn("列表编码失败：", e);
+        }
+    }
+
+    /**
+     * 使用指定编解码器从缓存中获取列表，解码失败按未命中处理
+     *
+     * @param key   缓存key
+     * @param clazz 元素class
+     * @param codec 编解码器，需与写入时一致
+     * @return List
+     */
+    public static <T> List<T> getListFromCache(String key, Class<T> clazz, RedisCodec codec) {
+        byte[] bytes = getBytes(key);
+        if (null == bytes || bytes.length == 0) {
+            return Lists.newArrayList();
+        }
+        try {
+            List<T> data = codec.decodeList(bytes, clazz);
+            return data == null ? Lists.newArrayList() : data;
+        } catch (Exception ex) {
+            log.warn("从缓存中获取列表失败", ex);
+            return Lists.newArrayList();
+        }
+    }
+
     /**
      * 把一个对象缓存到hash中
+     * 字段映射按类缓存，不再经过JSON中转
      *
      * @param key
      * @param obj
      * @param expire
      * @return Boolean
      */
+    @SuppressWarnings("unchecked")
     public static Boolean hsetObj(String key, Object obj, long expire) {
-        HashMap parseObject = JSON.parseObject(JSON.toJSONString(obj), HashMap.class);
-        Map<byte[], byte[]> byteMap = new HashMap();
-        Set<Entry> entrySet = parseObject.entrySet();
-        for (Entry entry : entrySet) {
-            byte[] keyBytes = redisTemplate.getStringSerializer().serialize(entry.getKey().toString());
-            byte[] valueBytes = redisTemplate.getStringSerializer().serialize(entry.getValue().toString());
-            byteMap.put(keyBytes, valueBytes);
-        }
+        HashMapper<Object> mapper = HashMapper.of((Class<Object>) obj.getClass());
+        Map<byte[], byte[]> byteMap = mapper.toHash(obj);
         final byte[] rawKey = redisTemplate.getStringSerializer().serialize(key);
         return redisTemplate.execute(connection -> {
-            connection.hMSet(rawKey, byteMap);
+            if (!byteMap.isEmpty()) {
+                connection.hMSet(rawKey, byteMap);
+            }
             if (expire > 0) {
                 connection.expire(rawKey, expire);
             }
@@ -274,6 +677,54 @@ public class RedisUtil {
         }, true);
     }
 
+    /**
+     * 只更新hash中对象的指定字段，值为null的字段从hash中删除
+     *
+     * @param key    缓存key
+     * @param obj    对象
+     * @param fields 字段名
+     * @return Boolean
+     */
+    @SuppressWarnings("unchecked")
+    public static Boolean hsetFields(String key, Object obj, List<String> fields) {
+        if (null == fields || fields.isEmpty()) {
+            return true;
+        }
+        HashMapper<Object> mapper = HashMapper.of((Class<Object>) obj.getClass());
+        List<byte[]> nullFields = new ArrayList<>();
+        Map<byte[], byte[]> byteMap = mapper.toHash(obj, fields, nullFields);
+        final byte[] rawKey = redisTemplate.getStringSerializer().serialize(key);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                if (!byteMap.isEmpty()) {
+                    connection.hMSet(rawKey, byteMap);
+                }
+                if (!nullFields.isEmpty()) {
+                    connection.hDel(rawKey, nullFields.toArray(new byte[0][]));
+                }
+                return null;
+            });
+            return true;
+        } catch (Exception e) {
+            log.warn("redis链接异常：", e);
+            return false;
+        }
+    }
+
+    /**
+     * 比较修改前后的对象，只把变化的字段写入hash
+     *
+     * @param key    缓存key
+     * @param before 修改前的对象，为null时写入全部字段
+     * @param after  修改后的对象
+     * @return Boolean
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Boolean hsetChanged(String key, T before, T after) {
+        HashMapper<T> mapper = HashMapper.of((Class<T>) after.getClass());
+        return hsetFields(key, after, mapper.changedFields(before, after));
+    }
+
     /**
      * 在一个hash中获得一个对象
      *
@@ -284,25 +735,54 @@ public class RedisUtil {
     public static <T> T hgetObj(String key, Class<T> clazzType) {
         final byte[] rawKey = redisTemplate.getStringSerializer().serialize(key);
         final Map<byte[], byte[]> byteMap = redisTemplate.execute(connection -> connection.hGetAll(rawKey), true);
-        if (byteMap.isEmpty()) {
+        if (null == byteMap || byteMap.isEmpty()) {
             return null;
         }
-        Set<Entry<byte[], byte[]>> entrySet = byteMap.entrySet();
-        Map<String, String> resMap = new HashMap();
-        for (Entry<byte[], byte[]> entry : entrySet) {
-            String fKey = redisTemplate.getStringSerializer().deserialize(entry.getKey());
-            String fValue = redisTemplate.getStringSerializer().deserialize(entry.getValue());
-            resMap.put(fKey, fValue);
-        }
         T t = null;
         try {
-            t = JSON.parseObject(JSON.toJSONString(resMap), clazzType);
+            t = HashMapper.of(clazzType).fromHash(byteMap);
         } catch (Exception ex) {
             log.warn("在一个hash中获得一个对象失败:", ex);
         }
         return t;
     }
 
+    /**
+     * 使用HMGET只读取对象的指定字段，其余字段保持默认值
+     *
+     * @param key       缓存key
+     * @param clazzType class
+     * @param fields    字段名
+     * @return t，所有字段都不存在时返回null
+     */
+    public static <T> T hgetFields(String key, Class<T> clazzType, List<String> fields) {
+        if (null == fields || fields.isEmpty()) {
+            return null;
+        }
+        HashMapper<T> mapper = HashMapper.of(clazzType);
+        final byte[] rawKey = redisTemplate.getStringSerializer().serialize(key);
+        final byte[][] fieldKeys = mapper.fieldKeys(fields);
+        try {
+            List<byte[]> values = redisTemplate.execute(connection -> connection.hMGet(rawKey, fieldKeys), true);
+            return mapper.fromValues(fields, values);
+        } catch (Exception ex) {
+            log.warn("在一个hash中获得对象字段失败:", ex);
+            return null;
+        }
+    }
+
+    /**
+     * 执行lua脚本，key与参数均按字符串序列化
+     *
+     * @param script 脚本，需预先创建并复用以利用EVALSHA
+     * @param keys   KEYS
+     * @param args   ARGV
+     * @return 脚本返回值
+     */
+    public static <T> T executeScript(RedisScript<T> script, List<String> keys, String... args) {
+        return redisTemplate.execute(script, keys, (Object[]) args);
+    }
+
     /**
      * 获取List大小
      *
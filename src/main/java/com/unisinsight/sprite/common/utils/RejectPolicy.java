@@ -0,0 +1,25 @@
+package com.unisinsight.sprite.common.utils;
+
+/**
+ * description 有界线程池队列满时的处理策略
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public enum RejectPolicy {
+
+    /**
+     * 由提交任务的线程直接执行，天然形成反压
+     */
+    CALLER_RUNS,
+
+    /**
+     * 直接拒绝，抛出RejectedExecutionException
+     */
+    REJECT,
+
+    /**
+     * 阻塞等待队列空位，超时后拒绝
+     */
+    BLOCK
+}
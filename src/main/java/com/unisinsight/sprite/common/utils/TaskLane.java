@@ -0,0 +1,56 @@
+package com.unisinsight.sprite.common.utils;
+
+/**
+ * description 任务通道
+ * 每个通道使用独立的有界线程池，批量任务再多也不会占用低延迟任务的线程与队列；
+ * 通道之间的隔离只来自各自的线程数与队列长度，不设置线程优先级(Linux上的HotSpot默认忽略线程优先级)
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public enum TaskLane {
+
+    /**
+     * 低延迟任务，如缓存刷新；队列满时由调用线程执行，保证不丢弃
+     */
+    CRITICAL("sprite-critical", 4, 2, 2000, RejectPolicy.CALLER_RUNS, 0L),
+
+    /**
+     * 普通任务，即ThreadPoolUtils.execute使用的默认线程池
+     */
+    DEFAULT("sprite-pool", 16, 4, 10000, RejectPolicy.CALLER_RUNS, 0L),
+
+    /**
+     * 批量任务，如导出；线程数少，队列满时阻塞提交方
+     */
+    BULK("sprite-bulk", 2, 1, 1000, RejectPolicy.BLOCK, 30000L);
+
+    private static final int CPU_COUNT = Runtime.getRuntime().availableProcessors();
+
+    private final String threadName;
+    private final int minThreads;
+    private final int threadsPerCpu;
+    private final int queueCapacity;
+    private final RejectPolicy rejectPolicy;
+    private final long blockTimeoutMillis;
+
+    TaskLane(String threadName, int minThreads, int threadsPerCpu, int queueCapacity,
+             RejectPolicy rejectPolicy, long blockTimeoutMillis) {
+        this.threadName = threadName;
+        this.minThreads = minThreads;
+        this.threadsPerCpu = threadsPerCpu;
+        this.queueCapacity = queueCapacity;
+        this.rejectPolicy = rejectPolicy;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+    }
+
+    /**
+     * 创建该通道的线程池，线程数按CPU核数计算，不低于minThreads
+     *
+     * @return BoundedExecutor
+     */
+    BoundedExecutor createExecutor() {
+        int poolSize = Math.max(minThreads, CPU_COUNT * threadsPerCpu);
+        return new BoundedExecutor(threadName, poolSize, queueCapacity, rejectPolicy, blockTimeoutMillis);
+    }
+}
@@ -2,63 +2,361 @@ package com.unisinsight.sprite.common.utils;
 
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * 线程池工具类
- * 借用newCachedThreadPool特性实现线程自动回收
- * 借用newSingleThreadExecutor特性实现瞬发控制
+ * 使用有界线程池，队列满时由调用线程执行任务，实现自然反压
+ * 任务按TaskLane分通道执行，批量任务不会挤占低延迟任务
  * 建议项目中所有多线程编程，均使用此类的execute方法
  * @author tangmingdong
  */
 @Slf4j
 public class ThreadPoolUtils {
-    private static ThreadPoolExecutor cachedThreadPool = (ThreadPoolExecutor) Executors.newCachedThreadPool();
-    private static ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
-    private static int sum = 0;
-    private static int limit = 100;//毫秒内限流，初始值1000以内，影响不大
+    /**
+     * 各通道的线程池
+     */
+    private static final Map<TaskLane, BoundedExecutor> LANES = new EnumMap<>(TaskLane.class);
+
+    static {
+        for (TaskLane lane : TaskLane.values()) {
+            LANES.put(lane, lane.createExecutor());
+        }
+    }
+
+    /**
+     * 默认线程池：任务以阻塞IO为主，线程数取CPU核数的4倍
+     */
+    private static final BoundedExecutor DEFAULT_EXECUTOR = LANES.get(TaskLane.DEFAULT);
+
+    /**
+     * 阻塞IO任务执行器：支持虚拟线程时使用虚拟线程，否则使用默认线程池
+     */
+    private static final IoExecutor IO_EXECUTOR = new IoExecutor("sprite-io", DEFAULT_EXECUTOR);
+
+    /**
+     * 超时控制、微批定时刷新与定时任务提交使用的调度线程，只做轻量的状态变更
+     */
+    private static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, r -> {
+        Thread thread = new Thread(r, "sprite-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
 
-    private static int count=0;
-    private static int difference = 0;
-    private static long time = System.currentTimeMillis();
+    static {
+        // 任务提前完成时取消的超时定时器立即移出队列，不等到触发时间
+        SCHEDULER.setRemoveOnCancelPolicy(true);
+    }
+
+    private ThreadPoolUtils() {
+    }
 
     /**
-     * 外部限流，内部无限扩充，超时清理
-     * 内部并行任务
-     * 111.149测试极限为：25万/秒
+     * 提交任务到默认线程池
+     * 队列满时由调用线程执行，不会丢弃任务
      * @param runnable runnable
      */
     public static void execute(Runnable runnable) {
-        singleThreadExecutor.execute(() -> {
-            cachedThreadPool.execute(runnable);
-            if (++sum % limit == 0) {
-                Long current = System.currentTimeMillis();
-                if (current - time < 100) { //如果时差在百毫秒内，识别为并发任务
-                    try {
-                        Thread.sleep(1);
-                    } catch (InterruptedException e) {
-                        log.error(e.getMessage());
-                    }
-
-                    int activeCount = cachedThreadPool.getActiveCount();
-                    difference = activeCount-count;
-                    count = activeCount;
-                    if (difference < 0) {
-                        if (limit < 200) {
-                            limit <<= 3;
-                        } else if (limit < 3000) {
-                            limit += 100;
-                        } else {
-                            limit *=0.9;
-                        }
-                    }
-                } else if (limit > 100){
-                    limit --;
+        DEFAULT_EXECUTOR.execute(runnable);
+    }
+
+    /**
+     * 提交任务到指定通道
+     * @param lane 任务通道
+     * @param runnable runnable
+     */
+    public static void execute(TaskLane lane, Runnable runnable) {
+        LANES.get(lane).execute(runnable);
+    }
+
+    /**
+     * 尝试提交任务到指定通道，队列满时返回false，不阻塞也不在调用线程执行
+     * @param lane 任务通道
+     * @param runnable runnable
+     * @return 是否已提交
+     */
+    public static boolean tryExecute(TaskLane lane, Runnable runnable) {
+        return LANES.get(lane).tryExecute(runnable);
+    }
+
+    /**
+     * 提交有返回值的任务到默认线程池
+     * @param task 任务
+     * @param <T> 返回值类型
+     * @return CompletableFuture
+     */
+    public static <T> CompletableFuture<T> submit(Callable<T> task) {
+        return submit(TaskLane.DEFAULT, task);
+    }
+
+    /**
+     * 提交有返回值的任务到指定通道
+     * 线程池拒绝时返回的future以RejectedExecutionException结束
+     * @param lane 任务通道
+     * @param task 任务
+     * @param <T> 返回值类型
+     * @return CompletableFuture
+     */
+    public static <T> CompletableFuture<T> submit(TaskLane lane, Callable<T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            LANES.get(lane).execute(() -> {
+                // 已超时或已取消的任务不再执行
+                if (future.isDone()) {
+                    return;
+                }
+                try {
+                    future.complete(task.call());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
                 }
-                time = current;
+            });
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    /**
+     * 提交有返回值的任务到默认线程池，超时后future以TimeoutException结束
+     * @param task 任务
+     * @param timeout 超时时间
+     * @param unit 时间单位
+     * @param <T> 返回值类型
+     * @return CompletableFuture
+     */
+    public static <T> CompletableFuture<T> submit(Callable<T> task, long timeout, TimeUnit unit) {
+        return withTimeout(submit(task), timeout, unit);
+    }
+
+    /**
+     * 限制并发数执行一组任务，结果顺序与任务顺序一致
+     * 任一任务失败或整体超时时，返回的future以异常结束，未开始的任务不再执行
+     * @param tasks 任务列表
+     * @param maxConcurrency 最大并发数
+     * @param timeout 整体超时时间
+     * @param unit 时间单位
+     * @param <T> 返回值类型
+     * @return CompletableFuture
+     */
+    public static <T> CompletableFuture<List<T>> invokeAllBounded(List<? extends Callable<T>> tasks, int maxConcurrency,
+                                                                  long timeout, TimeUnit unit) {
+        return invokeAllBounded(TaskLane.DEFAULT, tasks, maxConcurrency, timeout, unit);
+    }
+
+    /**
+     * 在指定通道上限制并发数执行一组任务，结果顺序与任务顺序一致；
+     * 工作任务只尝试提交，线程池繁忙时以较少的工作任务执行，一个也未提交时按通道的拒绝策略处理；
+     * 超时在启动工作任务前设置，由调用线程执行时也会在超时后停止取下一个任务
+     * @param lane 任务通道
+     * @param tasks 任务列表
+     * @param maxConcurrency 最大并发数
+     * @param timeout 整体超时时间
+     * @param unit 时间单位
+     * @param <T> 返回值类型
+     * @return CompletableFuture
+     */
+    public static <T> CompletableFuture<List<T>> invokeAllBounded(TaskLane lane, List<? extends Callable<T>> tasks,
+                                                                  int maxConcurrency, long timeout, TimeUnit unit) {
+        int size = tasks.size();
+        CompletableFuture<List<T>> result = new CompletableFuture<>();
+        if (size == 0) {
+            result.complete(new ArrayList<>());
+            return result;
+        }
+        Object[] values = new Object[size];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger remaining = new AtomicInteger(size);
+        int workers = Math.min(Math.max(1, maxConcurrency), size);
+        BoundedExecutor executor = LANES.get(lane);
+        // 先设置超时，工作任务在调用线程执行时超时同样生效
+        withTimeout(result, timeout, unit);
+        Runnable worker = () -> drain(tasks, values, next, remaining, result);
+        // 线程池繁忙时减少工作任务数，已启动的工作任务会继续取完剩余任务
+        int started = 0;
+        while (started < workers && executor.tryExecute(worker)) {
+            started++;
+        }
+        if (started == 0) {
+            // 一个也未提交时按通道的拒绝策略处理，CALLER_RUNS时由调用线程执行
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 工作任务：循环取下一个任务执行，直到全部取完或整体结束；
+     * 在同一线程内循环而不是在完成回调中提交下一个，调用线程执行(CALLER_RUNS)时调用栈也不会随任务数增长
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void drain(List<? extends Callable<T>> tasks, Object[] values, AtomicInteger next,
+                                  AtomicInteger remaining, CompletableFuture<List<T>> result) {
+        int index;
+        while (!result.isDone() && (index = next.getAndIncrement()) < tasks.size()) {
+            try {
+                values[index] = tasks.get(index).call();
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+                return;
             }
-        });
+            if (remaining.decrementAndGet() == 0) {
+                result.complete((List<T>) Arrays.asList(values));
+            }
+        }
+    }
+
+    /**
+     * 为future增加超时控制
+     */
+    private static <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future, long timeout, TimeUnit unit) {
+        if (timeout <= 0 || future.isDone()) {
+            return future;
+        }
+        ScheduledFuture<?> timer = SCHEDULER.schedule(() -> future.completeExceptionally(
+                new TimeoutException("任务执行超时：" + timeout + " " + unit)), timeout, unit);
+        // 任务先完成时取消定时器，避免长超时的定时器持有future直到触发
+        future.whenComplete((value, e) -> timer.cancel(false));
+        return future;
+    }
+
+    /**
+     * 定时执行任务，调度线程到期后将任务提交到指定通道执行，通道已满时跳过本次
+     * @param lane 任务通道
+     * @param task 任务
+     * @param period 执行间隔
+     * @param unit 时间单位
+     * @return ScheduledFuture，用于取消
+     */
+    public static ScheduledFuture<?> scheduleAtFixedRate(TaskLane lane, Runnable task, long period, TimeUnit unit) {
+        BoundedExecutor executor = LANES.get(lane);
+        return SCHEDULER.scheduleAtFixedRate(() -> {
+            if (!executor.tryExecute(task)) {
+                log.warn("线程池[{}]已满，跳过本次定时任务", executor.getName());
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * 创建微批处理器，批次在默认线程池上处理
+     * @param name 名称
+     * @param batchSize 每批最大数量
+     * @param windowMillis 最长等待时间(毫秒)
+     * @param handler 批处理逻辑
+     * @param <T> 元素类型
+     * @return MicroBatcher
+     */
+    public static <T> MicroBatcher<T> newBatcher(String name, int batchSize, long windowMillis,
+                                                 Consumer<List<T>> handler) {
+        return newBatcher(TaskLane.DEFAULT, name, batchSize, windowMillis, handler);
+    }
+
+    /**
+     * 创建微批处理器，批次在指定通道上处理
+     * @param lane 任务通道
+     * @param name 名称
+     * @param batchSize 每批最大数量
+     * @param windowMillis 最长等待时间(毫秒)
+     * @param handler 批处理逻辑
+     * @param <T> 元素类型
+     * @return MicroBatcher
+     */
+    public static <T> MicroBatcher<T> newBatcher(TaskLane lane, String name, int batchSize, long windowMillis,
+                                                 Consumer<List<T>> handler) {
+        return new MicroBatcher<>(name, batchSize, windowMillis, handler, LANES.get(lane), SCHEDULER);
+    }
+
+    /**
+     * 提交阻塞IO任务(redis、数据库、http调用等)
+     * 支持虚拟线程时每个任务运行在独立的虚拟线程上
+     * @param runnable runnable
+     */
+    public static void executeIo(Runnable runnable) {
+        IO_EXECUTOR.execute(runnable);
+    }
+
+    /**
+     * 提交访问指定下游资源的阻塞IO任务，并发数受setResourceLimit限制
+     * @param resource 资源名称，如postgresql、redis
+     * @param runnable runnable
+     */
+    public static void executeIo(String resource, Runnable runnable) {
+        IO_EXECUTOR.execute(resource, runnable);
+    }
+
+    /**
+     * 设置下游资源的最大并发数，一般与该资源的连接池大小一致
+     * @param resource 资源名称
+     * @param permits 最大并发数
+     */
+    public static void setResourceLimit(String resource, int permits) {
+        IO_EXECUTOR.setResourceLimit(resource, permits);
+    }
+
+    /**
+     * 创建独立的有界线程池，用于需要隔离的业务
+     * @param name 线程池名称
+     * @param poolSize 最大线程数
+     * @param queueCapacity 队列长度
+     * @param rejectPolicy 队列满时的处理策略
+     * @param blockTimeoutMillis BLOCK策略下的最长等待时间(毫秒)
+     * @return BoundedExecutor
+     */
+    public static BoundedExecutor newExecutor(String name, int poolSize, int queueCapacity,
+                                              RejectPolicy rejectPolicy, long blockTimeoutMillis) {
+        return new BoundedExecutor(name, poolSize, queueCapacity, rejectPolicy, blockTimeoutMillis);
+    }
+
+    /**
+     * 默认线程池运行指标
+     * @return ExecutorMetrics.Snapshot
+     */
+    public static ExecutorMetrics.Snapshot getMetrics() {
+        return DEFAULT_EXECUTOR.getMetrics();
+    }
+
+    /**
+     * 指定通道的运行指标
+     * @param lane 任务通道
+     * @return ExecutorMetrics.Snapshot
+     */
+    public static ExecutorMetrics.Snapshot getMetrics(TaskLane lane) {
+        return LANES.get(lane).getMetrics();
+    }
+
+    /**
+     * 所有通道的运行指标
+     * @return List
+     */
+    public static List<ExecutorMetrics.Snapshot> getLaneMetrics() {
+        List<ExecutorMetrics.Snapshot> list = new ArrayList<>(LANES.size());
+        for (BoundedExecutor executor : LANES.values()) {
+            list.add(executor.getMetrics());
+        }
+        return list;
+    }
+
+    /**
+     * IO执行器运行指标
+     * @return ExecutorMetrics.Snapshot
+     */
+    public static ExecutorMetrics.Snapshot getIoMetrics() {
+        return IO_EXECUTOR.getMetrics();
     }
 }
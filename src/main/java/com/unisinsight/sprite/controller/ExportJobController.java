@@ -0,0 +1,54 @@
+package com.unisinsight.sprite.controller;
+
+import com.unisinsight.sprite.common.enums.BaseResultCode;
+import com.unisinsight.sprite.common.excel.ExportJob;
+import com.unisinsight.sprite.common.excel.ExportJobService;
+import com.unisinsight.sprite.common.exception.CommonException;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/sprite/export/jobs")
+@Api(tags = "导出任务")
+public class ExportJobController {
+
+    private final ExportJobService exportJobService;
+
+    public ExportJobController(ExportJobService exportJobService) {
+        this.exportJobService = exportJobService;
+    }
+
+    @GetMapping("/{id}")
+    @ApiOperation("查询导出进度")
+    public ExportJob getJob(@PathVariable("id") String id) {
+        return ownedJob(id);
+    }
+
+    @GetMapping("/{id}/file")
+    @ApiOperation("下载导出文件，支持Range断点续传")
+    public void download(@PathVariable("id") String id, HttpServletRequest request,
+                         HttpServletResponse response) throws IOException {
+        ownedJob(id);
+        exportJobService.download(id, request, response);
+    }
+
+    /**
+     * 只允许提交任务的调用者查询与下载
+     */
+    private ExportJob ownedJob(String id) {
+        ExportJob job = exportJobService.get(id);
+        String owner = exportJobService.currentOwner();
+        if (owner == null || !owner.equals(job.getOwner())) {
+            throw CommonException.of(BaseResultCode.PERMISSION_DENY_ERROR, "无权访问该导出任务");
+        }
+        return job;
+    }
+}
@@ -0,0 +1,136 @@
+package com.unisinsight.sprite.common.cache;
+
+import com.unisinsight.sprite.common.codec.RedisCodecs;
+import com.unisinsight.sprite.common.utils.RedisTestSupport;
+import lombok.Data;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.connection.RedisConnection;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.unisinsight.sprite.common.utils.RedisTestSupport.bytes;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * description TieredCache按声明或已知类型解码redis中的值
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class TieredCacheTest {
+
+    private RedisConnection connection;
+
+    private CacheSpec spec;
+
+    @Before
+    public void setUp() {
+        connection = RedisTestSupport.connection();
+        spec = new CacheSpec();
+        spec.setLocalTtl(0L);
+        spec.setJitter(0D);
+    }
+
+    @Test
+    public void unknownClassNameIsTreatedAsMiss() throws Exception {
+        when(connection.get(bytes("cache:users:1")))
+                .thenReturn(entry("com.example.Unknown", "", RedisCodecs.JSON.encode(item("stored"))));
+        AtomicInteger loads = new AtomicInteger();
+        TieredCache cache = new TieredCache("users", spec, RedisCodecs.JSON);
+
+        Item value = cache.get("1", () -> {
+            loads.incrementAndGet();
+            return item("loaded");
+        });
+
+        assertEquals("loaded", value.getName());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void declaredTypeIgnoresHeaderClassName() throws Exception {
+        spec.setValueType(Item.class);
+        when(connection.get(bytes("cache:items:1")))
+                .thenReturn(entry("java.lang.ProcessBuilder", "", RedisCodecs.JSON.encode(item("a"))));
+
+        Cache.ValueWrapper wrapper = new TieredCache("items", spec, RedisCodecs.JSON).get("1");
+
+        assertEquals(item("a"), wrapper.get());
+    }
+
+    @Test
+    public void declaredListTypeUsesElementType() throws Exception {
+        spec.setValueType(List.class);
+        spec.setElementType(Item.class);
+        when(connection.get(bytes("cache:lists:1")))
+                .thenReturn(entry("java.util.ArrayList", "", RedisCodecs.JSON.encode(Arrays.asList(item("a")))));
+
+        Cache.ValueWrapper wrapper = new TieredCache("lists", spec, RedisCodecs.JSON).get("1");
+
+        assertEquals(Arrays.asList(item("a")), wrapper.get());
+    }
+
+    @Test
+    public void writtenTypesAreReadBack() {
+        List<Item> items = Arrays.asList(item("a"), item("b"));
+        new TieredCache("written", spec, RedisCodecs.JSON).put("1", items);
+        ArgumentCaptor<byte[]> stored = ArgumentCaptor.forClass(byte[].class);
+        verify(connection).setEx(eq(bytes("cache:written:1")), anyLong(), stored.capture());
+        when(connection.get(bytes("cache:written:1"))).thenReturn(stored.getValue());
+
+        Cache.ValueWrapper wrapper = new TieredCache("written", spec, RedisCodecs.JSON).get("1");
+
+        assertEquals(items, wrapper.get());
+    }
+
+    @Test
+    public void expiredEntryIsMissWithoutLoader() throws Exception {
+        when(connection.get(bytes("cache:old:1"))).thenReturn(entry(System.currentTimeMillis() - 1000L,
+                Item.class.getName(), "", RedisCodecs.JSON.encode(item("a"))));
+        TieredCache.registerType(Item.class);
+
+        assertNull(new TieredCache("old", spec, RedisCodecs.JSON).get("1"));
+    }
+
+    private static byte[] entry(String className, String elementClassName, byte[] payload) throws IOException {
+        return entry(System.currentTimeMillis() + 60000L, className, elementClassName, payload);
+    }
+
+    private static byte[] entry(long expireAt, String className, String elementClassName, byte[] payload)
+            throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bos);
+        out.writeByte(1);
+        out.writeLong(expireAt);
+        out.writeUTF(className);
+        out.writeUTF(elementClassName);
+        out.write(payload);
+        out.flush();
+        return bos.toByteArray();
+    }
+
+    private static Item item(String name) {
+        Item item = new Item();
+        item.setName(name);
+        return item;
+    }
+
+    @Data
+    public static class Item {
+
+        private String name;
+    }
+}
@@ -0,0 +1,234 @@
+package com.unisinsight.sprite.common.codec;
+
+import com.alibaba.fastjson.JSONException;
+import lombok.Data;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * description 编解码器往返与多态解码
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class BinaryRedisCodecTest {
+
+    private final RedisCodec codec = new BinaryRedisCodec();
+
+    @Test
+    public void scalarsRoundTrip() {
+        assertEquals("中文", codec.decode(codec.encode("中文"), String.class));
+        assertEquals(Integer.valueOf(-7), codec.decode(codec.encode(-7), Integer.class));
+        assertEquals(Long.valueOf(Long.MIN_VALUE), codec.decode(codec.encode(Long.MIN_VALUE), Long.class));
+        assertEquals(1.5d, codec.decode(codec.encode(1.5d), Double.class), 0d);
+        assertEquals(new BigDecimal("12.340"), codec.decode(codec.encode(new BigDecimal("12.340")), BigDecimal.class));
+        assertEquals(Boolean.FALSE, codec.decode(codec.encode(false), Boolean.class));
+        assertArrayEquals(new byte[]{1, 2}, codec.decode(codec.encode(new byte[]{1, 2}), byte[].class));
+        assertNull(codec.decode(codec.encode(null), String.class));
+    }
+
+    @Test
+    public void beanRoundTrip() {
+        Order order = order();
+
+        Order decoded = codec.decode(codec.encode(order), Order.class);
+
+        assertEquals(order, decoded);
+        assertEquals(Status.PAID, decoded.getStatus());
+        assertEquals(Long.valueOf(2L), decoded.getCounts().get("b"));
+        assertEquals(Arrays.asList("x", "y"), decoded.getTags());
+    }
+
+    @Test
+    public void listRoundTrip() {
+        List<Order> orders = Arrays.asList(order(), null, order());
+
+        List<Order> decoded = codec.decodeList(codec.encode(orders), Order.class);
+
+        assertEquals(orders, decoded);
+    }
+
+    @Test
+    public void compressedCodecRoundTrip() {
+        RedisCodec compressed = new CompressedRedisCodec(codec, 64);
+        List<Order> orders = new ArrayList<>(Collections.nCopies(50, order()));
+
+        byte[] bytes = compressed.encode(orders);
+
+        assertTrue(bytes.length < codec.encode(orders).length);
+        assertEquals(orders, compressed.decodeList(bytes, Order.class));
+    }
+
+    @Test
+    public void unregisteredSubtypeDecodesAsDeclaredType() {
+        Holder holder = new Holder();
+        holder.setItem(new SpecialItem("a", "secret"));
+
+        byte[] bytes = codec.encode(holder);
+        Holder decoded = codec.decode(bytes, Holder.class);
+
+        assertEquals(Item.class, decoded.getItem().getClass());
+        assertEquals("a", decoded.getItem().getName());
+        assertTrue(!new String(bytes, StandardCharsets.UTF_8).contains(SpecialItem.class.getName()));
+    }
+
+    @Test
+    public void registeredSubtypeDecodesBySubtypeId() {
+        BinaryRedisCodec.registerSubtype(1001, RegisteredItem.class);
+        Holder holder = new Holder();
+        holder.setItem(new RegisteredItem("b", 3));
+
+        Holder decoded = codec.decode(codec.encode(holder), Holder.class);
+
+        assertEquals(RegisteredItem.class, decoded.getItem().getClass());
+        assertEquals(3, ((RegisteredItem) decoded.getItem()).getLevel());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void subtypeIdCannotBeReused() {
+        BinaryRedisCodec.registerSubtype(1002, ReusedItem.class);
+        BinaryRedisCodec.registerSubtype(1002, Item.class);
+    }
+
+    @Test
+    public void classNameInPayloadIsNotLoaded() {
+        // 旧格式：BEAN字段位置写入TYPED_BEAN标记与类名
+        byte[] forged = {21, 16, 'j', 'a', 'v', 'a', '.', 'l', 'a', 'n', 'g', '.', 'T', 'h', 'r', 'e', 'a', 'd'};
+        try {
+            codec.decode(forged, Object.class);
+            fail("不应按数据中的类名解码");
+        } catch (IllegalStateException e) {
+            assertEquals(1L, codec.getMetrics().getDecodeErrors());
+        }
+    }
+
+    @Test
+    public void beanUnderUntypedValueFallsBackToJson() {
+        Holder holder = new Holder();
+        Map<String, Object> extra = new HashMap<>();
+        extra.put("item", new Item("c"));
+        holder.setExtra(extra);
+
+        Holder decoded = codec.decode(codec.encode(holder), Holder.class);
+
+        assertEquals("c", ((Map<?, ?>) decoded.getExtra().get("item")).get("name"));
+    }
+
+    @Test(expected = JSONException.class)
+    public void jsonTextRejectsTypeKey() {
+        String text = "{\"@type\":\"" + SpecialItem.class.getName() + "\",\"name\":\"d\"}";
+        byte[] json = text.getBytes(StandardCharsets.UTF_8);
+        byte[] forged = new byte[json.length + 2];
+        forged[0] = 20;
+        forged[1] = (byte) json.length;
+        System.arraycopy(json, 0, forged, 2, json.length);
+
+        codec.decode(forged, Item.class);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void changedSchemaFailsToDecode() {
+        codec.decode(codec.encode(new Item("a")), RegisteredItem.class);
+    }
+
+    private static Order order() {
+        Order order = new Order();
+        order.setId(42L);
+        order.setName("订单");
+        order.setAmount(new BigDecimal("9.90"));
+        order.setCreated(new Date(TimeUnit.DAYS.toMillis(20000)));
+        order.setStatus(Status.PAID);
+        order.setTags(Arrays.asList("x", "y"));
+        Map<String, Long> counts = new HashMap<>();
+        counts.put("a", 1L);
+        counts.put("b", 2L);
+        order.setCounts(counts);
+        order.setItem(new Item("i"));
+        return order;
+    }
+
+    public enum Status {
+        NEW, PAID
+    }
+
+    @Data
+    public static class Order {
+        private Long id;
+        private String name;
+        private BigDecimal amount;
+        private Date created;
+        private Status status;
+        private List<String> tags;
+        private Map<String, Long> counts;
+        private Item item;
+    }
+
+    @Data
+    public static class Holder {
+        private Item item;
+        private Map<String, Object> extra;
+    }
+
+    @Data
+    public static class Item {
+        private String name;
+
+        public Item() {
+        }
+
+        public Item(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class SpecialItem extends Item {
+        private String secret;
+
+        public SpecialItem() {
+        }
+
+        public SpecialItem(String name, String secret) {
+            super(name);
+            this.secret = secret;
+        }
+
+        public String getSecret() {
+            return secret;
+        }
+    }
+
+    public static class ReusedItem extends Item {
+    }
+
+    public static class RegisteredItem extends Item {
+        private int level;
+
+        public RegisteredItem() {
+        }
+
+        public RegisteredItem(String name, int level) {
+            super(name);
+            this.level = level;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.unisinsight.sprite.common.codec;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.JSONException;
+import com.alibaba.fastjson.annotation.JSONField;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * description HashMapper与原hsetObj/hgetObj的JSON中转格式一致
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class HashMapperTest {
+
+    private final HashMapper<Device> mapper = HashMapper.of(Device.class);
+
+    @Test
+    public void hashMatchesLegacyJsonFormat() {
+        Device device = device();
+        device.setPassword("secret");
+
+        Map<String, String> hash = strings(mapper.toHash(device));
+
+        assertEquals(legacyHash(device), hash);
+        assertEquals("cam-1#7", hash.get("label"));
+        assertFalse(hash.containsKey("password"));
+    }
+
+    @Test
+    public void readsHashWrittenByLegacyFormat() {
+        Device device = device();
+
+        Device decoded = mapper.fromHash(bytes(legacyHash(device)));
+
+        assertEquals(device, decoded);
+    }
+
+    @Test
+    public void legacyReaderReadsMappedHash() {
+        Device device = device();
+        // 原读取方式会把JSON文本的列表再包一层，列表字段不参与比较
+        device.setTags(null);
+        Map<String, String> hash = strings(mapper.toHash(device));
+
+        Device decoded = JSON.parseObject(JSON.toJSONString(hash), Device.class);
+
+        assertEquals(device, decoded);
+    }
+
+    @Test
+    public void selectedFieldsAndNulls() {
+        Device device = device();
+        device.setAmount(null);
+        List<byte[]> nullFields = new ArrayList<>();
+
+        Map<String, String> hash = strings(mapper.toHash(device, Arrays.asList("deviceName", "amount"), nullFields));
+
+        assertEquals(Collections.singletonMap("deviceName", "cam-1"), hash);
+        assertEquals("amount", new String(nullFields.get(0), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void fromValuesSkipsReadOnlyProperties() {
+        List<String> names = Arrays.asList("deviceName", "label");
+        List<byte[]> values = Arrays.asList("cam-2".getBytes(StandardCharsets.UTF_8),
+                "ignored".getBytes(StandardCharsets.UTF_8));
+
+        Device decoded = mapper.fromValues(names, values);
+
+        assertEquals("cam-2", decoded.getName());
+        assertEquals(2, mapper.fieldKeys(names).length);
+    }
+
+    @Test
+    public void changedFieldsUsesPropertyNames() {
+        Device before = device();
+        Device after = device();
+        after.setName("cam-9");
+
+        assertEquals(Arrays.asList("deviceName", "label"), mapper.changedFields(before, after));
+        assertFalse(mapper.changedFields(null, after).contains("password"));
+    }
+
+    @Test(expected = JSONException.class)
+    public void jsonFieldRejectsTypeKey() {
+        // 默认配置下，@type为声明类型的子类时会按子类创建
+        String text = "{\"@type\":\"" + Device.class.getName() + "\",\"id\":1}";
+        Map<String, String> hash = Collections.singletonMap("owner", text);
+
+        HashMapper.of(Holder.class).fromHash(bytes(hash));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void hiddenPropertyIsUnknown() {
+        mapper.fieldKeys(Collections.singletonList("password"));
+    }
+
+    private static Device device() {
+        Device device = new Device();
+        device.setId(7L);
+        device.setName("cam-1");
+        device.setActive(true);
+        device.setAmount(new BigDecimal("1.50"));
+        device.setCreated(new Date(1700000000000L));
+        device.setStatus(Status.ONLINE);
+        device.setTags(Arrays.asList("a", "b"));
+        return device;
+    }
+
+    /**
+     * 原hsetObj的写法
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, String> legacyHash(Object obj) {
+        Map<String, String> hash = new HashMap<>();
+        Map<Object, Object> map = JSON.parseObject(JSON.toJSONString(obj), HashMap.class);
+        for (Map.Entry<Object, Object> entry : map.entrySet()) {
+            hash.put(entry.getKey().toString(), entry.getValue().toString());
+        }
+        return hash;
+    }
+
+    private static Map<String, String> strings(Map<byte[], byte[]> hash) {
+        Map<String, String> map = new HashMap<>();
+        hash.forEach((k, v) -> map.put(new String(k, StandardCharsets.UTF_8), new String(v, StandardCharsets.UTF_8)));
+        return map;
+    }
+
+    private static Map<byte[], byte[]> bytes(Map<String, String> hash) {
+        Map<byte[], byte[]> map = new HashMap<>();
+        hash.forEach((k, v) -> map.put(k.getBytes(StandardCharsets.UTF_8), v.getBytes(StandardCharsets.UTF_8)));
+        return map;
+    }
+
+    public enum Status {
+        ONLINE, OFFLINE
+    }
+
+    @Data
+    public static class Holder {
+        private BaseEntity owner;
+    }
+
+    @Data
+    public static class BaseEntity {
+        private Long id;
+    }
+
+    @Data
+    @EqualsAndHashCode(callSuper = true)
+    public static class Device extends BaseEntity {
+        @JSONField(name = "deviceName")
+        private String name;
+        @JSONField(serialize = false, deserialize = false)
+        private String password;
+        private boolean active;
+        private BigDecimal amount;
+        private Date created;
+        private Status status;
+        private List<String> tags;
+
+        /**
+         * 只读属性，原JSON方式也会写入hash
+         */
+        public String getLabel() {
+            return name + "#" + getId();
+        }
+    }
+}
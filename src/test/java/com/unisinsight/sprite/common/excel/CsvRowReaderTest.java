@@ -0,0 +1,127 @@
+package com.unisinsight.sprite.common.excel;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * description CsvRowReader按RFC4180解析
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class CsvRowReaderTest {
+
+    @Test
+    public void quotedFieldsKeepSeparatorsAndEscapedQuotes() throws Exception {
+        List<String[]> rows = read("a,\"b,c\",\"say \"\"hi\"\"\"\n\"多\n行\",x,\"\"\"\"\n");
+
+        assertEquals(2, rows.size());
+        assertArrayEquals(new String[]{"a", "b,c", "say \"hi\""}, rows.get(0));
+        assertArrayEquals(new String[]{"多\n行", "x", "\""}, rows.get(1));
+    }
+
+    @Test
+    public void crlfAndLfEndRows() throws Exception {
+        List<String[]> rows = read("a,b\r\nc,d\ne,f\r\n\"g\r\nh\",i");
+
+        assertEquals(4, rows.size());
+        assertArrayEquals(new String[]{"a", "b"}, rows.get(0));
+        assertArrayEquals(new String[]{"c", "d"}, rows.get(1));
+        assertArrayEquals(new String[]{"e", "f"}, rows.get(2));
+        // 引号内的\r\n是内容，最后一行没有换行
+        assertArrayEquals(new String[]{"g\r\nh", "i"}, rows.get(3));
+    }
+
+    @Test
+    public void bomIsSkipped() throws Exception {
+        List<String[]> rows = read("﻿名称,数量\n苹果,3\n");
+
+        assertArrayEquals(new String[]{"名称", "数量"}, rows.get(0));
+        assertArrayEquals(new String[]{"苹果", "3"}, rows.get(1));
+    }
+
+    @Test
+    public void emptyFieldsAreNullQuotedEmptyIsEmptyString() throws Exception {
+        List<String[]> rows = read(",a,,\"\",\n\n\r\nb\n");
+
+        assertEquals(2, rows.size());
+        assertArrayEquals(new String[]{null, "a", null, "", null}, rows.get(0));
+        assertArrayEquals(new String[]{"b"}, rows.get(1));
+    }
+
+    @Test
+    public void rowNumCountsSkippedBlankLines() throws Exception {
+        List<Integer> rowNums = new ArrayList<>();
+
+        CsvRowReader.read(channel("a\n\nb\n"), (rowNum, cells) -> rowNums.add(rowNum));
+
+        assertEquals(2, rowNums.size());
+        assertEquals(Integer.valueOf(0), rowNums.get(0));
+        assertEquals(Integer.valueOf(2), rowNums.get(1));
+    }
+
+    @Test
+    public void inputArrivingByteByByteIsParsedTheSame() throws Exception {
+        String csv = "﻿名称,\"备\"\"注\",数量\r\n苹果,\"a,\r\nb\",3\r\n";
+        List<String[]> rows = new ArrayList<>();
+
+        CsvRowReader.read(new TrickleChannel(csv.getBytes(StandardCharsets.UTF_8)),
+                (rowNum, cells) -> rows.add(cells));
+
+        assertEquals(2, rows.size());
+        assertArrayEquals(new String[]{"名称", "备\"注", "数量"}, rows.get(0));
+        assertArrayEquals(new String[]{"苹果", "a,\r\nb", "3"}, rows.get(1));
+    }
+
+    private static List<String[]> read(String csv) throws Exception {
+        List<String[]> rows = new ArrayList<>();
+        CsvRowReader.read(channel(csv), (rowNum, cells) -> rows.add(cells));
+        return rows;
+    }
+
+    private static ReadableByteChannel channel(String csv) {
+        return Channels.newChannel(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 每次只读入一个字节，覆盖BOM、引号与换行跨越读取边界的情况
+     */
+    private static final class TrickleChannel implements ReadableByteChannel {
+
+        private final byte[] bytes;
+
+        private int position;
+
+        private TrickleChannel(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (position == bytes.length) {
+                return -1;
+            }
+            dst.put(bytes[position++]);
+            return 1;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
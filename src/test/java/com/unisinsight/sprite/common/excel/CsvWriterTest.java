@@ -0,0 +1,107 @@
+package com.unisinsight.sprite.common.excel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * description CsvWriter的转义与读回
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class CsvWriterTest {
+
+    private static final String[] HEADERS = {"名称", "备注", "数量", "时间"};
+
+    @Test
+    public void specialCharactersAreQuoted() throws Exception {
+        String csv = new String(write(null, false, new Item("a,b", "say \"hi\"", 1, null),
+                new Item("x", "l1\r\nl2", null, null)), StandardCharsets.UTF_8);
+
+        assertEquals("\"a,b\",\"say \"\"hi\"\"\",1,\n" + "x,\"l1\r\nl2\",,\n", csv);
+    }
+
+    @Test
+    public void emptyStringIsQuotedNullIsEmpty() throws Exception {
+        String csv = new String(write(null, false, new Item("", null, null, null)), StandardCharsets.UTF_8);
+
+        assertEquals("\"\",,,\n", csv);
+    }
+
+    @Test
+    public void bomIsWrittenFirst() throws Exception {
+        byte[] bytes = write(HEADERS, true);
+
+        assertArrayEquals(new byte[]{(byte) 0xEF, (byte) 0xBB, (byte) 0xBF}, Arrays.copyOf(bytes, 3));
+        assertEquals("名称,备注,数量,时间\n", new String(bytes, 3, bytes.length - 3, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void writtenRowsReadBackUnchanged() throws Exception {
+        Date date = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").parse("2026-10-19 08:30:00");
+        List<Item> items = new ArrayList<>();
+        items.add(new Item("苹果", "红,\"富士\"", 3, date));
+        items.add(new Item("", "第一行\r\n第二行\n第三行", null, null));
+        items.add(new Item(null, "\"", 0, date));
+        // 超过缓冲区大小的字段
+        StringBuilder large = new StringBuilder();
+        while (large.length() < (1 << 21)) {
+            large.append("长文本,");
+        }
+        items.add(new Item("large", large.toString(), 1, null));
+
+        byte[] bytes = write(HEADERS, true, items.toArray());
+        List<String[]> rows = new ArrayList<>();
+        CsvRowReader.read(Channels.newChannel(new ByteArrayInputStream(bytes)), (rowNum, cells) -> rows.add(cells));
+
+        assertEquals(items.size() + 1, rows.size());
+        assertArrayEquals(HEADERS, rows.get(0));
+        assertArrayEquals(new String[]{"苹果", "红,\"富士\"", "3", "2026-10-19 08:30:00"}, rows.get(1));
+        assertArrayEquals(new String[]{"", "第一行\r\n第二行\n第三行", null, null}, rows.get(2));
+        assertArrayEquals(new String[]{null, "\"", "0", "2026-10-19 08:30:00"}, rows.get(3));
+        assertEquals(large.toString(), rows.get(4)[1]);
+
+        Item bound = RowBinder.of(Item.class).bind(2, rows.get(2));
+        assertEquals("", bound.getName());
+        assertEquals(items.get(1).getRemark(), bound.getRemark());
+    }
+
+    private static byte[] write(String[] headers, boolean bom, Object... rows) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvWriter writer = new CsvWriter(Channels.newChannel(out), headers, "yyyy-MM-dd HH:mm:ss", bom)) {
+            writer.write(Arrays.asList(rows).iterator());
+            assertEquals(rows.length, writer.getTotal());
+        }
+        return out.toByteArray();
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Item {
+
+        private String name;
+
+        private String remark;
+
+        private Integer count;
+
+        private Date time;
+
+        public Item() {
+        }
+    }
+}
@@ -0,0 +1,381 @@
+package com.unisinsight.sprite.common.excel;
+
+import com.unisinsight.sprite.common.utils.CsvUtil;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.BufferedOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+
+/**
+ * description Excel导入导出基准测试
+ * 生成指定行数的数据，按每种方式导出到临时文件，再从该文件导入，统计每秒行数与每行分配的字节数；
+ * 每种组合先预热再计时，取多次中最快的一次，分配字节数为当前线程在该次中分配的堆内存(HotSpot的ThreadMXBean)；
+ * 导出与导入都在当前线程执行，数据在计时前生成，不计入结果；
+ * 用于对比修改前后导入导出的性能，需要在相同的机器与堆大小下运行，DOM方式导出100万行需要4G以上的堆；
+ * 位于测试代码中，不随应用打包，也不在单元测试中执行，需要时从测试classpath手动运行，结果输出到日志
+ *
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.unisinsight.sprite.common.excel.ExcelBenchmark -Dexec.args="10000,100000,1000000 3"
+ * </pre>
+ * 运行前通过MAVEN_OPTS设置堆大小，如MAVEN_OPTS=-Xmx4g
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+@Slf4j
+public final class ExcelBenchmark {
+
+    public static final int[] DEFAULT_SIZES = {10000, 100000, 1000000};
+
+    private static final String[] HEADERS = {"编号", "姓名", "年龄", "分数", "创建时间"};
+
+    private static final String DATE_FORMAT = ExportRowPlan.DEFAULT_DATE_FORMAT;
+
+    /**
+     * xls单个sheet最多65536行
+     */
+    private static final int XLS_MAX_ROWS = 65535;
+
+    private static final int WARMUP = 1;
+
+    private ExcelBenchmark() {
+    }
+
+    /**
+     * 导入导出方式
+     */
+    public enum Mode {
+        /**
+         * HSSFWorkbook导出，ExcelRowReader导入
+         */
+        XLS(".xls"),
+        /**
+         * XSSFWorkbook导出与导入，整个工作簿在内存中
+         */
+        XLSX_DOM(".xlsx"),
+        /**
+         * XlsxStreamWriter导出，ExcelRowReader(SAX)导入
+         */
+        XLSX_STREAM(".xlsx"),
+        /**
+         * CsvWriter导出，CsvRowReader导入
+         */
+        CSV(".csv");
+
+        private final String suffix;
+
+        Mode(String suffix) {
+            this.suffix = suffix;
+        }
+    }
+
+    /**
+     * 一种方式一次导出或导入的结果
+     */
+    @Data
+    public static class Result {
+
+        private Mode mode;
+
+        /**
+         * export或import
+         */
+        private String operation;
+
+        private int rows;
+
+        private long elapsedMillis;
+
+        private long rowsPerSecond;
+
+        /**
+         * 每行分配的字节数，JVM不支持统计时为-1
+         */
+        private long bytesPerRow;
+
+        private long fileSize;
+
+        /**
+         * 失败或跳过的原因
+         */
+        private String error;
+
+        @Override
+        public String toString() {
+            if (error != null) {
+                return String.format("%-12s %-7s %9d rows  %s", mode, operation, rows, error);
+            }
+            return String.format("%-12s %-7s %9d rows  %8d ms  %9d rows/s  %7d B/row  %11d bytes", mode,
+                    operation, rows, elapsedMillis, rowsPerSecond, bytesPerRow, fileSize);
+        }
+    }
+
+    /**
+     * 基准测试使用的数据
+     */
+    @Data
+    public static class BenchmarkRow {
+
+        private Long id;
+
+        private String name;
+
+        private Integer age;
+
+        private Double score;
+
+        private Date createTime;
+    }
+
+    /**
+     * 命令行运行，参数依次为逗号分隔的行数(默认10000,100000,1000000)、计时次数(默认3)
+     *
+     * @param args 参数
+     * @throws Exception 临时文件异常
+     */
+    public static void main(String[] args) throws Exception {
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 0) {
+            String[] parts = args[0].split(",");
+            sizes = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                sizes[i] = Integer.parseInt(parts[i].trim());
+            }
+        }
+        int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        List<Result> results = run(sizes, iterations);
+        log.info("基准测试完成，共{}项结果：", results.size());
+        for (Result result : results) {
+            log.info("{}", result);
+        }
+    }
+
+    /**
+     * 按每种行数、每种方式执行导出与导入
+     *
+     * @param sizes      行数
+     * @param iterations 计时次数
+     * @return 结果，顺序为行数、方式、导出、导入
+     * @throws Exception 临时文件异常
+     */
+    public static List<Result> run(int[] sizes, int iterations) throws Exception {
+        List<Result> results = new ArrayList<>();
+        Path dir = Files.createTempDirectory("excel-benchmark-");
+        try {
+            for (int rows : sizes) {
+                List<BenchmarkRow> data = generate(rows);
+                for (Mode mode : Mode.values()) {
+                    Path file = dir.resolve(mode.name() + "-" + rows + mode.suffix);
+                    if (mode == Mode.XLS && rows > XLS_MAX_ROWS) {
+                        results.add(skipped(mode, "export", rows));
+                        results.add(skipped(mode, "import", rows));
+                        continue;
+                    }
+                    Result export = measure(mode, "export", rows, iterations, () -> {
+                        export(mode, data, file);
+                        return Files.size(file);
+                    });
+                    results.add(export);
+                    log.info("{}", export);
+                    if (export.getError() != null) {
+                        continue;
+                    }
+                    Result imported = measure(mode, "import", rows, iterations, () -> {
+                        int read = importFile(mode, file);
+                        if (read != rows) {
+                            throw new IllegalStateException("导入" + read + "行，应为" + rows + "行");
+                        }
+                        return Files.size(file);
+                    });
+                    results.add(imported);
+                    log.info("{}", imported);
+                    Files.deleteIfExists(file);
+                }
+            }
+        } finally {
+            try (Stream<Path> files = Files.list(dir)) {
+                files.forEach(file -> file.toFile().delete());
+            }
+            Files.deleteIfExists(dir);
+        }
+        return results;
+    }
+
+    private static Result measure(Mode mode, String operation, int rows, int iterations, Callable<Long> task) {
+        Result result = new Result();
+        result.setMode(mode);
+        result.setOperation(operation);
+        result.setRows(rows);
+        long bestNanos = Long.MAX_VALUE;
+        long bestBytes = -1;
+        try {
+            for (int i = 0; i < WARMUP + Math.max(1, iterations); i++) {
+                System.gc();
+                long bytes = allocatedBytes();
+                long start = System.nanoTime();
+                long fileSize = task.call();
+                long nanos = System.nanoTime() - start;
+                long allocated = bytes < 0 ? -1 : allocatedBytes() - bytes;
+                if (i < WARMUP) {
+                    continue;
+                }
+                if (nanos < bestNanos) {
+                    bestNanos = nanos;
+                    bestBytes = allocated;
+                }
+                result.setFileSize(fileSize);
+            }
+        } catch (Exception | OutOfMemoryError e) {
+            result.setError("失败：" + e);
+            return result;
+        }
+        result.setElapsedMillis(bestNanos / 1000000);
+        result.setRowsPerSecond(bestNanos == 0 ? 0 : rows * 1000000000L / bestNanos);
+        result.setBytesPerRow(bestBytes < 0 ? -1 : bestBytes / rows);
+        return result;
+    }
+
+    private static Result skipped(Mode mode, String operation, int rows) {
+        Result result = new Result();
+        result.setMode(mode);
+        result.setOperation(operation);
+        result.setRows(rows);
+        result.setError("跳过：xls单个sheet最多" + XLS_MAX_ROWS + "行数据");
+        return result;
+    }
+
+    private static void export(Mode mode, List<BenchmarkRow> data, Path file) throws Exception {
+        switch (mode) {
+            case XLS:
+                try (Workbook wb = new HSSFWorkbook()) {
+                    writeWorkbook(wb, data, file);
+                }
+                break;
+            case XLSX_DOM:
+                try (Workbook wb = new XSSFWorkbook()) {
+                    writeWorkbook(wb, data, file);
+                }
+                break;
+            case XLSX_STREAM:
+                try (XlsxStreamWriter writer = new XlsxStreamWriter(HEADERS, DATE_FORMAT);
+                     OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+                    writer.write(data.iterator());
+                    writer.finish(out);
+                }
+                break;
+            default:
+                CsvUtil.writeCsv(file, HEADERS, data.iterator(), DATE_FORMAT);
+        }
+    }
+
+    /**
+     * 与ExcelUtil.export03Excel相同的写法，写入内存中的工作簿后输出
+     */
+    private static void writeWorkbook(Workbook wb, List<BenchmarkRow> data, Path file) throws Exception {
+        CellStyle cellStyle = wb.createCellStyle();
+        cellStyle.setWrapText(true);
+        Sheet sheet = wb.createSheet("Sheet1");
+        Row header = sheet.createRow(0);
+        for (int i = 0; i < HEADERS.length; i++) {
+            header.createCell(i).setCellValue(HEADERS[i]);
+        }
+        ExportRowPlan plan = ExportRowPlan.of(BenchmarkRow.class);
+        DateTimeFormatter formatter = ExportRowPlan.formatter(DATE_FORMAT);
+        for (int index = 0; index < data.size(); index++) {
+            plan.write(data.get(index), sheet.createRow(index + 1), cellStyle, formatter);
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+            wb.write(out);
+        }
+    }
+
+    private static int importFile(Mode mode, Path file) throws Exception {
+        int[] count = new int[1];
+        BatchRowHandler<BenchmarkRow> handler = new BatchRowHandler<>(BenchmarkRow.class, 1, 1000,
+                batch -> count[0] += batch.size());
+        switch (mode) {
+            case XLSX_DOM:
+                readWorkbook(file, handler);
+                break;
+            case CSV:
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    CsvRowReader.read(channel, handler);
+                }
+                break;
+            default:
+                try (InputStream in = Files.newInputStream(file)) {
+                    ExcelRowReader.read(in, handler);
+                }
+        }
+        handler.finish();
+        return count[0];
+    }
+
+    /**
+     * 整个工作簿加载到内存后逐行读取
+     */
+    private static void readWorkbook(Path file, ExcelRowReader.RowHandler handler) throws Exception {
+        DataFormatter formatter = new DataFormatter();
+        try (InputStream in = Files.newInputStream(file);
+             Workbook wb = new XSSFWorkbook(in)) {
+            for (Row row : wb.getSheetAt(0)) {
+                String[] cells = new String[row.getLastCellNum()];
+                for (Cell cell : row) {
+                    cells[cell.getColumnIndex()] = formatter.formatCellValue(cell);
+                }
+                handler.onRow(row.getRowNum(), cells);
+            }
+        }
+    }
+
+    private static List<BenchmarkRow> generate(int rows) {
+        List<BenchmarkRow> data = new ArrayList<>(rows);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < rows; i++) {
+            BenchmarkRow row = new BenchmarkRow();
+            row.setId(1000000000L + i);
+            row.setName("姓名" + i);
+            row.setAge(18 + i % 60);
+            row.setScore(i % 1000 / 10.0);
+            row.setCreateTime(new Date(now - i * 60000L));
+            data.add(row);
+        }
+        return data;
+    }
+
+    /**
+     * 当前线程已分配的堆内存，不支持时返回-1
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) bean;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
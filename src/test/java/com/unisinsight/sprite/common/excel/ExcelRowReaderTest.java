@@ -0,0 +1,115 @@
+package com.unisinsight.sprite.common.excel;
+
+import com.unisinsight.sprite.common.exception.CommonException;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * description xls与xlsx按同样的规则逐行读取为字符串
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class ExcelRowReaderTest {
+
+    @Test
+    public void xlsxCellsAreReadAsRawText() throws Exception {
+        assertRows(read(sample(new XSSFWorkbook())));
+    }
+
+    @Test
+    public void xlsCellsAreReadAsRawText() throws Exception {
+        assertRows(read(sample(new HSSFWorkbook())));
+    }
+
+    @Test(expected = CommonException.class)
+    public void unknownFormatIsRejected() throws Exception {
+        read("a,b,c\n".getBytes());
+    }
+
+    @Test
+    public void emptyWorkbookHasNoRows() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (Workbook workbook = new XSSFWorkbook()) {
+            workbook.createSheet("empty");
+            workbook.write(out);
+        }
+
+        assertEquals(0, read(out.toByteArray()).size());
+    }
+
+    private static void assertRows(List<ReadRow> rows) {
+        assertEquals(3, rows.size());
+        assertEquals(0, rows.get(0).rowNum);
+        assertArrayEquals(new String[]{"name", "count", "price", "date"}, rows.get(0).cells);
+        assertEquals(1, rows.get(1).rowNum);
+        assertArrayEquals(new String[]{"apple", "12345678", "1.5", "2026-10-19 08:30:00"}, rows.get(1).cells);
+        // 空行跳过，行号保持原值；中间空单元格为null
+        assertEquals(3, rows.get(2).rowNum);
+        assertArrayEquals(new String[]{"pear", null, "0.125"}, rows.get(2).cells);
+    }
+
+    private static byte[] sample(Workbook workbook) throws Exception {
+        try (Workbook wb = workbook) {
+            Sheet sheet = wb.createSheet("data");
+            CellStyle thousands = wb.createCellStyle();
+            thousands.setDataFormat(wb.createDataFormat().getFormat("#,##0"));
+            CellStyle date = wb.createCellStyle();
+            date.setDataFormat(wb.createDataFormat().getFormat("yyyy/m/d h:mm"));
+            Row header = sheet.createRow(0);
+            String[] names = {"name", "count", "price", "date"};
+            for (int i = 0; i < names.length; i++) {
+                header.createCell(i).setCellValue(names[i]);
+            }
+            Row first = sheet.createRow(1);
+            first.createCell(0).setCellValue("apple");
+            first.createCell(1).setCellValue(12345678D);
+            first.getCell(1).setCellStyle(thousands);
+            first.createCell(2).setCellValue(1.5D);
+            first.createCell(3).setCellValue(new SimpleDateFormat("yyyy-MM-dd HH:mm").parse("2026-10-19 08:30"));
+            first.getCell(3).setCellStyle(date);
+            sheet.createRow(2).createCell(0).setCellValue(" ");
+            Row third = sheet.createRow(3);
+            third.createCell(0).setCellValue("pear");
+            third.createCell(2).setCellValue(0.125D);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            wb.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static List<ReadRow> read(byte[] bytes) throws IOException {
+        List<ReadRow> rows = new ArrayList<>();
+        ExcelRowReader.read(new ByteArrayInputStream(bytes),
+                (rowNum, cells) -> rows.add(new ReadRow(rowNum, Arrays.copyOf(cells, cells.length))));
+        return rows;
+    }
+
+    private static final class ReadRow {
+
+        private final int rowNum;
+
+        private final String[] cells;
+
+        private ReadRow(int rowNum, String[] cells) {
+            this.rowNum = rowNum;
+            this.cells = cells;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.unisinsight.sprite.common.excel;
+
+import com.unisinsight.sprite.common.exception.CommonException;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * description 后台导出的去重、清理与Range下载
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class ExportJobServiceTest {
+
+    private static final String[] HEADERS = {"名称", "数量"};
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private ExportJobService service;
+
+    private String owner = "tenant1:user1";
+
+    @Before
+    public void setUp() {
+        service = new ExportJobService();
+        service.setOwnerResolver(() -> owner);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+    }
+
+    @Test
+    public void rangeHeaderIsParsed() {
+        assertArrayEquals(new long[]{0, 99}, ExportJobService.parseRange("bytes=0-99", 1000));
+        assertArrayEquals(new long[]{500, 999}, ExportJobService.parseRange("bytes=500-", 1000));
+        assertArrayEquals(new long[]{990, 999}, ExportJobService.parseRange("bytes=990-5000", 1000));
+        assertArrayEquals(new long[]{900, 999}, ExportJobService.parseRange("bytes=-100", 1000));
+        assertArrayEquals(new long[]{0, 999}, ExportJobService.parseRange("bytes=-5000", 1000));
+    }
+
+    @Test
+    public void unsatisfiableRangeIsEmpty() {
+        assertEquals(0, ExportJobService.parseRange("bytes=1000-", 1000).length);
+        assertEquals(0, ExportJobService.parseRange("bytes=-0", 1000).length);
+    }
+
+    @Test
+    public void unsupportedRangeIsIgnored() {
+        assertNull(ExportJobService.parseRange("bytes=0-1,5-6", 1000));
+        assertNull(ExportJobService.parseRange("items=0-1", 1000));
+        assertNull(ExportJobService.parseRange("bytes=5-3", 1000));
+        assertNull(ExportJobService.parseRange("bytes=a-b", 1000));
+        assertNull(ExportJobService.parseRange("bytes=100", 1000));
+    }
+
+    @Test
+    public void runningExportIsSharedOnlyWithSameOwner() throws Exception {
+        ExportJob first = service.submit("人员", HEADERS, null, "q", this::blockingPage);
+        ExportJob again = service.submit("人员", HEADERS, null, "q", this::blockingPage);
+        owner = "tenant2:user1";
+        ExportJob other = service.submit("人员", HEADERS, null, "q", this::blockingPage);
+
+        assertSame(first, again);
+        assertNotSame(first, other);
+        assertEquals("tenant1:user1", first.getOwner());
+        assertEquals("tenant2:user1", other.getOwner());
+    }
+
+    @Test
+    public void expiredJobsAndFilesArePurged() throws Exception {
+        ExportJob job = finished(service.submit("物品", HEADERS, null, "q", pageNum -> Collections.emptyList()));
+        Path file = job.getFile();
+        assertTrue(Files.exists(file));
+
+        service.purgeExpired();
+        assertSame(job, service.get(job.getId()));
+
+        job.setFinishTime(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2));
+        service.purgeExpired();
+
+        assertFalse(Files.exists(file));
+        try {
+            service.get(job.getId());
+            fail("过期任务应被清理");
+        } catch (CommonException e) {
+            // 任务已删除
+        }
+    }
+
+    @Test
+    public void rangeRequestReturnsPartialContent() throws Exception {
+        ExportJob job = finished(service.submit("分段", HEADERS, null, "q",
+                pageNum -> pageNum == 1 ? Collections.singletonList(new Item("a", 1)) : null));
+        byte[] whole = Files.readAllBytes(job.getFile());
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=10-19");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        service.download(job.getId(), request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 10-19/" + whole.length, response.getHeader("Content-Range"));
+        byte[] expected = new byte[10];
+        System.arraycopy(whole, 10, expected, 0, 10);
+        assertArrayEquals(expected, response.getContentAsByteArray());
+    }
+
+    @Test
+    public void staleIfRangeReturnsWholeFile() throws Exception {
+        ExportJob job = finished(service.submit("整体", HEADERS, null, "q", pageNum -> null));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=10-19");
+        request.addHeader("If-Range", "\"other\"");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        service.download(job.getId(), request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals(job.getFileSize(), response.getContentAsByteArray().length);
+    }
+
+    private List<Item> blockingPage(int pageNum) {
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+
+    private static ExportJob finished(ExportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000L;
+        while (job.getState() == ExportJob.State.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20L);
+        }
+        assertEquals(ExportJob.State.SUCCESS, job.getState());
+        return job;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Item {
+
+        private String name;
+
+        private Integer count;
+    }
+}
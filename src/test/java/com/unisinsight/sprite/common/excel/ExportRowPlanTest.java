@@ -0,0 +1,164 @@
+package com.unisinsight.sprite.common.excel;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * description ExportRowPlan按值类型决定单元格内容
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class ExportRowPlanTest {
+
+    private final DateTimeFormatter formatter = ExportRowPlan.formatter("yyyy-MM-dd HH:mm");
+
+    @Test
+    public void exactNumbersStayNumericOthersBecomeText() throws Exception {
+        Row row = new Row();
+        row.setId(1L << 53);
+        row.setSnowflake((1L << 53) + 1);
+        row.setAmount(new BigDecimal("12345.678"));
+        row.setHuge(new BigDecimal("1234567890.1234567"));
+        row.setBig(BigInteger.TEN.pow(20));
+        row.setDate(new SimpleDateFormat("yyyy-MM-dd HH:mm").parse("2026-10-19 08:30"));
+        row.setDay(LocalDate.of(2026, 10, 19));
+        row.setTime(LocalDateTime.of(2026, 10, 19, 9, 15));
+        row.setName("");
+
+        Object[] values = ExportRowPlan.of(Row.class).cellValues(row, formatter);
+
+        assertArrayEquals(new Object[]{1L << 53, "9007199254740993", new BigDecimal("12345.678"),
+                "1234567890.1234567", "100000000000000000000", "2026-10-19 08:30", "2026-10-19 00:00",
+                "2026-10-19 09:15", null, null}, values);
+    }
+
+    @Test
+    public void textUsesPlainNumbersAndKeepsEmptyString() {
+        Row row = new Row();
+        row.setAmount(new BigDecimal("1E+3"));
+        row.setName("");
+        ExportRowPlan plan = ExportRowPlan.of(Row.class);
+
+        assertEquals("1000", plan.text(row, 2, formatter));
+        assertEquals("", plan.text(row, 8, formatter));
+        assertNull(plan.text(row, 0, formatter));
+        // 没有getter的字段占一列，值为空
+        assertNull(plan.text(row, 9, formatter));
+        assertEquals(10, plan.getColumnCount());
+    }
+
+    @Test
+    public void plansAndFormattersAreCached() {
+        assertSame(ExportRowPlan.of(Row.class), ExportRowPlan.of(Row.class));
+        assertSame(ExportRowPlan.formatter(null), ExportRowPlan.formatter(ExportRowPlan.DEFAULT_DATE_FORMAT));
+        assertSame(formatter, ExportRowPlan.formatter("yyyy-MM-dd HH:mm"));
+    }
+
+    public static class Row {
+
+        private Long id;
+
+        private Long snowflake;
+
+        private BigDecimal amount;
+
+        private BigDecimal huge;
+
+        private BigInteger big;
+
+        private Date date;
+
+        private LocalDate day;
+
+        private LocalDateTime time;
+
+        private String name;
+
+        private String hidden = "x";
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public Long getSnowflake() {
+            return snowflake;
+        }
+
+        public void setSnowflake(Long snowflake) {
+            this.snowflake = snowflake;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public BigDecimal getHuge() {
+            return huge;
+        }
+
+        public void setHuge(BigDecimal huge) {
+            this.huge = huge;
+        }
+
+        public BigInteger getBig() {
+            return big;
+        }
+
+        public void setBig(BigInteger big) {
+            this.big = big;
+        }
+
+        public Date getDate() {
+            return date;
+        }
+
+        public void setDate(Date date) {
+            this.date = date;
+        }
+
+        public LocalDate getDay() {
+            return day;
+        }
+
+        public void setDay(LocalDate day) {
+            this.day = day;
+        }
+
+        public LocalDateTime getTime() {
+            return time;
+        }
+
+        public void setTime(LocalDateTime time) {
+            this.time = time;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
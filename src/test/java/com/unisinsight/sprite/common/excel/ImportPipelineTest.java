@@ -0,0 +1,162 @@
+package com.unisinsight.sprite.common.excel;
+
+import lombok.Data;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * description ImportPipeline并行导入与并发导入的线程占用
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class ImportPipelineTest {
+
+    private static final int ROWS = 600;
+
+    @Test
+    public void importsAllRowsAndReportsInvalidOnes() throws Exception {
+        List<Person> written = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> batches = new ArrayList<>();
+
+        ImportResult result = new ImportPipeline<>(Person.class, 100, batch -> {
+            batches.add(batch.size());
+            written.addAll(batch);
+        })
+                .workers(3)
+                .validator(p -> p.getAge() % 100 == 0 ? "年龄无效" : null)
+                .run(new ByteArrayInputStream(workbook(ROWS)));
+
+        assertEquals(ROWS, result.getTotal());
+        assertEquals(ROWS - 6, result.getSucceeded());
+        assertEquals(6, result.getFailed());
+        assertEquals(6, result.getErrors().size());
+        assertEquals(ROWS - 6, written.size());
+        for (int i = 0; i < batches.size() - 1; i++) {
+            assertEquals(Integer.valueOf(100), batches.get(i));
+        }
+        assertTrue(result.isFinished());
+    }
+
+    @Test
+    public void concurrentRunsBeyondPoolSizeAllComplete() throws Exception {
+        // 超出读取与转换之间队列的容量，读取线程需要等待转换线程
+        int rows = 5000;
+        byte[] file = workbook(rows);
+        int runs = ImportPipeline.POOL_SIZE;
+        ExecutorService callers = Executors.newFixedThreadPool(runs);
+        AtomicInteger total = new AtomicInteger();
+        // 读取线程先互相等待，尽量让所有导入的读取线程同时占用线程池
+        CountDownLatch reading = new CountDownLatch(runs);
+        try {
+            List<Future<ImportResult>> futures = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                // 每次导入需要2个线程，同时导入所需线程为线程池的2倍
+                futures.add(callers.submit(() -> new ImportPipeline<>(Person.class, 500, batch ->
+                        total.addAndGet(batch.size())).workers(1).run(new GatedInput(file, reading))));
+            }
+            for (Future<ImportResult> future : futures) {
+                assertEquals(rows, future.get(60, TimeUnit.SECONDS).getSucceeded());
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+        assertEquals(rows * runs, total.get());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void pipelineRunsOnce() throws Exception {
+        ImportPipeline<Person> pipeline = new ImportPipeline<>(Person.class, 10, batch -> {
+        });
+        byte[] file = workbook(1);
+        pipeline.run(new ByteArrayInputStream(file));
+        pipeline.run(new ByteArrayInputStream(file));
+    }
+
+    private static byte[] workbook(int rows) throws Exception {
+        try (Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("data");
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("name");
+            header.createCell(1).setCellValue("age");
+            for (int i = 1; i <= rows; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue("p" + i);
+                row.createCell(1).setCellValue(i);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * 首次读取时等待其他导入也开始读取，最多等待1秒
+     */
+    private static final class GatedInput extends FilterInputStream {
+
+        private final CountDownLatch reading;
+
+        private boolean opened;
+
+        private GatedInput(byte[] bytes, CountDownLatch reading) {
+            super(new ByteArrayInputStream(bytes));
+            this.reading = reading;
+        }
+
+        @Override
+        public int read() throws IOException {
+            open();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            open();
+            return super.read(b, off, len);
+        }
+
+        private void open() throws IOException {
+            if (opened) {
+                return;
+            }
+            opened = true;
+            reading.countDown();
+            try {
+                reading.await(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+    }
+
+    @Data
+    public static class Person {
+
+        private String name;
+
+        private int age;
+    }
+}
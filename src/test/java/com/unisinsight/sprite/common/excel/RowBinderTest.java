@@ -0,0 +1,98 @@
+package com.unisinsight.sprite.common.excel;
+
+import com.unisinsight.sprite.common.exception.CommonException;
+import lombok.Data;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * description RowBinder按字段顺序转换单元格
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class RowBinderTest {
+
+    @Test
+    public void cellsAreConvertedByFieldOrder() throws Exception {
+        Item item = RowBinder.of(Item.class).bind(1,
+                new String[]{"apple", "3", " 12 ", "1.5", "9.99", "true", "2026-10-19", "ignored"});
+
+        assertEquals("apple", item.getName());
+        assertEquals(3, item.getCount());
+        assertEquals(Long.valueOf(12L), item.getStock());
+        assertEquals(1.5D, item.getWeight(), 0D);
+        assertEquals(new BigDecimal("9.99"), item.getPrice());
+        assertEquals(Boolean.TRUE, item.getActive());
+        assertEquals(new SimpleDateFormat("yyyy-MM-dd").parse("2026-10-19"), item.getDate());
+        assertNull(item.getTags());
+    }
+
+    @Test
+    public void blankAndMissingCellsKeepDefaults() {
+        Item item = RowBinder.of(Item.class).bind(1, new String[]{null, " ", ""});
+
+        assertNull(item.getName());
+        assertEquals(-1, item.getCount());
+        assertNull(item.getStock());
+    }
+
+    @Test
+    public void badValueNamesRowAndColumn() {
+        try {
+            RowBinder.of(Item.class).bind(4, new String[]{"apple", "three"});
+            fail("格式错误的值应抛出异常");
+        } catch (CommonException e) {
+            assertTrue(e.getMessage().contains("第5行第2列"));
+        }
+    }
+
+    @Test
+    public void binderIsCachedPerClass() {
+        assertSame(RowBinder.of(Item.class), RowBinder.of(Item.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void classWithoutNoArgConstructorIsRejected() {
+        RowBinder.of(NoDefault.class);
+    }
+
+    @Data
+    public static class Item {
+
+        private String name;
+
+        private int count = -1;
+
+        private Long stock;
+
+        private double weight;
+
+        private BigDecimal price;
+
+        private Boolean active;
+
+        private Date date;
+
+        private List<String> tags;
+    }
+
+    public static class NoDefault {
+
+        private final String name;
+
+        public NoDefault(String name) {
+            this.name = name;
+        }
+    }
+}
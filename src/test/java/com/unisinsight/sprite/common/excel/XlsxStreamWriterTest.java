@@ -0,0 +1,88 @@
+package com.unisinsight.sprite.common.excel;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * description XlsxStreamWriter写出的文件可按原样读回
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class XlsxStreamWriterTest {
+
+    private static final String[] HEADERS = {"名称", "数量", "编号", "时间"};
+
+    @Test
+    public void rowsAreWrittenBehindHeader() throws Exception {
+        Date date = new SimpleDateFormat("yyyy-MM-dd HH:mm").parse("2026-10-19 08:30");
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            items.add(new Item("n" + i, i, 1234567890123456789L, date));
+        }
+        items.add(null);
+        items.add(new Item(null, 7, null, null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (XlsxStreamWriter writer = new XlsxStreamWriter(HEADERS, "yyyy/MM/dd", 50)) {
+            writer.write(items.iterator());
+            writer.finish(out);
+            assertEquals(501, writer.getTotal());
+        }
+
+        List<String[]> rows = read(out.toByteArray());
+        assertEquals(502, rows.size());
+        assertArrayEquals(HEADERS, rows.get(0));
+        // 超出double精度的long写为文本，数字写为数值，时间按格式写为文本
+        assertArrayEquals(new String[]{"n0", "0", "1234567890123456789", "2026/10/19"}, rows.get(1));
+        assertArrayEquals(new String[]{"n499", "499", "1234567890123456789", "2026/10/19"}, rows.get(500));
+        assertArrayEquals(new String[]{null, "7"}, rows.get(501));
+    }
+
+    @Test
+    public void emptyExportHasHeaderOnly() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (XlsxStreamWriter writer = new XlsxStreamWriter(HEADERS, null)) {
+            writer.write(Collections.emptyIterator());
+            writer.finish(out);
+        }
+
+        List<String[]> rows = read(out.toByteArray());
+        assertEquals(1, rows.size());
+        assertArrayEquals(HEADERS, rows.get(0));
+    }
+
+    private static List<String[]> read(byte[] bytes) throws Exception {
+        List<String[]> rows = new ArrayList<>();
+        ExcelRowReader.read(new ByteArrayInputStream(bytes),
+                (rowNum, cells) -> rows.add(Arrays.copyOf(cells, cells.length)));
+        return rows;
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Item {
+
+        private String name;
+
+        private Integer count;
+
+        private Long code;
+
+        private Date time;
+    }
+}
@@ -0,0 +1,128 @@
+package com.unisinsight.sprite.common.page;
+
+import com.unisinsight.sprite.common.utils.MapToObjectConvertTest;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * description PaginationAspect默认按map结果转换，directMapping需显式开启
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class PaginationAspectTest {
+
+    private final PaginationAspect aspect = new PaginationAspect();
+
+    @Test
+    public void defaultQueryStillReturnsCamelCaseMaps() throws Throwable {
+        AtomicReference<RowMapping> during = new AtomicReference<>();
+        ProceedingJoinPoint joinPoint = joinPoint(query(2), () -> {
+            during.set(RowMapping.current());
+            return rows("a", "b", "c");
+        });
+
+        PageResult<?> result = (PageResult<?>) aspect.aroundMethod(joinPoint, annotation("plain"));
+
+        assertNull(during.get());
+        List<?> data = (List<?>) result.getData();
+        assertEquals(2, data.size());
+        assertTrue(data.get(0) instanceof HashMap);
+        assertEquals("a", ((Map<?, ?>) data.get(0)).get("userName"));
+        assertTrue(result.getPaging().isHasMore());
+        assertNull(RowMapping.current());
+    }
+
+    @Test
+    public void defaultQueryConvertsMapsToDtoClass() throws Throwable {
+        ProceedingJoinPoint joinPoint = joinPoint(query(5), () -> rows("a"));
+
+        PageResult<?> result = (PageResult<?>) aspect.aroundMethod(joinPoint, annotation("dto"));
+
+        List<?> data = (List<?>) result.getData();
+        assertEquals("a", ((MapToObjectConvertTest.Person) data.get(0)).getName());
+        assertEquals(false, result.getPaging().isHasMore());
+    }
+
+    @Test
+    public void directMappingUsesRowsReadByInterceptor() throws Throwable {
+        List<Object> mapped = new ArrayList<>();
+        ProceedingJoinPoint joinPoint = joinPoint(query(1), () -> {
+            // 模拟DtoResultSetInterceptor：按RowMapping读取为dto并记录游标值
+            RowMapping mapping = RowMapping.current();
+            assertSame(MapToObjectConvertTest.Person.class, mapping.getDtoClass());
+            assertEquals(0, mapping.getCursorRow());
+            mapping.markMapped();
+            mapping.setSeekValue(7L);
+            mapped.add(new MapToObjectConvertTest.Person());
+            mapped.add(new MapToObjectConvertTest.Person());
+            return mapped;
+        });
+
+        PageResult<?> result = (PageResult<?>) aspect.aroundMethod(joinPoint, annotation("direct"));
+
+        assertEquals(mapped.subList(0, 1), result.getData());
+        assertEquals(7L, SeekCursor.decode(result.getPaging().getNextCursor()));
+    }
+
+    @PaginationAnnotation
+    public void plain() {
+    }
+
+    @PaginationAnnotation(dtoClass = MapToObjectConvertTest.Person.class)
+    public void dto() {
+    }
+
+    @PaginationAnnotation(dtoClass = MapToObjectConvertTest.Person.class, seekField = "id", directMapping = true)
+    public void direct() {
+    }
+
+    private static PaginationAnnotation annotation(String method) throws NoSuchMethodException {
+        return PaginationAspectTest.class.getMethod(method).getAnnotation(PaginationAnnotation.class);
+    }
+
+    private static PageQuery query(int pageSize) {
+        PageQuery query = new PageQuery();
+        query.setPageSize(pageSize);
+        return query;
+    }
+
+    private static ProceedingJoinPoint joinPoint(PageQuery query, Mapper mapper) throws Throwable {
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{query});
+        when(joinPoint.proceed()).thenAnswer(invocation -> mapper.query());
+        return joinPoint;
+    }
+
+    private static List<Map<String, Object>> rows(String... names) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (String name : Arrays.asList(names)) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("user_name", name);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * 模拟的mapper查询
+     */
+    private interface Mapper {
+
+        Object query();
+    }
+}
@@ -0,0 +1,98 @@
+package com.unisinsight.sprite.common.utils;
+
+import com.unisinsight.sprite.common.exception.CommonException;
+import lombok.Data;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * description BeanConvert列表转换与BeanCopier属性匹配
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class BeanConvertTest {
+
+    @Test
+    public void nullElementsAreKeptInSmallLists() {
+        List<Target> result = BeanConvert.convertList(Arrays.asList(source("a", 1), null), Target.class);
+
+        assertEquals("a", result.get(0).getName());
+        assertNull(result.get(1));
+    }
+
+    @Test
+    public void nullElementsAreKeptInParallelLists() {
+        List<Source> list = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            list.add(i % 100 == 0 ? null : source("n" + i, i));
+        }
+
+        List<Target> result = BeanConvert.convertList(list, Target.class);
+
+        assertEquals(list.size(), result.size());
+        assertNull(result.get(0));
+        assertEquals("n19999", result.get(19999).getName());
+        assertEquals(Long.valueOf(19999L), result.get(19999).getAge());
+    }
+
+    @Test
+    public void looseNamesAndNumbersAreConverted() {
+        Target target = BeanConvert.convert(source("tom", 30), Target.class);
+
+        assertEquals("tom", target.getName());
+        assertEquals(Long.valueOf(30L), target.getAge());
+        assertEquals("D30", target.getDept_code());
+    }
+
+    @Test
+    public void emptyInputs() {
+        assertTrue(BeanConvert.convertList(null, Target.class).isEmpty());
+        assertTrue(BeanConvert.convertList(new ArrayList<>(), Target.class).isEmpty());
+    }
+
+    @Test(expected = CommonException.class)
+    public void nonListIsRejected() {
+        BeanConvert.convertList("x", Target.class);
+    }
+
+    @Test(expected = CommonException.class)
+    public void nullSourceIsRejected() {
+        BeanConvert.convert(null, Target.class);
+    }
+
+    private static Source source(String name, int age) {
+        Source source = new Source();
+        source.setName(name);
+        source.setAge(age);
+        source.setDeptCode("D" + age);
+        return source;
+    }
+
+    @Data
+    public static class Source {
+
+        private String name;
+
+        private int age;
+
+        private String deptCode;
+    }
+
+    @Data
+    public static class Target {
+
+        private String name;
+
+        private Long age;
+
+        private String dept_code;
+    }
+}
@@ -0,0 +1,146 @@
+package com.unisinsight.sprite.common.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * description BoundedExecutor队列满时的处理策略与指标
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class BoundedExecutorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private BoundedExecutor executor;
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void callerRunsWhenQueueFull() throws Exception {
+        executor = new BoundedExecutor("test-caller", 1, 1, RejectPolicy.CALLER_RUNS, 0L);
+        fill();
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        assertEquals(Thread.currentThread(), ranOn.get());
+        assertEquals(1, executor.getMetrics().getCallerRuns());
+    }
+
+    @Test
+    public void rejectWhenQueueFull() throws Exception {
+        executor = new BoundedExecutor("test-reject", 1, 1, RejectPolicy.REJECT, 0L);
+        fill();
+        try {
+            executor.execute(() -> {
+            });
+            fail("队列满时应拒绝");
+        } catch (RejectedExecutionException e) {
+            assertEquals(1, executor.getMetrics().getRejected());
+        }
+    }
+
+    @Test
+    public void blockUntilTimeout() throws Exception {
+        executor = new BoundedExecutor("test-block", 1, 1, RejectPolicy.BLOCK, 100L);
+        fill();
+        long start = System.nanoTime();
+        try {
+            executor.execute(() -> {
+            });
+            fail("等待超时后应拒绝");
+        } catch (RejectedExecutionException e) {
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        }
+    }
+
+    @Test
+    public void blockAcceptsWhenQueueDrains() throws Exception {
+        executor = new BoundedExecutor("test-block", 1, 1, RejectPolicy.BLOCK, 5000L);
+        fill();
+        CountDownLatch done = new CountDownLatch(1);
+        new Thread(() -> {
+            sleep(100);
+            release.countDown();
+        }).start();
+        executor.execute(done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void tryExecuteNeitherBlocksNorRunsOnCaller() throws Exception {
+        executor = new BoundedExecutor("test-try", 1, 1, RejectPolicy.BLOCK, 5000L);
+        fill();
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        long start = System.nanoTime();
+
+        assertFalse(executor.tryExecute(() -> ranOn.set(Thread.currentThread())));
+
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(1000));
+        assertNull(ranOn.get());
+        assertEquals(1, executor.getMetrics().getRejected());
+    }
+
+    @Test
+    public void failedTaskIsCountedAndThreadSurvives() throws Exception {
+        executor = new BoundedExecutor("test-failed", 1, 10, RejectPolicy.REJECT, 0L);
+        CountDownLatch done = new CountDownLatch(1);
+        executor.execute(() -> {
+            throw new IllegalStateException("boom");
+        });
+        executor.execute(done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        ExecutorMetrics.Snapshot metrics = executor.getMetrics();
+        assertEquals(2, metrics.getSubmitted());
+        assertEquals(1, metrics.getFailed());
+    }
+
+    /**
+     * 占满唯一的线程与唯一的队列位置
+     */
+    private void fill() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> await(release));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.unisinsight.sprite.common.utils;
+
+import org.junit.Test;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.lang.reflect.Proxy;
+
+import static com.unisinsight.sprite.common.utils.RedisTestSupport.bytes;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * description 连接代理与带指标统计的模板
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class InstrumentedRedisConnectionTest {
+
+    @Test
+    public void proxyExposesOnlyPublicConnectionInterface() {
+        RedisConnection target = (RedisConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{RedisConnection.class, DriverInternal.class}, (proxy, method, args) -> null);
+        RedisConnectionFactory factory = mock(RedisConnectionFactory.class);
+        when(factory.getConnection()).thenReturn(target);
+
+        RedisConnection connection = InstrumentedRedisConnection.wrap(factory).getConnection();
+
+        assertTrue(Proxy.isProxyClass(connection.getClass()));
+        assertArrayEquals(new Class<?>[]{RedisConnection.class}, connection.getClass().getInterfaces());
+    }
+
+    @Test
+    public void clusterConnectionKeepsClusterInterface() {
+        RedisClusterConnection target = mock(RedisClusterConnection.class);
+        RedisConnectionFactory factory = mock(RedisConnectionFactory.class);
+        when(factory.getClusterConnection()).thenReturn(target);
+
+        RedisClusterConnection connection = InstrumentedRedisConnection.wrap(factory).getClusterConnection();
+
+        assertArrayEquals(new Class<?>[]{RedisClusterConnection.class}, connection.getClass().getInterfaces());
+    }
+
+    @Test
+    public void commandsAreRecorded() {
+        RedisConnection target = mock(RedisConnection.class);
+        when(target.get(bytes("metric:1"))).thenReturn(bytes("value"));
+        RedisConnectionFactory factory = mock(RedisConnectionFactory.class);
+        when(factory.getConnection()).thenReturn(target);
+        long before = count("get");
+
+        byte[] value = InstrumentedRedisConnection.wrap(factory).getConnection().get(bytes("metric:1"));
+
+        assertArrayEquals(bytes("value"), value);
+        assertEquals(before + 1, count("get"));
+        verify(target).get(bytes("metric:1"));
+    }
+
+    @Test
+    public void instrumentKeepsTemplateSettings() {
+        RedisTestSupport.connection();
+        StringRedisTemplate template = new StringRedisTemplate(mock(RedisConnectionFactory.class));
+        GenericToStringSerializer<Long> valueSerializer = new GenericToStringSerializer<>(Long.class);
+        StringRedisSerializer hashSerializer = new StringRedisSerializer();
+        template.setValueSerializer(valueSerializer);
+        template.setHashValueSerializer(hashSerializer);
+        template.setEnableTransactionSupport(true);
+        template.setExposeConnection(true);
+
+        RedisTemplate<String, String> instrumented = RedisUtil.instrument(template);
+
+        assertNotSame(template.getConnectionFactory(), instrumented.getConnectionFactory());
+        assertSame(valueSerializer, instrumented.getValueSerializer());
+        assertSame(hashSerializer, instrumented.getHashValueSerializer());
+        assertSame(template.getKeySerializer(), instrumented.getKeySerializer());
+        assertTrue(instrumented.isExposeConnection());
+        assertEquals(Boolean.TRUE, new DirectFieldAccessor(instrumented).getPropertyValue("enableTransactionSupport"));
+    }
+
+    private static long count(String command) {
+        return RedisMetrics.getCommandMetrics().stream()
+                .filter(m -> command.equals(m.getCommand()))
+                .mapToLong(RedisMetrics.CommandSnapshot::getCount)
+                .sum();
+    }
+
+    /**
+     * 模拟驱动连接实现的非公开接口
+     */
+    interface DriverInternal {
+    }
+}
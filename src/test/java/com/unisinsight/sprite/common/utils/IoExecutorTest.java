@@ -0,0 +1,147 @@
+package com.unisinsight.sprite.common.utils;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * description IoExecutor按资源限制并发
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class IoExecutorTest {
+
+    private final ExecutorService fallback = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        fallback.shutdownNow();
+    }
+
+    @Test
+    public void resourceLimitCapsConcurrency() throws Exception {
+        IoExecutor executor = new IoExecutor("test-io", fallback);
+        executor.setResourceLimit("db", 2);
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(10);
+        for (int i = 0; i < 10; i++) {
+            executor.execute("db", () -> {
+                max.accumulateAndGet(current.incrementAndGet(), Math::max);
+                sleep(20);
+                current.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(max.get() <= 2);
+        assertEquals(10, executor.getMetrics().getSubmitted());
+    }
+
+    @Test
+    public void unknownResourceIsNotLimited() throws Exception {
+        IoExecutor executor = new IoExecutor("test-io", fallback);
+        CountDownLatch started = new CountDownLatch(3);
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < 3; i++) {
+            executor.execute("redis", () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    public void waitingTasksDoNotHoldPoolThreads() throws Exception {
+        BoundedExecutor pool = new BoundedExecutor("test-limited", 2, 100, RejectPolicy.CALLER_RUNS, 0);
+        IoExecutor executor = new IoExecutor("test-io", pool);
+        executor.setResourceLimit("db", 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(10);
+        for (int i = 0; i < 10; i++) {
+            executor.execute("db", () -> {
+                await(release);
+                done.countDown();
+            });
+        }
+        try {
+            // 等待中的9个任务不占用线程，其他任务仍可使用剩余线程
+            CountDownLatch other = new CountDownLatch(1);
+            executor.execute(other::countDown);
+            assertTrue(other.await(5, TimeUnit.SECONDS));
+            assertEquals(9, executor.getMetrics().getQueueDepth());
+            assertEquals(1, pool.getMetrics().getActiveThreads());
+        } finally {
+            release.countDown();
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, executor.getMetrics().getQueueDepth());
+    }
+
+    @Test
+    public void redefiningLimitAdjustsExistingOne() throws Exception {
+        IoExecutor executor = new IoExecutor("test-io", fallback);
+        executor.setResourceLimit("db", 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            executor.execute("db", () -> {
+                started.countDown();
+                await(release);
+            });
+        }
+        try {
+            while (started.getCount() > 2) {
+                sleep(10);
+            }
+            // 重复设置相同上限不会放行等待中的任务
+            executor.setResourceLimit("db", 1);
+            sleep(100);
+            assertEquals(2, started.getCount());
+            assertEquals(2, executor.getMetrics().getQueueDepth());
+            // 调大上限立即启动等待中的任务
+            executor.setResourceLimit("db", 3);
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nonPositiveLimitIsRejected() {
+        new IoExecutor("test-io", fallback).setResourceLimit("db", 0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
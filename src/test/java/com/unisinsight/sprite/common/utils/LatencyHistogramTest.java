@@ -0,0 +1,76 @@
+package com.unisinsight.sprite.common.utils;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * description LatencyHistogram分位值
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void emptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0L, histogram.percentileMicros(99));
+        assertEquals(0d, histogram.getMeanMicros(), 0d);
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 10; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        assertEquals(5L, histogram.percentileMicros(50));
+        assertEquals(10L, histogram.percentileMicros(100));
+        assertEquals(5.5d, histogram.getMeanMicros(), 0.001d);
+    }
+
+    @Test
+    public void percentilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 100000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+
+        assertWithin(50000, histogram.percentileMicros(50));
+        assertWithin(99000, histogram.percentileMicros(99));
+        assertWithin(99900, histogram.percentileMicros(99.9));
+        assertEquals(100000L, histogram.getMaxMicros());
+        assertEquals(100000L, histogram.getCount());
+    }
+
+    @Test
+    public void percentileNeverExceedsMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        assertEquals(1000000L, histogram.percentileMicros(99.9));
+    }
+
+    @Test
+    public void hugeValuesAreClampedToLastBucket() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+
+        assertTrue(histogram.percentileMicros(50) > 0L);
+        assertEquals(Long.MAX_VALUE / 1000L, histogram.getMaxMicros());
+    }
+
+    /**
+     * 桶上界不小于实际值，且相对误差不超过1/16
+     */
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual + " < " + expected, actual >= expected);
+        assertTrue(actual + " > " + expected, actual <= expected + expected / 16);
+    }
+}
@@ -0,0 +1,126 @@
+package com.unisinsight.sprite.common.utils;
+
+import com.unisinsight.sprite.common.exception.CommonException;
+import lombok.Data;
+import org.junit.Test;
+
+import javax.persistence.Column;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * description MapToObjectConvert按缓存的映射计划填充实体
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class MapToObjectConvertTest {
+
+    @Test
+    public void columnAnnotationWinsOverFieldName() {
+        Map<String, Object> row = new HashMap<>();
+        row.put("user_name", "tom");
+        row.put("dept_code", "D1");
+
+        Person person = MapToObjectConvert.convert(row, Person.class);
+
+        assertEquals("tom", person.getName());
+        assertEquals("D1", person.getDeptCode());
+    }
+
+    @Test
+    public void nullValuesAndUnknownColumnsAreSkipped() {
+        Map<String, Object> row = new HashMap<>();
+        row.put("user_name", null);
+        row.put("age", 30);
+        row.put("not_a_field", "x");
+
+        Person person = MapToObjectConvert.convert(row, Person.class);
+
+        assertEquals("default", person.getName());
+        assertEquals(Integer.valueOf(30), person.getAge());
+    }
+
+    @Test
+    public void repeatedConversionsUseSamePlan() {
+        List<Map<String, Object>> rows = Arrays.asList(row("a"), row("b"), row("c"));
+
+        List<?> first = MapToObjectConvert.convert(rows, Person.class);
+        List<?> second = MapToObjectConvert.convert(rows, Person.class);
+
+        assertEquals(first, second);
+        assertEquals("c", ((Person) second.get(2)).getName());
+    }
+
+    @Test
+    public void mapTargetCamelCasesKeys() {
+        List<?> result = MapToObjectConvert.convert(Arrays.asList(row("a")), Map.class);
+
+        assertEquals("a", ((Map<?, ?>) result.get(0)).get("userName"));
+        assertTrue(MapToObjectConvert.convert((List<Map<String, Object>>) null, Person.class).isEmpty());
+    }
+
+    @Test
+    public void emptyRowConvertsToNull() {
+        assertNull(MapToObjectConvert.convert(new HashMap<>(), Person.class));
+    }
+
+    @Test
+    public void rowReaderMapsColumnsOnceAndReadsByIndex() throws Exception {
+        ResultSetMetaData meta = mock(ResultSetMetaData.class);
+        when(meta.getColumnCount()).thenReturn(3);
+        when(meta.getColumnLabel(1)).thenReturn("user_name");
+        when(meta.getColumnLabel(2)).thenReturn("age");
+        when(meta.getColumnLabel(3)).thenReturn("unknown_column");
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getObject(1)).thenReturn("tom");
+        when(rs.getObject(2)).thenReturn(30);
+
+        Person person = (Person) MapToObjectConvert.rowReader(meta, Person.class).read(rs);
+        Map<?, ?> map = (Map<?, ?>) MapToObjectConvert.rowReader(meta, null).read(rs);
+
+        assertEquals("tom", person.getName());
+        assertEquals(Integer.valueOf(30), person.getAge());
+        verify(rs, times(2)).getObject(1);
+        verify(rs, times(1)).getObject(3);
+        assertEquals("tom", map.get("userName"));
+        assertTrue(map.containsKey("unknownColumn"));
+    }
+
+    @Test(expected = CommonException.class)
+    public void mismatchedValueTypeFails() {
+        Map<String, Object> row = new HashMap<>();
+        row.put("age", "thirty");
+
+        MapToObjectConvert.convert(row, Person.class);
+    }
+
+    private static Map<String, Object> row(String name) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("user_name", name);
+        return row;
+    }
+
+    @Data
+    public static class Person {
+
+        @Column(name = "user_name")
+        private String name = "default";
+
+        private String deptCode;
+
+        private Integer age;
+    }
+}
@@ -0,0 +1,99 @@
+package com.unisinsight.sprite.common.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * description RedisLock加锁、重入、续期与释放
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class RedisLockTest {
+
+    private ScriptRecorder scripts;
+
+    @Before
+    public void setUp() {
+        scripts = new ScriptRecorder(RedisTestSupport.connection());
+        scripts.reply(RedisLock.class, "RELEASE_SCRIPT", 1L);
+        scripts.reply(RedisLock.class, "RENEW_SCRIPT", 1L);
+    }
+
+    @Test
+    public void lockReturnsFencingTokenAndReenters() throws Exception {
+        scripts.reply(RedisLock.class, "ACQUIRE_SCRIPT", 41L);
+        RedisLock lock = new RedisLock("order", 30000L);
+
+        assertEquals(41L, lock.tryLock(100L));
+        assertEquals(41L, lock.tryLock(100L));
+        assertEquals(1, calls("ACQUIRE_SCRIPT").size());
+        assertEquals(Arrays.asList("lock:order", "lock:order:fence"), calls("ACQUIRE_SCRIPT").get(0).keys());
+
+        lock.unlock();
+        assertTrue(calls("RELEASE_SCRIPT").isEmpty());
+        assertEquals(41L, lock.getToken());
+
+        lock.unlock();
+        List<ScriptRecorder.ScriptCall> releases = calls("RELEASE_SCRIPT");
+        assertEquals(1, releases.size());
+        // 释放时校验的持有者与加锁时写入的一致
+        assertEquals(calls("ACQUIRE_SCRIPT").get(0).args().get(0), releases.get(0).args().get(0));
+        assertEquals(-1L, lock.getToken());
+    }
+
+    @Test
+    public void contendedLockTimesOutAndReleasesLocalLock() throws Exception {
+        scripts.reply(RedisLock.class, "ACQUIRE_SCRIPT", -1L);
+        RedisLock lock = new RedisLock("busy", 30000L);
+        long start = System.currentTimeMillis();
+
+        assertEquals(-1L, lock.tryLock(120L));
+
+        assertTrue(System.currentTimeMillis() - start >= 100L);
+        assertTrue(calls("ACQUIRE_SCRIPT").size() > 1);
+        AtomicLong other = new AtomicLong();
+        scripts.reply(RedisLock.class, "ACQUIRE_SCRIPT", 5L);
+        Thread thread = new Thread(() -> {
+            try {
+                other.set(lock.tryLock(100L));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        thread.join(5000L);
+        assertEquals(5L, other.get());
+    }
+
+    @Test
+    public void watchdogRenewsUntilUnlocked() throws Exception {
+        scripts.reply(RedisLock.class, "ACQUIRE_SCRIPT", 1L);
+        RedisLock lock = new RedisLock("renew", 90L);
+
+        lock.tryLock(100L);
+        Thread.sleep(200L);
+        lock.unlock();
+        int renewals = calls("RENEW_SCRIPT").size();
+        Thread.sleep(150L);
+
+        assertTrue(renewals >= 2);
+        assertEquals(renewals, calls("RENEW_SCRIPT").size());
+    }
+
+    @Test(expected = IllegalMonitorStateException.class)
+    public void unlockWithoutHoldingFails() {
+        new RedisLock("none", 1000L).unlock();
+    }
+
+    private List<ScriptRecorder.ScriptCall> calls(String script) {
+        return scripts.calls(RedisLock.class, script);
+    }
+}
@@ -0,0 +1,108 @@
+package com.unisinsight.sprite.common.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * description RedisQueue失败重试、死信与分段恢复
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class RedisQueueTest {
+
+    private RedisConnection connection;
+
+    private ScriptRecorder scripts;
+
+    private RedisQueue queue;
+
+    @Before
+    public void setUp() {
+        connection = RedisTestSupport.connection();
+        scripts = new ScriptRecorder(connection);
+        queue = new RedisQueue("orders", "node:1");
+    }
+
+    @Test
+    public void recoverMovesInBoundedChunks() {
+        reply("RECOVER_SCRIPT", 1000L, 1000L, 7L);
+
+        assertEquals(2007L, queue.recover());
+
+        List<ScriptRecorder.ScriptCall> recovers = calls("RECOVER_SCRIPT");
+        assertEquals(3, recovers.size());
+        for (ScriptRecorder.ScriptCall call : recovers) {
+            assertEquals(Arrays.asList("queue:orders:processing:node:1", "queue:orders"), call.keys());
+            assertEquals(Arrays.asList(String.valueOf(RedisQueue.RECOVER_CHUNK_SIZE)), call.args());
+        }
+    }
+
+    @Test
+    public void failedBatchIsScheduledForRetryInsteadOfRequeued() {
+        queue.setRetryPolicy(3, 200L);
+
+        queue.process(Arrays.asList("a", "b"), batch -> {
+            throw new IllegalStateException("boom");
+        });
+
+        List<ScriptRecorder.ScriptCall> fails = calls("FAIL_SCRIPT");
+        assertEquals(1, fails.size());
+        assertEquals(Arrays.asList("queue:orders:processing:node:1", "queue:orders:attempts",
+                "queue:orders:retry", "queue:orders:dead"), fails.get(0).keys());
+        List<String> args = fails.get(0).args();
+        assertEquals("3", args.get(0));
+        assertEquals("200", args.get(2));
+        assertTrue(!args.get(4).contains(":"));
+        assertEquals(Arrays.asList("a", "b"), args.subList(5, args.size()));
+        assertTrue(calls("ACK_SCRIPT").isEmpty());
+        verify(connection, never()).rPush(any(), any());
+    }
+
+    @Test
+    public void failReturnsDeadLetterCount() {
+        reply("FAIL_SCRIPT", 2L);
+
+        assertEquals(2L, queue.fail(Arrays.asList("a", "b")));
+    }
+
+    @Test
+    public void successfulBatchIsAcked() {
+        List<List<String>> handled = new ArrayList<>();
+
+        queue.process(Arrays.asList("a"), handled::add);
+
+        assertEquals(1, handled.size());
+        List<ScriptRecorder.ScriptCall> acks = calls("ACK_SCRIPT");
+        assertEquals(1, acks.size());
+        assertEquals(Arrays.asList("queue:orders:processing:node:1", "queue:orders:attempts"), acks.get(0).keys());
+        assertTrue(calls("FAIL_SCRIPT").isEmpty());
+    }
+
+    @Test
+    public void requeueDueUsesRetryZset() {
+        reply("DUE_SCRIPT", 4L);
+
+        assertEquals(4L, queue.requeueDue());
+        assertEquals(Arrays.asList("queue:orders:retry", "queue:orders"), calls("DUE_SCRIPT").get(0).keys());
+    }
+
+    private void reply(String script, Object... values) {
+        scripts.reply(RedisQueue.class, script, values);
+    }
+
+    private List<ScriptRecorder.ScriptCall> calls(String script) {
+        return scripts.calls(RedisQueue.class, script);
+    }
+}
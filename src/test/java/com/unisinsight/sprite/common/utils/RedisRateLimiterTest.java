@@ -0,0 +1,63 @@
+package com.unisinsight.sprite.common.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * description RedisRateLimiter预取令牌与故障放行
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class RedisRateLimiterTest {
+
+    private ScriptRecorder scripts;
+
+    @Before
+    public void setUp() {
+        scripts = new ScriptRecorder(RedisTestSupport.connection());
+    }
+
+    @Test
+    public void prefetchedTokensAreUsedLocally() {
+        scripts.reply(RedisRateLimiter.class, "ACQUIRE_SCRIPT", 5L, 0L);
+        RedisRateLimiter limiter = new RedisRateLimiter("api", 100L, 10L, 5, 60000L);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertEquals(1L, limiter.getRemoteCalls());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2L, limiter.getRemoteCalls());
+        assertEquals(1L, limiter.getRejected());
+        assertEquals(Arrays.asList("100", "10", "5"),
+                scripts.calls(RedisRateLimiter.class, "ACQUIRE_SCRIPT").get(0).args());
+    }
+
+    @Test
+    public void expiredPrefetchIsDiscarded() throws Exception {
+        scripts.reply(RedisRateLimiter.class, "ACQUIRE_SCRIPT", 5L);
+        RedisRateLimiter limiter = new RedisRateLimiter("expire", 100L, 10L, 5, 10L);
+
+        assertTrue(limiter.tryAcquire());
+        Thread.sleep(30L);
+        assertTrue(limiter.tryAcquire());
+
+        assertEquals(2L, limiter.getRemoteCalls());
+    }
+
+    @Test
+    public void redisFailureLetsRequestsThrough() {
+        scripts.reply(RedisRateLimiter.class, "ACQUIRE_SCRIPT", new IllegalStateException("down"));
+        RedisRateLimiter limiter = new RedisRateLimiter("down", 1L, 1L);
+
+        assertTrue(limiter.tryAcquire());
+        assertEquals(0L, limiter.getRejected());
+    }
+}
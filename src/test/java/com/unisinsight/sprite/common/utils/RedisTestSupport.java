@@ -0,0 +1,63 @@
+package com.unisinsight.sprite.common.utils;
+
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * description RedisUtil测试使用的模拟连接
+ * RedisUtil在类加载时从ApplicationContextUtil获取stringRedisTemplate，同一JVM中只初始化一次，
+ * 因此所有用到RedisUtil的测试共用同一个模拟连接，每个测试开始时调用connection()重置
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public final class RedisTestSupport {
+
+    private static final RedisConnection CONNECTION = mock(RedisConnection.class);
+
+    private static final StringRedisTemplate TEMPLATE;
+
+    static {
+        RedisConnectionFactory factory = mock(RedisConnectionFactory.class);
+        when(factory.getConnection()).thenAnswer(invocation -> CONNECTION);
+        TEMPLATE = new StringRedisTemplate(factory);
+        ApplicationContext context = mock(ApplicationContext.class);
+        when(context.getBean("stringRedisTemplate", RedisTemplate.class)).thenReturn(TEMPLATE);
+        new ApplicationContextUtil().setApplicationContext(context);
+    }
+
+    private RedisTestSupport() {
+    }
+
+    /**
+     * 重置并返回模拟连接
+     *
+     * @return RedisConnection
+     */
+    public static RedisConnection connection() {
+        Mockito.reset(CONNECTION);
+        return CONNECTION;
+    }
+
+    /**
+     * 容器中的stringRedisTemplate
+     *
+     * @return StringRedisTemplate
+     */
+    public static StringRedisTemplate template() {
+        return TEMPLATE;
+    }
+
+    public static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,161 @@
+package com.unisinsight.sprite.common.utils;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.unisinsight.sprite.common.utils.RedisTestSupport.bytes;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * description RedisUtil批量操作与按模式删除
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class RedisUtilTest {
+
+    private RedisConnection connection;
+
+    @Before
+    public void setUp() {
+        connection = RedisTestSupport.connection();
+    }
+
+    @Test
+    public void mgetKeepsKeyOrder() {
+        when(connection.mGet(bytes("a"), bytes("b"))).thenReturn(Arrays.asList(bytes("1"), null));
+
+        assertEquals(Arrays.asList("1", null), RedisUtil.mget(Arrays.asList("a", "b")));
+    }
+
+    @Test
+    public void mgetOnErrorKeepsOneValuePerKey() {
+        when(connection.mGet(bytes("a"), bytes("b"))).thenThrow(new IllegalStateException("down"));
+
+        assertEquals(Arrays.asList(null, null), RedisUtil.mget(Arrays.asList("a", "b")));
+    }
+
+    @Test
+    public void mgetWithNullReplyKeepsOneValuePerKey() {
+        when(connection.mGet(bytes("a"), bytes("b"))).thenReturn(null);
+
+        assertEquals(Arrays.asList(null, null), RedisUtil.mget(Arrays.asList("a", "b")));
+    }
+
+    @Test
+    public void msetUsesSetExForKeysWithExpire() {
+        when(connection.closePipeline()).thenReturn(new ArrayList<>());
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("a", "1");
+        values.put("b", "2");
+        Map<String, Long> expires = Collections.singletonMap("a", 60L);
+
+        assertTrue(RedisUtil.mset(values, expires));
+        verify(connection).setEx(bytes("a"), 60L, bytes("1"));
+        verify(connection).set(bytes("b"), bytes("2"));
+        verify(connection).openPipeline();
+    }
+
+    @Test
+    public void hmgetAllReturnsOneMapPerKey() {
+        Map<byte[], byte[]> first = new HashMap<>();
+        first.put(bytes("f"), bytes("v"));
+        when(connection.closePipeline()).thenReturn(Arrays.asList(first, new HashMap<>()));
+
+        List<Map<String, String>> result = RedisUtil.hmgetAll(Arrays.asList("h1", "h2"));
+
+        assertEquals(2, result.size());
+        assertEquals("v", result.get(0).get("f"));
+        assertTrue(result.get(1).isEmpty());
+    }
+
+    @Test
+    public void hmgetAllFillsMissingRepliesWithEmptyMaps() {
+        when(connection.closePipeline()).thenReturn(new ArrayList<>());
+
+        List<Map<String, String>> result = RedisUtil.hmgetAll(Arrays.asList("h1", "h2"));
+
+        assertEquals(2, result.size());
+        assertTrue(result.get(0).isEmpty());
+        assertTrue(result.get(1).isEmpty());
+    }
+
+    @Test
+    public void hmgetAllOnErrorKeepsOneMapPerKey() {
+        when(connection.closePipeline()).thenThrow(new IllegalStateException("down"));
+
+        List<Map<String, String>> result = RedisUtil.hmgetAll(Arrays.asList("h1", "h2", "h3"));
+
+        assertEquals(3, result.size());
+        for (Map<String, String> map : result) {
+            assertTrue(map.isEmpty());
+        }
+    }
+
+    @Test
+    public void removePatternUnlinksInBatches() {
+        Cursor<byte[]> cursor = cursor("k1", "k2", "k3");
+        when(connection.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(connection.unlink(any())).thenAnswer(invocation -> (long) invocation.getArguments().length);
+        List<Long> progress = new ArrayList<>();
+
+        long deleted = RedisUtil.removePattern("k*", 2, 0, progress::add);
+
+        assertEquals(3L, deleted);
+        assertEquals(Arrays.asList(2L, 3L), progress);
+        verify(connection).unlink(bytes("k1"), bytes("k2"));
+        verify(connection).unlink(bytes("k3"));
+        verify(connection, never()).keys(any());
+    }
+
+    @Test
+    public void removePatternFallsBackToDel() {
+        Cursor<byte[]> cursor = cursor("k1");
+        when(connection.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(connection.unlink(any())).thenThrow(new UnsupportedOperationException("ERR unknown command"));
+        when(connection.del(any())).thenReturn(1L);
+
+        assertEquals(1L, RedisUtil.removePattern("k*", 10, 0, null));
+        verify(connection).del(bytes("k1"));
+    }
+
+    @Test
+    public void removePatternIsRateLimited() {
+        Cursor<byte[]> cursor = cursor("k1", "k2", "k3", "k4");
+        when(connection.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(connection.unlink(any())).thenAnswer(invocation -> (long) invocation.getArguments().length);
+        long start = System.currentTimeMillis();
+
+        RedisUtil.removePattern("k*", 2, 20, null);
+
+        // 4个key每秒20个，至少200ms
+        assertTrue(System.currentTimeMillis() - start >= 190);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cursor<byte[]> cursor(String... keys) {
+        Iterator<String> it = Arrays.asList(keys).iterator();
+        Cursor<byte[]> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenAnswer(invocation -> it.hasNext());
+        when(cursor.next()).thenAnswer(invocation -> bytes(it.next()));
+        return cursor;
+    }
+}
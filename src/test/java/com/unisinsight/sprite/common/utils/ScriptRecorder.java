@@ -0,0 +1,123 @@
+package com.unisinsight.sprite.common.utils;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * description 记录模拟连接上执行的lua脚本并按脚本返回预设结果
+ * 脚本按所在类的私有静态字段名识别，未预设结果时返回0
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public final class ScriptRecorder {
+
+    private final Map<String, Deque<Object>> replies = new ConcurrentHashMap<>();
+
+    private final List<ScriptCall> calls = new CopyOnWriteArrayList<>();
+
+    public ScriptRecorder(RedisConnection connection) {
+        when(connection.evalSha(anyString(), any(ReturnType.class), anyInt(), any())).thenAnswer(invocation -> {
+            // 可变参数已展开，第4个参数起为keys与args
+            Object[] raw = invocation.getArguments();
+            ScriptCall call = new ScriptCall((String) raw[0], (Integer) raw[2], Arrays.copyOfRange(raw, 3, raw.length));
+            calls.add(call);
+            Deque<Object> queued = replies.get(call.sha);
+            Object reply = null;
+            if (queued != null) {
+                synchronized (queued) {
+                    reply = queued.size() > 1 ? queued.poll() : queued.peek();
+                }
+            }
+            if (reply instanceof RuntimeException) {
+                throw (RuntimeException) reply;
+            }
+            return reply == null ? 0L : reply;
+        });
+    }
+
+    /**
+     * 预设脚本的返回值，依次返回，最后一个值重复使用；值为RuntimeException时抛出
+     *
+     * @param owner  脚本所在类
+     * @param script 脚本字段名
+     * @param values 返回值
+     */
+    public void reply(Class<?> owner, String script, Object... values) {
+        replies.put(sha(owner, script), new ArrayDeque<>(Arrays.asList(values)));
+    }
+
+    /**
+     * 脚本的执行记录
+     *
+     * @param owner  脚本所在类
+     * @param script 脚本字段名
+     * @return List
+     */
+    public List<ScriptCall> calls(Class<?> owner, String script) {
+        String sha = sha(owner, script);
+        List<ScriptCall> list = new ArrayList<>();
+        for (ScriptCall call : calls) {
+            if (call.sha.equals(sha)) {
+                list.add(call);
+            }
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    private static String sha(Class<?> owner, String script) {
+        try {
+            Field field = owner.getDeclaredField(script);
+            field.setAccessible(true);
+            return ((RedisScript<?>) field.get(null)).getSha1();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException(owner.getName() + "." + script, e);
+        }
+    }
+
+    /**
+     * 一次脚本调用
+     */
+    public static final class ScriptCall {
+
+        private final String sha;
+
+        private final int numKeys;
+
+        private final List<String> values = new ArrayList<>();
+
+        private ScriptCall(String sha, int numKeys, Object[] keysAndArgs) {
+            this.sha = sha;
+            this.numKeys = numKeys;
+            for (Object value : keysAndArgs) {
+                values.add(new String((byte[]) value, StandardCharsets.UTF_8));
+            }
+        }
+
+        public List<String> keys() {
+            return values.subList(0, numKeys);
+        }
+
+        public List<String> args() {
+            return values.subList(numKeys, values.size());
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.unisinsight.sprite.common.utils;
+
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * description ThreadPoolUtils通道与异步接口
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class ThreadPoolUtilsTest {
+
+    @Test
+    public void lanesRunOnTheirOwnPools() throws Exception {
+        assertEquals("sprite-critical", threadOf(TaskLane.CRITICAL));
+        assertEquals("sprite-pool", threadOf(TaskLane.DEFAULT));
+        assertEquals("sprite-bulk", threadOf(TaskLane.BULK));
+        assertEquals(TaskLane.values().length, ThreadPoolUtils.getLaneMetrics().size());
+    }
+
+    @Test
+    public void busyBulkLaneDoesNotHoldCriticalTasks() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        int bulkThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        for (int i = 0; i < bulkThreads; i++) {
+            ThreadPoolUtils.execute(TaskLane.BULK, () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        try {
+            CountDownLatch done = new CountDownLatch(1);
+            ThreadPoolUtils.execute(TaskLane.CRITICAL, done::countDown);
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void invokeAllBoundedKeepsOrderAndLimit() throws Exception {
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            int value = i;
+            tasks.add(() -> {
+                max.accumulateAndGet(current.incrementAndGet(), Math::max);
+                Thread.sleep(2);
+                current.decrementAndGet();
+                return value;
+            });
+        }
+
+        List<Integer> result = ThreadPoolUtils.invokeAllBounded(tasks, 3, 10, TimeUnit.SECONDS).get();
+
+        assertEquals(50, result.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(Integer.valueOf(i), result.get(i));
+        }
+        assertTrue(max.get() <= 3);
+    }
+
+    @Test(timeout = 60000)
+    public void invokeAllBoundedOnSaturatedLaneDoesNotRecurse() throws Exception {
+        // 占满默认线程池的线程与队列，之后提交的任务都由调用线程执行
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorMetrics.Snapshot metrics = ThreadPoolUtils.getMetrics();
+        try {
+            fillDefaultLane(release);
+            long callerRuns = ThreadPoolUtils.getMetrics().getCallerRuns();
+            List<Callable<Integer>> tasks = Collections.nCopies(200000, () -> 1);
+
+            List<Integer> result = ThreadPoolUtils.invokeAllBounded(tasks, 4, 30, TimeUnit.SECONDS)
+                    .get(30, TimeUnit.SECONDS);
+
+            assertEquals(200000, result.size());
+            assertTrue(ThreadPoolUtils.getMetrics().getCallerRuns() > callerRuns);
+        } finally {
+            release.countDown();
+        }
+        assertTrue(metrics.getSubmitted() < ThreadPoolUtils.getMetrics().getSubmitted());
+    }
+
+    @Test(timeout = 60000)
+    public void invokeAllBoundedOnSaturatedLaneStillTimesOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executed = new AtomicInteger();
+        List<Callable<Integer>> tasks = Collections.nCopies(50, () -> {
+            executed.incrementAndGet();
+            Thread.sleep(100);
+            return 1;
+        });
+        CompletableFuture<List<Integer>> future;
+        try {
+            fillDefaultLane(release);
+            future = ThreadPoolUtils.invokeAllBounded(tasks, 4, 300, TimeUnit.MILLISECONDS);
+        } finally {
+            release.countDown();
+        }
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("调用线程执行时也应超时");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        // 超时后不再取下一个任务
+        assertTrue(executed.get() < 10);
+    }
+
+    @Test
+    public void invokeAllBoundedFailsOnFirstError() throws Exception {
+        List<Callable<Integer>> tasks = Arrays.asList(() -> 1, () -> {
+            throw new IllegalStateException("boom");
+        }, () -> 3);
+        try {
+            ThreadPoolUtils.invokeAllBounded(tasks, 1, 10, TimeUnit.SECONDS).get();
+            fail("任务失败时整体应失败");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void scheduledTaskRunsOnLane() throws Exception {
+        CountDownLatch runs = new CountDownLatch(2);
+        List<String> threads = new CopyOnWriteArrayList<>();
+        ScheduledFuture<?> future = ThreadPoolUtils.scheduleAtFixedRate(TaskLane.BULK, () -> {
+            threads.add(Thread.currentThread().getName());
+            runs.countDown();
+        }, 20, TimeUnit.MILLISECONDS);
+        try {
+            assertTrue(runs.await(5, TimeUnit.SECONDS));
+        } finally {
+            future.cancel(false);
+        }
+        assertTrue(threads.get(0).startsWith("sprite-bulk"));
+    }
+
+    @Test
+    public void submitTimesOut() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Integer> future = ThreadPoolUtils.submit(() -> {
+            release.await();
+            return 1;
+        }, 50, TimeUnit.MILLISECONDS);
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("应超时");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void finishedTaskCancelsTimeoutTimer() throws Exception {
+        ScheduledThreadPoolExecutor scheduler = scheduler();
+        int before = scheduler.getQueue().size();
+        for (int i = 0; i < 100; i++) {
+            ThreadPoolUtils.submit(() -> 1, 1, TimeUnit.HOURS).get();
+        }
+
+        assertTrue(scheduler.getQueue().size() <= before);
+    }
+
+    @Test
+    public void batcherFlushesBySizeAndWindow() throws Exception {
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        MicroBatcher<Integer> batcher = ThreadPoolUtils.newBatcher("test", 3, 100, batches::add);
+        for (int i = 0; i < 4; i++) {
+            batcher.add(i);
+        }
+        Thread.sleep(500);
+
+        assertEquals(Arrays.asList(Arrays.asList(0, 1, 2), Collections.singletonList(3)), batches);
+        batcher.close();
+    }
+
+    @Test
+    public void staleWindowTimerDoesNotFlushNextBatch() throws Exception {
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        MicroBatcher<Integer> batcher = ThreadPoolUtils.newBatcher("test", 2, 1000, batches::add);
+        // 第一批按数量发出，其定时器在1000ms时触发
+        batcher.add(1);
+        batcher.add(2);
+        Thread.sleep(500);
+        // 第二批的定时器在1500ms时触发
+        batcher.add(3);
+        Thread.sleep(700);
+
+        assertEquals(1, batches.size());
+        Thread.sleep(600);
+        assertEquals(2, batches.size());
+        batcher.close();
+    }
+
+    @Test(timeout = 60000)
+    public void windowFlushOnSaturatedLaneKeepsSchedulerFree() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        List<String> threads = new CopyOnWriteArrayList<>();
+        CountDownLatch ticks = new CountDownLatch(5);
+        ScheduledFuture<?> timer = null;
+        MicroBatcher<Integer> batcher = ThreadPoolUtils.newBatcher("test", 100, 20, batch -> {
+            threads.add(Thread.currentThread().getName());
+            batches.add(batch);
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try {
+            fillDefaultLane(release);
+            batcher.add(1);
+            batcher.add(2);
+            timer = ThreadPoolUtils.scheduleAtFixedRate(TaskLane.CRITICAL, ticks::countDown, 20, TimeUnit.MILLISECONDS);
+
+            // 批次等待重试期间，其他定时任务照常触发
+            assertTrue(ticks.await(5, TimeUnit.SECONDS));
+            assertTrue(batches.isEmpty());
+        } finally {
+            release.countDown();
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        }
+        long deadline = System.currentTimeMillis() + 10000L;
+        while (batches.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20L);
+        }
+        assertEquals(Collections.singletonList(Arrays.asList(1, 2)), batches);
+        assertTrue(threads.get(0).startsWith("sprite-pool"));
+        batcher.close();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void closedBatcherRejectsItems() {
+        MicroBatcher<Integer> batcher = ThreadPoolUtils.newBatcher("test", 2, 100, batch -> {
+        });
+        batcher.close();
+        batcher.add(1);
+    }
+
+    /**
+     * 占满默认线程池的线程与队列，之后提交的任务由调用线程执行，tryExecute返回false
+     */
+    private static void fillDefaultLane(CountDownLatch release) throws InterruptedException {
+        // 先等其他用例遗留的任务执行完，否则其执行完后会空出队列
+        ExecutorMetrics.Snapshot metrics;
+        while ((metrics = ThreadPoolUtils.getMetrics()).getQueueDepth() > 0 || metrics.getActiveThreads() > 0) {
+            Thread.sleep(10L);
+        }
+        Runnable blocker = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        // 用tryExecute填充，不会在当前线程执行；空闲线程从队列取任务后会空出位置，再次填充直到没有空位
+        boolean filled = false;
+        while (!filled) {
+            filled = true;
+            while (ThreadPoolUtils.tryExecute(TaskLane.DEFAULT, blocker)) {
+                filled = false;
+            }
+            Thread.sleep(50L);
+        }
+    }
+
+    private static ScheduledThreadPoolExecutor scheduler() throws Exception {
+        Field field = ThreadPoolUtils.class.getDeclaredField("SCHEDULER");
+        field.setAccessible(true);
+        return (ScheduledThreadPoolExecutor) field.get(null);
+    }
+
+    /**
+     * 在通道上执行任务，返回去掉序号的线程名
+     */
+    private static String threadOf(TaskLane lane) throws InterruptedException {
+        AtomicReference<String> name = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        ThreadPoolUtils.execute(lane, () -> {
+            name.set(Thread.currentThread().getName());
+            done.countDown();
+        });
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        return name.get().substring(0, name.get().lastIndexOf('-'));
+    }
+}
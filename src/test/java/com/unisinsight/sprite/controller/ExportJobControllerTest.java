@@ -0,0 +1,81 @@
+package com.unisinsight.sprite.controller;
+
+import com.unisinsight.sprite.common.excel.ExportJob;
+import com.unisinsight.sprite.common.excel.ExportJobService;
+import com.unisinsight.sprite.common.exception.CommonException;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * description 导出任务只对提交者可见
+ *
+ * @date 2026/10/19
+ * @since 1.0
+ */
+public class ExportJobControllerTest {
+
+    private final ExportJobService service = mock(ExportJobService.class);
+
+    private final ExportJobController controller = new ExportJobController(service);
+
+    private final ExportJob job = new ExportJob();
+
+    @Before
+    public void setUp() {
+        job.setOwner("tenant1:user1");
+        when(service.get("job1")).thenReturn(job);
+    }
+
+    @Test
+    public void ownerCanQueryAndDownload() throws Exception {
+        when(service.currentOwner()).thenReturn("tenant1:user1");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertSame(job, controller.getJob("job1"));
+        controller.download("job1", request, response);
+
+        verify(service).download("job1", request, response);
+    }
+
+    @Test
+    public void otherCallerIsDenied() throws Exception {
+        when(service.currentOwner()).thenReturn("tenant2:user1");
+
+        assertDenied();
+    }
+
+    @Test
+    public void callerWithoutIdentityIsDenied() throws Exception {
+        when(service.currentOwner()).thenReturn(null);
+
+        assertDenied();
+    }
+
+    private void assertDenied() throws Exception {
+        try {
+            controller.getJob("job1");
+            fail("非提交者不能查询任务");
+        } catch (CommonException e) {
+            // 拒绝访问
+        }
+        try {
+            controller.download("job1", new MockHttpServletRequest(), new MockHttpServletResponse());
+            fail("非提交者不能下载文件");
+        } catch (CommonException e) {
+            // 拒绝访问
+        }
+        verify(service, never()).download(anyString(), any(), any());
+    }
+}